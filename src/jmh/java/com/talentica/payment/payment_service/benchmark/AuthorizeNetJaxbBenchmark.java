@@ -0,0 +1,83 @@
+package com.talentica.payment.payment_service.benchmark;
+
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.gateway.impl.AuthorizeNetRequests;
+import com.talentica.payment.payment_service.gateway.impl.MerchantCredentials;
+import net.authorize.Environment;
+import net.authorize.api.contract.v1.CreateTransactionRequest;
+import net.authorize.api.contract.v1.CreateTransactionResponse;
+import net.authorize.api.contract.v1.MerchantAuthenticationType;
+import org.openjdk.jmh.annotations.*;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JAXB cost of a gateway round trip: marshalling the
+ * {@link CreateTransactionRequest} and unmarshalling the response.
+ * <p>
+ * {@code marshalRequestNewContext} builds a {@link JAXBContext} per call, to
+ * show what is at stake when a context is not reused.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorizeNetJaxbBenchmark {
+
+    private JAXBContext context;
+    private CreateTransactionRequest request;
+    private byte[] responseXml;
+
+    @Setup
+    public void setUp() throws JAXBException {
+        context = JAXBContext.newInstance(CreateTransactionRequest.class, CreateTransactionResponse.class);
+
+        MerchantAuthenticationType authentication = new MerchantAuthenticationType();
+        authentication.setName("benchmark");
+        authentication.setTransactionKey("benchmark");
+
+        PaymentOrder order = PaymentOrder.builder()
+                .amount(new BigDecimal("125.50"))
+                .currency("USD")
+                .build();
+
+        request = AuthorizeNetRequests.createTransactionRequest(
+                new MerchantCredentials(Environment.SANDBOX, authentication),
+                AuthorizeNetRequests.purchase(order));
+
+        ByteArrayOutputStream xml = new ByteArrayOutputStream();
+        context.createMarshaller().marshal(
+                AuthorizeNetResponseParserBenchmark.AuthorizeNetResponses.approved(), xml);
+        responseXml = xml.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] marshalRequest() throws JAXBException {
+        return marshal(context);
+    }
+
+    @Benchmark
+    public byte[] marshalRequestNewContext() throws JAXBException {
+        return marshal(JAXBContext.newInstance(CreateTransactionRequest.class));
+    }
+
+    @Benchmark
+    public Object unmarshalResponse() throws JAXBException {
+        return context.createUnmarshaller().unmarshal(new ByteArrayInputStream(responseXml));
+    }
+
+    private byte[] marshal(JAXBContext jaxbContext) throws JAXBException {
+        ByteArrayOutputStream xml = new ByteArrayOutputStream(1024);
+        Marshaller marshaller = jaxbContext.createMarshaller();
+        marshaller.marshal(request, xml);
+        return xml.toByteArray();
+    }
+}
@@ -0,0 +1,102 @@
+package com.talentica.payment.payment_service.benchmark;
+
+import com.talentica.payment.payment_service.gateway.dto.GatewayResponse;
+import com.talentica.payment.payment_service.gateway.impl.AuthorizeNetResponseParser;
+import net.authorize.api.contract.v1.CreateTransactionResponse;
+import net.authorize.api.contract.v1.MessageTypeEnum;
+import net.authorize.api.contract.v1.MessagesType;
+import net.authorize.api.contract.v1.TransactionResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Translation of already-unmarshalled gateway responses into
+ * {@link GatewayResponse}, for each kind of answer the gateway gives.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorizeNetResponseParserBenchmark {
+
+    @Param({"APPROVED", "DECLINED", "API_ERROR"})
+    private String outcome;
+
+    private CreateTransactionResponse response;
+
+    @Setup
+    public void setUp() {
+        response = switch (outcome) {
+            case "APPROVED" -> AuthorizeNetResponses.approved();
+            case "DECLINED" -> AuthorizeNetResponses.declined();
+            default -> AuthorizeNetResponses.apiError();
+        };
+    }
+
+    @Benchmark
+    public GatewayResponse parseResponse() {
+        return AuthorizeNetResponseParser.parseResponse(response);
+    }
+
+    /**
+     * Representative responses, shaped like those of the sandbox.
+     */
+    static final class AuthorizeNetResponses {
+
+        private AuthorizeNetResponses() {
+        }
+
+        static CreateTransactionResponse approved() {
+            TransactionResponse result = new TransactionResponse();
+            result.setResponseCode("1");
+            result.setTransId("80012345678");
+            result.setAuthCode("QWE123");
+            result.setAccountNumber("XXXX1111");
+            result.setAccountType("Visa");
+
+            return response(MessageTypeEnum.OK, "I00001", "Successful.", result);
+        }
+
+        static CreateTransactionResponse declined() {
+            TransactionResponse.Errors.Error error = new TransactionResponse.Errors.Error();
+            error.setErrorCode("2");
+            error.setErrorText("This transaction has been declined.");
+
+            TransactionResponse.Errors errors = new TransactionResponse.Errors();
+            errors.getError().add(error);
+
+            TransactionResponse result = new TransactionResponse();
+            result.setResponseCode("2");
+            result.setTransId("0");
+            result.setErrors(errors);
+
+            return response(MessageTypeEnum.ERROR, "E00027", "The transaction was unsuccessful.", result);
+        }
+
+        static CreateTransactionResponse apiError() {
+            return response(MessageTypeEnum.ERROR, "E00001",
+                    "An error occurred during processing. Please try again.", null);
+        }
+
+        private static CreateTransactionResponse response(MessageTypeEnum resultCode,
+                                                          String code,
+                                                          String text,
+                                                          TransactionResponse result) {
+            MessagesType.Message message = new MessagesType.Message();
+            message.setCode(code);
+            message.setText(text);
+
+            MessagesType messages = new MessagesType();
+            messages.setResultCode(resultCode);
+            messages.getMessage().add(message);
+
+            CreateTransactionResponse response = new CreateTransactionResponse();
+            response.setMessages(messages);
+            response.setTransactionResponse(result);
+            return response;
+        }
+    }
+}
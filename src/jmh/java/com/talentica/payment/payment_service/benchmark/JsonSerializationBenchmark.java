@@ -0,0 +1,45 @@
+package com.talentica.payment.payment_service.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import com.talentica.payment.payment_service.dto.response.ErrorResponse;
+import com.talentica.payment.payment_service.dto.response.PaymentResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the API response bodies with an {@link ObjectMapper}
+ * configured the way Spring Boot configures the one used by the controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final PaymentResponse paymentResponse = new PaymentResponse(
+            UUID.randomUUID(), PaymentStatus.CAPTURED, new BigDecimal("125.50"), "USD");
+
+    private final ErrorResponse errorResponse = new ErrorResponse(
+            "INVALID_PAYMENT_STATE", "Capture allowed only in AUTHORIZED state", Instant.now());
+
+    @Benchmark
+    public byte[] paymentResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(paymentResponse);
+    }
+
+    @Benchmark
+    public byte[] errorResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(errorResponse);
+    }
+}
@@ -0,0 +1,54 @@
+package com.talentica.payment.payment_service.benchmark;
+
+import com.talentica.payment.payment_service.config.JwtProperties;
+import com.talentica.payment.payment_service.security.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of validating a bearer token, paid on every authenticated request,
+ * with and without the verified-token cache, and of issuing one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(properties(10_000));
+        uncachedJwtUtil = new JwtUtil(properties(0));
+        token = jwtUtil.generateToken("benchmark-user");
+    }
+
+    @Benchmark
+    public String validateAndGetUsername() {
+        return jwtUtil.validateAndGetUsername(token);
+    }
+
+    @Benchmark
+    public String validateAndGetUsernameUncached() {
+        return uncachedJwtUtil.validateAndGetUsername(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("benchmark-user");
+    }
+
+    private static JwtProperties properties(long cacheSize) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("VGhpcy1pcy1hLXZlcnktbG9uZy1qd3Qtc2VjcmV0LWtleS0xMjM0NTY=");
+        properties.setExpirationMs(3_600_000);
+        properties.setCacheSize(cacheSize);
+        return properties;
+    }
+}
@@ -0,0 +1,70 @@
+package com.talentica.payment.payment_service.benchmark;
+
+import com.talentica.payment.payment_service.PaymentServiceApplication;
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.service.PaymentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link PaymentService#purchase} against in-memory H2 and the
+ * gateway simulator with no added latency, i.e. the service's own overhead
+ * per payment: three short transactions, the audit insert, the resilience
+ * wrapper and the stub call.
+ * <p>
+ * Run with several threads ({@code -Djmh.args="PaymentServicePurchaseBenchmark -t 8"})
+ * to include contention on the connection pool and the audit writer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PaymentServicePurchaseBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("125.50");
+
+    /**
+     * Whether PENDING audit rows go through the batching write-behind writer.
+     */
+    @Param({"false", "true"})
+    private boolean auditWriter;
+
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PaymentServiceApplication.class)
+                .profiles("local", "simulator")
+                // Command-line arguments, so they win over the profile files
+                .run("--server.port=0",
+                        "--management.server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--authorize-net.simulator.http.enabled=false",
+                        "--authorize-net.simulator.decline-rate=0",
+                        "--authorize-net.simulator.latency.distribution=FIXED",
+                        "--authorize-net.simulator.latency.min=PT0S",
+                        "--authorize-net.simulator.latency.median=PT0S",
+                        "--payment.audit-writer.enabled=" + auditWriter);
+
+        paymentService = context.getBean(PaymentService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PaymentOrder purchase() {
+        return paymentService.purchase(AMOUNT, "USD");
+    }
+}
@@ -0,0 +1,69 @@
+package com.talentica.payment.payment_service.benchmark;
+
+import com.talentica.payment.payment_service.domain.enums.PaymentAction;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import com.talentica.payment.payment_service.exception.InvalidPaymentStateException;
+import com.talentica.payment.payment_service.service.PaymentStateValidator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link PaymentStateValidator} for an allowed transition and for a
+ * rejected one, through {@code validate} and through the exception-free
+ * {@code isAllowed}. The {@code stackTrace} variants repeat the rejection
+ * with an exception that fills in its stack trace, as the validator's did
+ * before, for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentStateValidatorBenchmark {
+
+    private final PaymentStateValidator validator = new PaymentStateValidator();
+
+    // Fields rather than constants, so the JIT cannot fold the checks away
+    private PaymentStatus partiallyRefunded = PaymentStatus.PARTIALLY_REFUNDED;
+    private PaymentStatus captured = PaymentStatus.CAPTURED;
+    private PaymentAction refund = PaymentAction.REFUND;
+    private PaymentAction capture = PaymentAction.CAPTURE;
+
+    @Benchmark
+    public void allowed() {
+        validator.validate(partiallyRefunded, refund);
+    }
+
+    @Benchmark
+    public void rejected(Blackhole blackhole) {
+        try {
+            validator.validate(captured, capture);
+        } catch (InvalidPaymentStateException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public boolean allowedCheck() {
+        return validator.isAllowed(partiallyRefunded, refund);
+    }
+
+    @Benchmark
+    public boolean rejectedCheck() {
+        return validator.isAllowed(captured, capture);
+    }
+
+    @Benchmark
+    public void rejectedStackTrace(Blackhole blackhole) {
+        try {
+            if (!validator.isAllowed(captured, capture)) {
+                throw new IllegalStateException("Capture allowed only in AUTHORIZED state");
+            }
+        } catch (IllegalStateException e) {
+            blackhole.consume(e);
+        }
+    }
+}
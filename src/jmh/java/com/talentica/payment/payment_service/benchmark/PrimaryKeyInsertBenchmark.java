@@ -0,0 +1,103 @@
+package com.talentica.payment.payment_service.benchmark;
+
+import com.talentica.payment.payment_service.domain.id.UuidV7Generator;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Measures insert throughput into a {@code BINARY(16)} clustered primary key
+ * as the table grows, comparing random v4 UUIDs with time-ordered v7 UUIDs.
+ * <p>
+ * Rates are printed per segment so the drop-off with random keys is visible
+ * once the index no longer fits in the buffer pool. Meaningful numbers need
+ * MySQL InnoDB and tens of millions of rows; the H2 default only checks the
+ * harness works.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec \
+ *     -Dbenchmark.main=com.talentica.payment.payment_service.benchmark.PrimaryKeyInsertBenchmark \
+ *     -Dbenchmark.args="jdbc:mysql://localhost:3308/paymentdb paymentuser paymentpass 50000000"
+ * </pre>
+ * Arguments: JDBC URL, user, password, rows per key type.
+ */
+public class PrimaryKeyInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int SEGMENTS = 10;
+
+    public static void main(String[] args) throws SQLException {
+
+        String url = args.length > 0 ? args[0] : "jdbc:h2:mem:pkbench;DB_CLOSE_DELAY=-1";
+        String user = args.length > 1 ? args[1] : "sa";
+        String password = args.length > 2 ? args[2] : "";
+        long rows = args.length > 3 ? Long.parseLong(args[3]) : 1_000_000;
+
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            connection.setAutoCommit(false);
+
+            run(connection, "pk_bench_v4", rows, UUID::randomUUID);
+            run(connection, "pk_bench_v7", rows, UuidV7Generator::next);
+        }
+    }
+
+    private static void run(Connection connection,
+                            String table,
+                            long rows,
+                            Supplier<UUID> ids) throws SQLException {
+
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("drop table if exists " + table);
+            ddl.execute("create table " + table + " ("
+                    + "id binary(16) not null primary key, "
+                    + "amount decimal(19,2) not null, "
+                    + "status varchar(20) not null)");
+        }
+        connection.commit();
+
+        System.out.printf("%s: %,d rows%n", table, rows);
+
+        long segmentRows = rows / SEGMENTS;
+        String sql = "insert into " + table + " (id, amount, status) values (?, ?, ?)";
+
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (int segment = 1; segment <= SEGMENTS; segment++) {
+
+                long start = System.nanoTime();
+
+                for (long i = 1; i <= segmentRows; i++) {
+                    insert.setBytes(1, toBytes(ids.get()));
+                    insert.setBigDecimal(2, java.math.BigDecimal.TEN);
+                    insert.setString(3, "CAPTURED");
+                    insert.addBatch();
+
+                    if (i % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf(Locale.ROOT, "  up to %,14d rows: %,12.0f rows/s%n",
+                        segment * segmentRows, segmentRows / seconds);
+            }
+        }
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
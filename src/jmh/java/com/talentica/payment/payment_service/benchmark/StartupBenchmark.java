@@ -0,0 +1,133 @@
+package com.talentica.payment.payment_service.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures how long the service takes to start, from a fat jar, from the
+ * extracted layout, with the AppCDS archive and with Spring AOT on top, by
+ * starting each one in a new JVM and reading the time Spring Boot logs for
+ * "Started PaymentServiceApplication".
+ * <p>
+ * Needs the output of the {@code aot} build, made for the profiles the
+ * benchmark runs with:
+ * <pre>
+ * mvn -Paot -Daot.profiles=local -Daot.database-platform=org.hibernate.dialect.H2Dialect -DskipTests package
+ * mvn -Pbenchmark test-compile exec:exec \
+ *     -Dbenchmark.main=com.talentica.payment.payment_service.benchmark.StartupBenchmark \
+ *     -Dbenchmark.args="5 local"
+ * </pre>
+ * Arguments: starts per mode, Spring profiles.
+ */
+public class StartupBenchmark {
+
+    private static final Path TARGET = Path.of("target");
+    private static final Path EXTRACTED = TARGET.resolve("application");
+    private static final String JAR = "payment-service.jar";
+    private static final long TIMEOUT_MILLIS = 120_000;
+
+    private static final Pattern STARTED = Pattern.compile(
+            "Started PaymentServiceApplication in ([\\d.]+) seconds \\(process running for ([\\d.]+)\\)");
+
+    private final String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    private final String profiles;
+
+    private StartupBenchmark(String profiles) {
+        this.profiles = profiles;
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        String profiles = args.length > 1 ? args[1] : "local";
+
+        if (!Files.exists(EXTRACTED.resolve("application.jsa"))) {
+            throw new IllegalStateException("Run 'mvn -Paot -Daot.profiles=" + profiles
+                    + " package' first: " + EXTRACTED.resolve("application.jsa") + " is missing");
+        }
+
+        StartupBenchmark benchmark = new StartupBenchmark(profiles);
+
+        System.out.printf("%d starts per mode, profiles %s%n", runs, profiles);
+        System.out.printf("%-18s %12s %12s %12s%n", "mode", "started s", "process s", "min s");
+
+        benchmark.run("fat jar", TARGET, List.of(), JAR, runs);
+        benchmark.run("extracted", EXTRACTED, List.of(), JAR, runs);
+        benchmark.run("extracted + CDS", EXTRACTED,
+                List.of("-XX:SharedArchiveFile=application.jsa"), JAR, runs);
+        benchmark.run("CDS + AOT", EXTRACTED,
+                List.of("-XX:SharedArchiveFile=application.jsa", "-Dspring.aot.enabled=true"), JAR, runs);
+    }
+
+    private void run(String mode, Path directory, List<String> jvmArgs, String jar, int runs)
+            throws IOException, InterruptedException {
+
+        double[] started = new double[runs];
+        double[] process = new double[runs];
+
+        for (int i = 0; i < runs; i++) {
+            double[] times = start(directory, jvmArgs, jar);
+            started[i] = times[0];
+            process[i] = times[1];
+        }
+        Arrays.sort(started);
+        Arrays.sort(process);
+
+        System.out.printf(Locale.ROOT, "%-18s %12.3f %12.3f %12.3f%n",
+                mode, started[runs / 2], process[runs / 2], process[0]);
+    }
+
+    /**
+     * Starts the service once and stops it as soon as it reports having
+     * started; returns the context and process start times, in seconds.
+     */
+    private double[] start(Path directory, List<String> jvmArgs, String jar)
+            throws IOException, InterruptedException {
+
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(jvmArgs);
+        command.add("-Dspring.profiles.active=" + profiles);
+        command.add("-jar");
+        command.add(jar);
+        command.add("--server.port=0");
+        command.add("--management.server.port=0");
+
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true);
+        builder.environment().putIfAbsent("AUTHORIZE_NET_LOGIN_ID", "benchmark");
+        builder.environment().putIfAbsent("AUTHORIZE_NET_TRANSACTION_KEY", "benchmark");
+
+        Process process = builder.start();
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        try (BufferedReader output = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+
+            String line;
+            while ((line = output.readLine()) != null && System.currentTimeMillis() < deadline) {
+                Matcher matcher = STARTED.matcher(line);
+                if (matcher.find()) {
+                    return new double[] {
+                            Double.parseDouble(matcher.group(1)),
+                            Double.parseDouble(matcher.group(2))
+                    };
+                }
+            }
+            throw new IllegalStateException("Service did not start: " + String.join(" ", command));
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.talentica.payment.payment_service.benchmark;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares throughput and latency of the platform-thread request model
+ * (Tomcat's default 200-thread pool) against virtual threads for the
+ * service's I/O profile: a short database round trip followed by a slow
+ * gateway call.
+ * <p>
+ * The "virtual, pinned" scenario runs the gateway call inside a
+ * {@code synchronized} block to show what happens when blocking code pins
+ * carrier threads, which is why the blocking SDK is offloaded to platform
+ * threads in the virtual-threads profile.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec \
+ *     -Dbenchmark.main=com.talentica.payment.payment_service.benchmark.VirtualThreadBenchmark \
+ *     -Dbenchmark.args="20000 2000"
+ * </pre>
+ * Arguments: total requests, concurrent clients.
+ */
+public class VirtualThreadBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int DB_POOL_SIZE = 20;
+    private static final long DB_MILLIS = 2;
+    private static final long GATEWAY_MIN_MILLIS = 100;
+    private static final long GATEWAY_MAX_MILLIS = 300;
+
+    private final Semaphore connectionPool = new Semaphore(DB_POOL_SIZE, true);
+
+    public static void main(String[] args) throws Exception {
+
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+
+        VirtualThreadBenchmark benchmark = new VirtualThreadBenchmark();
+
+        System.out.printf("%d requests, %d concurrent clients%n", requests, clients);
+        System.out.printf("%-18s %12s %10s %10s%n", "mode", "req/s", "p50 ms", "p99 ms");
+
+        try (ExecutorService platform = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS)) {
+            benchmark.run("platform", platform, requests, clients, false);
+        }
+        try (ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+            benchmark.run("virtual", virtual, requests, clients, false);
+        }
+        try (ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+            benchmark.run("virtual, pinned", virtual, requests, clients, true);
+        }
+    }
+
+    private void run(String mode,
+                     ExecutorService executor,
+                     int requests,
+                     int clients,
+                     boolean pinned) throws InterruptedException {
+
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(clients);
+
+        long start = System.nanoTime();
+
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            long submitted = System.nanoTime();
+            executor.execute(() -> {
+                try {
+                    handleRequest(pinned);
+                } finally {
+                    latencies[next.getAndIncrement()] = System.nanoTime() - submitted;
+                    inFlight.release();
+                }
+            });
+        }
+        inFlight.acquire(clients);
+
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+
+        System.out.printf(Locale.ROOT, "%-18s %12.1f %10.1f %10.1f%n",
+                mode,
+                requests / (elapsed / 1e9),
+                latencies[(int) (requests * 0.50)] / 1e6,
+                latencies[(int) (requests * 0.99)] / 1e6);
+    }
+
+    private void handleRequest(boolean pinned) {
+
+        databaseRoundTrip();
+
+        if (pinned) {
+            synchronized (new Object()) {
+                gatewayCall();
+            }
+        } else {
+            gatewayCall();
+        }
+
+        databaseRoundTrip();
+    }
+
+    private void databaseRoundTrip() {
+        try {
+            connectionPool.acquire();
+            try {
+                TimeUnit.MILLISECONDS.sleep(DB_MILLIS);
+            } finally {
+                connectionPool.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void gatewayCall() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current()
+                    .nextLong(GATEWAY_MIN_MILLIS, GATEWAY_MAX_MILLIS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.talentica.payment.payment_service.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers invalidations to the caches subscribed in this JVM, standing in
+ * for a broker in tests.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.order-cache", name = "invalidation", havingValue = "memory")
+public class InMemoryOrderInvalidationChannel implements OrderInvalidationChannel {
+
+    private final List<Consumer<OrderInvalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(OrderInvalidation invalidation) {
+        listeners.forEach(listener -> listener.accept(invalidation));
+    }
+
+    @Override
+    public void subscribe(Consumer<OrderInvalidation> listener) {
+        listeners.add(listener);
+    }
+}
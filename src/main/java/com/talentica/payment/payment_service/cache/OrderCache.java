@@ -0,0 +1,109 @@
+package com.talentica.payment.payment_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.domain.event.PaymentStatusChanged;
+import com.talentica.payment.payment_service.dto.response.PaymentResponse;
+import com.talentica.payment.payment_service.exception.ResourceNotFoundException;
+import com.talentica.payment.payment_service.repository.PaymentOrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+
+/**
+ * Read-through cache of order state for status reads.
+ * <p>
+ * Entries are immutable {@link PaymentResponse} snapshots, whose only field
+ * that changes is the status, so evicting an order after each committed
+ * {@link PaymentStatusChanged} keeps this node's reads current. A load that
+ * is still running when its order is evicted is discarded with it rather
+ * than cached. Changes committed on other nodes arrive through the
+ * optional {@link OrderInvalidationChannel}; without one they show once the
+ * entry expires after {@code ttl}. Messages are tagged with this cache's
+ * node ID, and its own, echoed back by the channel, are ignored.
+ * <p>
+ * Capture, cancel and refund still read the row: they must validate and
+ * claim against the committed state, and saving a detached copy would load
+ * it again anyway.
+ * <p>
+ * Hits and misses are exported as {@code cache.gets} with
+ * {@code cache=payment.orders}.
+ */
+@Component
+public class OrderCache {
+
+    static final String NAME = "payment.orders";
+
+    private final PaymentOrderRepository orderRepository;
+    private final OrderInvalidationChannel channel;
+    private final UUID nodeId = UUID.randomUUID();
+    private final Cache<UUID, PaymentResponse> orders;
+    private final boolean enabled;
+    private final Counter localInvalidations;
+    private final Counter remoteInvalidations;
+
+    public OrderCache(PaymentOrderRepository orderRepository,
+                      PaymentProperties properties,
+                      MeterRegistry registry,
+                      ObjectProvider<OrderInvalidationChannel> channel) {
+        this.orderRepository = orderRepository;
+        this.channel = channel.getIfAvailable();
+
+        PaymentProperties.OrderCache settings = properties.getOrderCache();
+        this.enabled = settings.isEnabled();
+        this.orders = Caffeine.newBuilder()
+                .maximumSize(settings.getMaximumSize())
+                .expireAfterWrite(settings.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, orders, NAME);
+
+        this.localInvalidations = invalidations(registry, "local");
+        this.remoteInvalidations = invalidations(registry, "remote");
+        if (this.channel != null) {
+            this.channel.subscribe(invalidation -> {
+                if (!nodeId.equals(invalidation.sourceNode())) {
+                    orders.invalidate(invalidation.orderId());
+                    remoteInvalidations.increment();
+                }
+            });
+        }
+    }
+
+    /**
+     * @throws ResourceNotFoundException if there is no such order; misses are not cached
+     */
+    public PaymentResponse get(UUID orderId) {
+        return enabled ? orders.get(orderId, this::load) : load(orderId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatusChanged(PaymentStatusChanged event) {
+        orders.invalidate(event.orderId());
+        localInvalidations.increment();
+        if (channel != null) {
+            channel.publish(new OrderInvalidation(event.orderId(), nodeId));
+        }
+    }
+
+    private PaymentResponse load(UUID orderId) {
+        PaymentOrder order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Payment order not found"));
+        return new PaymentResponse(order.getId(), order.getStatus(), order.getAmount(), order.getCurrency());
+    }
+
+    private static Counter invalidations(MeterRegistry registry, String source) {
+        return Counter.builder("payment.orders.invalidations")
+                .description("Orders evicted from the order cache after a status change")
+                .tag("source", source)
+                .register(registry);
+    }
+}
@@ -0,0 +1,10 @@
+package com.talentica.payment.payment_service.cache;
+
+import java.util.UUID;
+
+/**
+ * An order to evict, tagged with the node that committed the change so
+ * that node can skip its own message.
+ */
+public record OrderInvalidation(UUID orderId, UUID sourceNode) {
+}
@@ -0,0 +1,17 @@
+package com.talentica.payment.payment_service.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries order cache invalidations between nodes, so a status change
+ * committed on one node evicts the order everywhere instead of waiting for
+ * the entry to expire. Delivery is best effort; the cache TTL bounds the
+ * staleness of anything lost. A publisher may receive its own messages;
+ * subscribers tell them apart by {@link OrderInvalidation#sourceNode()}.
+ */
+public interface OrderInvalidationChannel {
+
+    void publish(OrderInvalidation invalidation);
+
+    void subscribe(Consumer<OrderInvalidation> listener);
+}
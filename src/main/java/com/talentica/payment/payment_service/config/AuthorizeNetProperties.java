@@ -1,10 +1,15 @@
 package com.talentica.payment.payment_service.config;
 
+import com.talentica.payment.payment_service.gateway.simulator.LatencyDistribution;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Getter
 @Setter
 @Configuration
@@ -14,5 +19,90 @@ public class AuthorizeNetProperties {
     private String apiLoginId;
     private String transactionKey;
     private boolean sandbox;
-}
 
+    // Overrides the sandbox/production API host, e.g. http://localhost:8099 for the simulator
+    private String endpoint;
+
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    // Initialize the SDK in the background once the application is ready
+    private boolean warmUp = true;
+
+    // Platform threads for blocking SDK calls made from virtual threads
+    private int offloadPoolSize = 64;
+
+    /**
+     * Additional credential sets keyed by merchant ID. The top-level
+     * credentials above are always registered as the default merchant.
+     */
+    private Map<String, Merchant> merchants = new LinkedHashMap<>();
+
+    private Resilience resilience = new Resilience();
+
+    private Simulator simulator = new Simulator();
+
+    @Getter
+    @Setter
+    public static class Merchant {
+        private String apiLoginId;
+        private String transactionKey;
+        // Falls back to the top-level sandbox flag when unset
+        private Boolean sandbox;
+    }
+
+    @Getter
+    @Setter
+    public static class Resilience {
+        // Bulkhead: concurrent gateway calls allowed per operation
+        private int maxConcurrentCalls = 25;
+        // How long a call waits for a bulkhead slot before failing fast
+        private Duration maxWait = Duration.ZERO;
+
+        // Circuit breaker, evaluated over the last sliding-window-size calls
+        private int slidingWindowSize = 50;
+        private int minimumCalls = 20;
+        private int failureRateThreshold = 50;
+        private Duration slowCallDuration = Duration.ofSeconds(5);
+        private int slowCallRateThreshold = 80;
+        private Duration openDuration = Duration.ofSeconds(30);
+        // Trial calls let through after open-duration to probe recovery
+        private int halfOpenCalls = 5;
+    }
+
+    @Getter
+    @Setter
+    public static class Simulator {
+        // Replace the SDK transport with the in-process simulator
+        private boolean enabled;
+        // Fixed seed for reproducible runs; random when unset
+        private Long seed;
+        private Latency latency = new Latency();
+        // Probabilities between 0 and 1, applied per call
+        private double declineRate;
+        private double errorRate;
+        private double timeoutRate;
+        // How long a simulated timeout hangs before giving up
+        private Duration timeout = Duration.ofSeconds(35);
+        private Http http = new Http();
+
+        @Getter
+        @Setter
+        public static class Latency {
+            private LatencyDistribution distribution = LatencyDistribution.LOG_NORMAL;
+            // FIXED uses median; UNIFORM spans min..max; LOG_NORMAL is fitted to median and p99
+            private Duration min = Duration.ofMillis(50);
+            private Duration median = Duration.ofMillis(300);
+            private Duration p99 = Duration.ofMillis(1500);
+            private Duration max = Duration.ofSeconds(10);
+        }
+
+        @Getter
+        @Setter
+        public static class Http {
+            // Serve the XML API locally; point authorize-net.endpoint at it
+            private boolean enabled;
+            private int port = 8099;
+        }
+    }
+}
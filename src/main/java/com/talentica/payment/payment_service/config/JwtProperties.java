@@ -10,4 +10,9 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 public class JwtProperties {
     private String secret;
     private long expirationMs;
+    /**
+     * Maximum number of verified tokens remembered until they expire;
+     * 0 verifies every request.
+     */
+    private long cacheSize = 10_000;
 }
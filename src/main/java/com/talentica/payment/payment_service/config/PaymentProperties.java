@@ -0,0 +1,227 @@
+package com.talentica.payment.payment_service.config;
+
+import com.talentica.payment.payment_service.domain.enums.PaymentAction;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "payment")
+public class PaymentProperties {
+
+    private Scheduling scheduling = new Scheduling();
+    private Recovery recovery = new Recovery();
+    private Idempotency idempotency = new Idempotency();
+    private AuditWriter auditWriter = new AuditWriter();
+    private OrderLock orderLock = new OrderLock();
+    private AsyncWorkers asyncWorkers = new AsyncWorkers();
+    private Batch batch = new Batch();
+    private AutoVoid autoVoid = new AutoVoid();
+    private Export export = new Export();
+    private Outbox outbox = new Outbox();
+    private Stream stream = new Stream();
+    private OrderCache orderCache = new OrderCache();
+    private StateMachine stateMachine = new StateMachine();
+
+    @Getter
+    @Setter
+    public static class Scheduling {
+        // Run the @Scheduled jobs (recovery, idempotency purge, auto-void, stream heartbeats)
+        private boolean enabled = true;
+    }
+
+    @Getter
+    @Setter
+    public static class Recovery {
+        // PENDING attempts older than this are treated as abandoned by a crashed node
+        private Duration pendingTimeout = Duration.ofMinutes(5);
+        private Duration interval = Duration.ofMinutes(1);
+        private int batchSize = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class Idempotency {
+        // How long a key is remembered and its response replayed
+        private Duration ttl = Duration.ofHours(24);
+        private long cacheSize = 10_000;
+        // IN_PROGRESS keys older than this are refused as having an unknown outcome
+        private Duration inProgressTimeout = Duration.ofMinutes(5);
+        private Duration purgeInterval = Duration.ofHours(1);
+    }
+
+    @Getter
+    @Setter
+    public static class AuditWriter {
+        // Batch PENDING transaction inserts through PaymentTransactionWriter
+        private boolean enabled = false;
+        private Durability durability = Durability.SYNC;
+        private int batchSize = 50;
+        // How long the first queued row waits for others to join its batch
+        private Duration linger = Duration.ofMillis(5);
+        private int queueCapacity = 10_000;
+        // Beyond this the caller writes its own row instead of waiting for space
+        private Duration enqueueTimeout = Duration.ofMillis(50);
+    }
+
+    @Getter
+    @Setter
+    public static class OrderLock {
+        // Rounded up to a power of two
+        private int stripes = 1024;
+        // How long a request waits for its order's stripe before being rejected
+        private Duration waitTimeout = Duration.ofSeconds(2);
+    }
+
+    @Getter
+    @Setter
+    public static class AsyncWorkers {
+        // Threads running gateway calls for payments submitted with Prefer: respond-async
+        private int poolSize = 32;
+        // Accepted submissions waiting for a thread; beyond this new ones get 503
+        private int queueCapacity = 1_000;
+        // Queued submissions older than this are failed without calling the gateway;
+        // must stay below recovery.pending-timeout
+        private Duration maxQueueTime = Duration.ofMinutes(1);
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Batch {
+        // Gateway calls in flight across all batches; keep below
+        // authorize-net.resilience.max-concurrent-calls so single captures still get through
+        private int concurrency = 16;
+        // Average gateway calls started per second across all batches; 0 for no limit
+        private double ratePerSecond = 50;
+        // Calls that may start back to back after a quiet period
+        private int burst = 10;
+        // Send batch captures through the non-blocking gateway client
+        private boolean asyncGateway = true;
+        // How long a streamed batch response may stay open
+        private Duration timeout = Duration.ofMinutes(30);
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class AutoVoid {
+        private boolean enabled = false;
+        // Authorizations older than this are voided; keep below the gateway's own expiry
+        private Duration ttl = Duration.ofDays(7);
+        private Duration interval = Duration.ofMinutes(15);
+        // Orders voided together; the next page is read once they have all completed
+        private int pageSize = 100;
+        private int maxPerRun = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Export {
+        // Rows fetched per round trip by the streaming export
+        private int fetchSize = 1_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Outbox {
+        // Record order status changes in payment_outbox and relay them to the sink
+        private boolean enabled = false;
+        // Run the relay on this node; enable it on one node only to keep per-order ordering
+        private boolean relayEnabled = true;
+        private OutboxSinkType sink = OutboxSinkType.FILE;
+        private int batchSize = 100;
+        // How long the oldest event waits for a partial batch to fill
+        private Duration linger = Duration.ofMillis(200);
+        // Fallback check for events committed by other nodes
+        private Duration pollInterval = Duration.ofSeconds(1);
+        // First retry delay after a failed delivery, doubled up to maxBackoff
+        private Duration backoff = Duration.ofSeconds(1);
+        private Duration maxBackoff = Duration.ofMinutes(1);
+        private File file = new File();
+        private Webhook webhook = new Webhook();
+
+        @Getter
+        @Setter
+        public static class File {
+            // Events are appended as NDJSON and synced before they leave the outbox
+            private String path = "payment-events.ndjson";
+        }
+
+        @Getter
+        @Setter
+        public static class Webhook {
+            // Receives each batch as a JSON array; any 2xx acknowledges it
+            private String url;
+            private Duration connectTimeout = Duration.ofSeconds(5);
+            private Duration timeout = Duration.ofSeconds(10);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Stream {
+        // Open GET /api/payments/stream connections per node; beyond this new ones get 503
+        private int maxSubscribers = 10_000;
+        // Updates waiting to be written to one subscriber; a subscriber that falls further behind is dropped
+        private int queueCapacity = 64;
+        // Connections are closed after this and clients reconnect
+        private Duration timeout = Duration.ofMinutes(30);
+        // Comment lines keeping idle connections open through proxies and detecting closed ones
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+    }
+
+    @Getter
+    @Setter
+    public static class OrderCache {
+        // Serve order status reads from memory, evicted after each committed status change
+        private boolean enabled = true;
+        private long maximumSize = 10_000;
+        // Bounds how long a change committed by a node outside the invalidation channel stays unseen
+        private Duration ttl = Duration.ofSeconds(30);
+        private InvalidationChannelType invalidation = InvalidationChannelType.NONE;
+    }
+
+    @Getter
+    @Setter
+    public static class StateMachine {
+        // Statuses an order must be in for each action to start; actions not configured keep these
+        private Map<PaymentAction, Set<PaymentStatus>> allowedFrom = new EnumMap<>(Map.of(
+                PaymentAction.PURCHASE, EnumSet.of(PaymentStatus.CREATED),
+                PaymentAction.AUTHORIZE, EnumSet.of(PaymentStatus.CREATED),
+                PaymentAction.CAPTURE, EnumSet.of(PaymentStatus.AUTHORIZED),
+                PaymentAction.CANCEL, EnumSet.of(PaymentStatus.AUTHORIZED),
+                PaymentAction.REFUND, EnumSet.of(PaymentStatus.CAPTURED, PaymentStatus.PARTIALLY_REFUNDED)));
+    }
+
+    public enum InvalidationChannelType {
+        // Each node evicts only on its own commits
+        NONE,
+        // In-process channel standing in for a broker, for tests
+        MEMORY
+    }
+
+    public enum OutboxSinkType {
+        FILE,
+        WEBHOOK,
+        // Keeps events in memory, for tests
+        MEMORY
+    }
+
+    public enum Durability {
+        // Caller waits until its row is committed
+        SYNC,
+        // Caller continues; the row is awaited before the attempt is finalized
+        ASYNC
+    }
+}
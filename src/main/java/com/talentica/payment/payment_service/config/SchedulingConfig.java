@@ -0,0 +1,18 @@
+package com.talentica.payment.payment_service.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the {@code @Scheduled} background jobs unless
+ * {@code payment.scheduling.enabled} is false, e.g. on nodes that only serve
+ * requests. Like any bean condition it is fixed at build time in an
+ * AOT-processed jar.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "payment.scheduling", name = "enabled",
+        havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
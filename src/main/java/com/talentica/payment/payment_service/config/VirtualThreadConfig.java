@@ -0,0 +1,40 @@
+package com.talentica.payment.payment_service.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executors used when {@code spring.threads.virtual.enabled=true}, in which
+ * case Spring Boot already runs Tomcat request handling on virtual threads.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    /**
+     * Completion stages of the asynchronous gateway run on virtual threads.
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService asyncGatewayExecutor() {
+        return Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("anet-async-", 0).factory());
+    }
+
+    /**
+     * Platform threads that the blocking Authorize.Net SDK is offloaded to.
+     * The SDK's HTTP and XML stack synchronizes internally; running it here
+     * keeps a slow gateway from pinning every carrier thread.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService gatewayOffloadExecutor(AuthorizeNetProperties properties) {
+        return Executors.newFixedThreadPool(
+                properties.getOffloadPoolSize(),
+                Thread.ofPlatform().name("anet-offload-", 0).daemon().factory());
+    }
+}
@@ -0,0 +1,82 @@
+package com.talentica.payment.payment_service.controller;
+
+import com.talentica.payment.payment_service.export.ExportFormat;
+import com.talentica.payment.payment_service.export.TransactionExporter;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bulk exports for reconciliation. Rows are written to the response as they
+ * are read from the database, so a full day can be downloaded without
+ * holding it in memory.
+ */
+@RestController
+@RequestMapping("/api/exports")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private static final String GZIP = "gzip";
+
+    private final TransactionExporter transactionExporter;
+
+    /**
+     * Transactions created in [{@code from}, {@code to}), oldest first.
+     * Compressed with gzip when the client accepts it.
+     */
+    @GetMapping("/transactions")
+    public void transactions(
+            @RequestParam Instant from,
+            @RequestParam Instant to,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        response.setContentType(format.mediaType().toString());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("transactions." + format.extension())
+                .build()
+                .toString());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (!gzip) {
+            transactionExporter.export(from, to, format, response.getOutputStream());
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        // Not closed: the container owns the response stream
+        GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream(), 8 * 1024);
+        transactionExporter.export(from, to, format, out);
+        out.finish();
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";", 2);
+            if (parts[0].trim().equalsIgnoreCase(GZIP)
+                    && !(parts.length > 1 && parts[1].replace(" ", "").matches("q=0(\\.0*)?"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
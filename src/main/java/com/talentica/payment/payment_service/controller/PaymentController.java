@@ -1,45 +1,146 @@
 package com.talentica.payment.payment_service.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.talentica.payment.payment_service.config.PaymentProperties;
 import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.domain.enums.PaymentAction;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
 import com.talentica.payment.payment_service.dto.request.*;
+import com.talentica.payment.payment_service.dto.response.BatchResult;
+import com.talentica.payment.payment_service.dto.response.PaymentPage;
 import com.talentica.payment.payment_service.dto.response.PaymentResponse;
+import com.talentica.payment.payment_service.dto.response.TransactionSummary;
+import com.talentica.payment.payment_service.repository.OrderFilter;
+import com.talentica.payment.payment_service.service.IdempotencyService;
+import com.talentica.payment.payment_service.service.PaymentQueryService;
 import com.talentica.payment.payment_service.service.PaymentService;
+import com.talentica.payment.payment_service.stream.PaymentSubscriptions;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/payments")
 @RequiredArgsConstructor
 public class PaymentController {
 
-    private final PaymentService paymentService;
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String PREFER = "Prefer";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final String RESPOND_ASYNC = "respond-async";
 
+    private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
+    private final PaymentQueryService paymentQueryService;
+    private final PaymentSubscriptions paymentSubscriptions;
+    private final PaymentProperties paymentProperties;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * With {@code Prefer: respond-async} the order is accepted with
+     * {@code 202} as soon as it is recorded, and its outcome is read from
+     * {@link #get}.
+     */
     @PostMapping("/purchase")
-    @ResponseStatus(HttpStatus.CREATED)
-    public PaymentResponse purchase(@Valid @RequestBody PurchaseRequest request) {
+    public ResponseEntity<PaymentResponse> purchase(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false)
+            @Size(max = 255) String idempotencyKey,
+            @RequestHeader(value = PREFER, required = false) String prefer,
+            @Valid @RequestBody PurchaseRequest request) {
 
-        PaymentOrder order = paymentService.purchase(
-                request.amount(),
-                request.currency()
-        );
+        boolean async = respondAsync(prefer);
 
-        return toResponse(order);
+        String fingerprint = IdempotencyService.fingerprint(PaymentAction.PURCHASE,
+                request.amount(), request.currency());
+
+        PaymentResponse response = async
+                ? idempotencyService.executeAccepted(idempotencyKey, fingerprint, () ->
+                        toResponse(paymentService.submitPurchase(request.amount(), request.currency())))
+                : idempotencyService.execute(idempotencyKey, fingerprint, () ->
+                        toResponse(paymentService.purchase(request.amount(), request.currency())));
+
+        return created(response, async);
     }
 
     @PostMapping("/authorize")
-    @ResponseStatus(HttpStatus.CREATED)
-    public PaymentResponse authorize(@Valid @RequestBody AuthorizeRequest request) {
+    public ResponseEntity<PaymentResponse> authorize(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false)
+            @Size(max = 255) String idempotencyKey,
+            @RequestHeader(value = PREFER, required = false) String prefer,
+            @Valid @RequestBody AuthorizeRequest request) {
 
-        PaymentOrder order = paymentService.authorize(
-                request.amount(),
-                request.currency()
-        );
+        boolean async = respondAsync(prefer);
 
-        return toResponse(order);
+        String fingerprint = IdempotencyService.fingerprint(PaymentAction.AUTHORIZE,
+                request.amount(), request.currency());
+
+        PaymentResponse response = async
+                ? idempotencyService.executeAccepted(idempotencyKey, fingerprint, () ->
+                        toResponse(paymentService.submitAuthorize(request.amount(), request.currency())))
+                : idempotencyService.execute(idempotencyKey, fingerprint, () ->
+                        toResponse(paymentService.authorize(request.amount(), request.currency())));
+
+        return created(response, async);
+    }
+
+    @GetMapping("/{orderId}")
+    public PaymentResponse get(@PathVariable UUID orderId) {
+        return paymentQueryService.getPayment(orderId);
+    }
+
+    /**
+     * Lists orders newest first. {@code from} is inclusive and {@code to}
+     * exclusive; the next page is read by passing back {@code nextCursor}
+     * with the same filters.
+     */
+    @GetMapping
+    public PaymentPage list(
+            @RequestParam(required = false) PaymentStatus status,
+            @RequestParam(required = false) @Size(min = 3, max = 3) String currency,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) @Size(max = 200) String cursor,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(200) int limit) {
+
+        return paymentQueryService.listPayments(
+                new OrderFilter(status, currency, from, to), cursor, limit);
+    }
+
+    /**
+     * Streams a {@code payment} event with the order's state each time an
+     * order's status changes, filtered by any of up to 100 order IDs and by
+     * status. Subscribers to given orders get their current state first.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestParam(required = false, defaultValue = "") @Size(max = 100) Set<UUID> orderId,
+            @RequestParam(required = false, defaultValue = "") Set<PaymentStatus> status) {
+
+        return paymentSubscriptions.subscribe(orderId, status);
+    }
+
+    @GetMapping("/{orderId}/transactions")
+    public List<TransactionSummary> transactions(@PathVariable UUID orderId) {
+        return paymentQueryService.listTransactions(orderId);
     }
 
     @PostMapping("/{orderId}/capture")
@@ -49,6 +150,25 @@ public class PaymentController {
         return toResponse(order);
     }
 
+    /**
+     * Captures up to 1000 authorized orders, streaming one JSON result per
+     * line as each order completes. Orders already captured are reported
+     * as {@code INVALID_PAYMENT_STATE}, so a failed batch can be resent.
+     */
+    @PostMapping(value = "/capture:batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> captureBatch(@Valid @RequestBody BatchCaptureRequest request) {
+
+        ResponseBodyEmitter emitter =
+                new ResponseBodyEmitter(paymentProperties.getBatch().getTimeout().toMillis());
+
+        paymentService.captureBatch(request.orderIds(), result -> send(emitter, result))
+                .whenComplete((ignored, e) -> emitter.complete());
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(emitter);
+    }
+
     @PostMapping("/{orderId}/cancel")
     public PaymentResponse cancel(@PathVariable UUID orderId) {
 
@@ -59,14 +179,68 @@ public class PaymentController {
     @PostMapping("/{orderId}/refund")
     public PaymentResponse refund(
             @PathVariable UUID orderId,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false)
+            @Size(max = 255) String idempotencyKey,
             @Valid @RequestBody RefundRequest request) {
 
-        PaymentOrder order = paymentService.refund(
-                orderId,
-                request.amount()
+        return idempotencyService.execute(
+                idempotencyKey,
+                IdempotencyService.fingerprint(PaymentAction.REFUND,
+                        orderId, request.amount()),
+                () -> toResponse(paymentService.refund(
+                        orderId,
+                        request.amount()
+                ))
         );
+    }
 
-        return toResponse(order);
+    /**
+     * Writes one NDJSON line. Results keep being recorded if the client has
+     * gone away, so a failed write is only logged.
+     */
+    private void send(ResponseBodyEmitter emitter, BatchResult result) {
+        try {
+            emitter.send(objectMapper.writeValueAsString(result) + "\n", MediaType.APPLICATION_NDJSON);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Batch capture result for order {} not delivered: {}", result.orderId(), e.toString());
+        }
+    }
+
+    private static ResponseEntity<PaymentResponse> created(PaymentResponse response, boolean async) {
+
+        if (!async) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        }
+
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/payments/{orderId}")
+                .buildAndExpand(response.orderId())
+                .toUri();
+
+        return ResponseEntity.accepted()
+                .location(location)
+                .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+                .body(response);
+    }
+
+    /**
+     * True if the {@code Prefer} header (RFC 7240) asks for
+     * {@code respond-async}, possibly among other preferences.
+     */
+    private static boolean respondAsync(String prefer) {
+
+        if (prefer == null) {
+            return false;
+        }
+        for (String preference : prefer.split(",")) {
+            String token = preference.split(";", 2)[0].trim();
+            if (token.equalsIgnoreCase(RESPOND_ASYNC)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private PaymentResponse toResponse(PaymentOrder order) {
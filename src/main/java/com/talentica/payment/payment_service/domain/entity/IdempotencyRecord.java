@@ -0,0 +1,86 @@
+package com.talentica.payment.payment_service.domain.entity;
+
+import com.talentica.payment.payment_service.domain.enums.IdempotencyStatus;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import com.talentica.payment.payment_service.dto.response.PaymentResponse;
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Outcome of a request submitted with an {@code Idempotency-Key} header.
+ * <p>
+ * Always inserted rather than merged, so two nodes claiming the same key
+ * collide on the primary key instead of overwriting each other. Requests
+ * answered before their order settled store no {@code paymentStatus}.
+ */
+@Entity
+@Table(
+        name = "idempotency_keys",
+        // Expired keys are purged by creation time
+        indexes = @Index(name = "idx_idempotency_keys_created", columnList = "created_at")
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 512)
+    private String requestFingerprint;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private IdempotencyStatus status;
+
+    private UUID orderId;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus paymentStatus;
+
+    private BigDecimal amount;
+
+    @Column(length = 3)
+    private String currency;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Transient
+    @Builder.Default
+    private boolean newRecord = true;
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRecord;
+    }
+
+    public PaymentResponse toResponse() {
+        return new PaymentResponse(orderId, paymentStatus, amount, currency);
+    }
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = Instant.now();
+    }
+
+    @PostPersist
+    @PostLoad
+    public void markNotNew() {
+        this.newRecord = false;
+    }
+}
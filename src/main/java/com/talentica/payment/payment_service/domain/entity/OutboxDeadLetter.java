@@ -0,0 +1,61 @@
+package com.talentica.payment.payment_service.domain.entity;
+
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An {@link OutboxEvent} the sink refused for good, moved out of
+ * {@code payment_outbox} so it no longer holds up the events behind it.
+ * Keeps the event's id, so a replayed event is still recognised by
+ * consumers that de-duplicate on it.
+ */
+@Entity
+@Table(name = "payment_outbox_dead_letter")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxDeadLetter {
+
+    @Id
+    private Long id;
+
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(nullable = false, length = 16)
+    private UUID orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentStatus previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentStatus status;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    private BigDecimal capturedAmount;
+
+    private BigDecimal refundedAmount;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+
+    @Column(nullable = false)
+    private Instant rejectedAt;
+
+    @Column(length = 500)
+    private String reason;
+}
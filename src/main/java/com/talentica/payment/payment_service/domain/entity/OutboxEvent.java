@@ -0,0 +1,58 @@
+package com.talentica.payment.payment_service.domain.entity;
+
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A change of a {@link PaymentOrder}'s status, written in the transaction
+ * that makes the change and deleted once the relay has delivered it.
+ * <p>
+ * The identity key is allocated at insert, and an order's next change can
+ * only be written after this one has committed, so ordering by {@code id}
+ * keeps each order's events in sequence.
+ */
+@Entity
+@Table(name = "payment_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(nullable = false, length = 16)
+    private UUID orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentStatus previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentStatus status;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    private BigDecimal capturedAmount;
+
+    private BigDecimal refundedAmount;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+}
@@ -1,15 +1,29 @@
 package com.talentica.payment.payment_service.domain.entity;
 
+import com.talentica.payment.payment_service.domain.enums.PaymentAction;
 import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import com.talentica.payment.payment_service.domain.id.UuidV7Generator;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "payment_orders")
+@Table(
+        name = "payment_orders",
+        indexes = {
+                @Index(name = "idx_payment_order_status_created", columnList = "status, created_at"),
+                @Index(name = "idx_payment_order_currency_created", columnList = "currency, created_at"),
+                @Index(name = "idx_payment_order_created", columnList = "created_at"),
+                // Stale claims found by the recovery job
+                @Index(name = "idx_payment_order_pending_updated", columnList = "pending_action, updated_at")
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,7 +32,9 @@ import java.util.UUID;
 public class PaymentOrder {
 
     @Id
-    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16)
     private UUID id;
 
     @Column(nullable = false)
@@ -31,6 +47,37 @@ public class PaymentOrder {
     @Column(nullable = false)
     private PaymentStatus status;
 
+    /**
+     * Gateway ID of the last successful purchase, authorization or capture,
+     * i.e. the transaction that capture, cancel and refund refer to.
+     * Null for orders created before this column existed.
+     */
+    @Column(length = 100)
+    private String lastSuccessfulGatewayTxnId;
+
+    /**
+     * Running totals of successfully captured and refunded amounts, updated
+     * when an attempt completes so refund limits can be checked without
+     * summing transactions. Null for orders created before these columns
+     * existed; they are backfilled on the next refund.
+     */
+    private BigDecimal capturedAmount;
+
+    private BigDecimal refundedAmount;
+
+    /**
+     * Operation whose gateway call is currently in flight, or null. Set when
+     * an attempt starts and cleared when it completes, so a second request
+     * for the same order is rejected before it reaches the gateway.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private PaymentAction pendingAction;
+
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
 
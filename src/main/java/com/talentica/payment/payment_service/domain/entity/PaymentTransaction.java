@@ -2,15 +2,28 @@ package com.talentica.payment.payment_service.domain.entity;
 
 import com.talentica.payment.payment_service.domain.enums.TransactionStatus;
 import com.talentica.payment.payment_service.domain.enums.TransactionType;
+import com.talentica.payment.payment_service.domain.id.UuidV7Generator;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "payment_transactions")
+@Table(
+        name = "payment_transactions",
+        indexes = {
+                @Index(name = "idx_payment_txn_order_status_created", columnList = "order_id, status, created_at"),
+                // Stale PENDING attempts found by the recovery job
+                @Index(name = "idx_payment_txn_status_created", columnList = "status, created_at"),
+                // Range scans by the reconciliation export
+                @Index(name = "idx_payment_txn_created", columnList = "created_at")
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,7 +32,9 @@ import java.util.UUID;
 public class PaymentTransaction {
 
     @Id
-    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16)
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
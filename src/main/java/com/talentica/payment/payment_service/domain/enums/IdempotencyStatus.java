@@ -0,0 +1,8 @@
+package com.talentica.payment.payment_service.domain.enums;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED,
+    // Failed after the gateway may have been called; retries are refused rather than run again
+    UNKNOWN
+}
@@ -7,6 +7,8 @@ public enum PaymentStatus {
     CANCELLED,
     REFUNDED,
     PARTIALLY_REFUNDED,
-    FAILED
+    FAILED,
+    // Outcome of the first gateway call was lost; resolved by hand against the gateway
+    NEEDS_RECONCILIATION
 }
 
@@ -1,6 +1,7 @@
 package com.talentica.payment.payment_service.domain.enums;
 
 public enum TransactionStatus {
+    PENDING,
     SUCCESS,
     FAILED
 }
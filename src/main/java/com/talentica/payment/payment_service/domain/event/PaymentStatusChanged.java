@@ -0,0 +1,24 @@
+package com.talentica.payment.payment_service.domain.event;
+
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Published inside the transaction that changes an order's status.
+ * Listeners that act on committed state use
+ * {@code @TransactionalEventListener}.
+ */
+public record PaymentStatusChanged(UUID orderId,
+                                   PaymentStatus previousStatus,
+                                   PaymentStatus status,
+                                   BigDecimal amount,
+                                   String currency) {
+
+    public static PaymentStatusChanged of(PaymentOrder order, PaymentStatus previousStatus) {
+        return new PaymentStatusChanged(
+                order.getId(), previousStatus, order.getStatus(), order.getAmount(), order.getCurrency());
+    }
+}
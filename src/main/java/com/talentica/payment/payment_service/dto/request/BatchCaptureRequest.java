@@ -0,0 +1,12 @@
+package com.talentica.payment.payment_service.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BatchCaptureRequest(
+        @NotEmpty @Size(max = 1000) List<@NotNull UUID> orderIds
+) {}
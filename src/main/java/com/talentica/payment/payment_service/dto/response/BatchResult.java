@@ -0,0 +1,52 @@
+package com.talentica.payment.payment_service.dto.response;
+
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import com.talentica.payment.payment_service.exception.ConcurrentPaymentException;
+import com.talentica.payment.payment_service.exception.GatewayUnavailableException;
+import com.talentica.payment.payment_service.exception.InvalidPaymentStateException;
+import com.talentica.payment.payment_service.exception.ResourceNotFoundException;
+import com.talentica.payment.payment_service.gateway.dto.GatewayResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one order in a batch operation. {@code error} is null when the
+ * operation succeeded, and otherwise uses the codes of the single-order API.
+ * {@code status} is the order's state afterwards, or null if it was not found.
+ */
+public record BatchResult(
+        UUID orderId,
+        PaymentStatus status,
+        String error,
+        String message
+) {
+
+    public static BatchResult of(PaymentOrder order, GatewayResponse response) {
+        if (response.success()) {
+            return new BatchResult(order.getId(), order.getStatus(), null, null);
+        }
+        return new BatchResult(order.getId(), order.getStatus(),
+                response.declined() ? "PAYMENT_DECLINED" : "PAYMENT_FAILED",
+                response.errorMessage());
+    }
+
+    public static BatchResult of(UUID orderId, PaymentStatus status, RuntimeException e) {
+        return switch (e) {
+            case ResourceNotFoundException ex ->
+                    new BatchResult(orderId, null, "RESOURCE_NOT_FOUND", ex.getMessage());
+            case InvalidPaymentStateException ex ->
+                    new BatchResult(orderId, status, "INVALID_PAYMENT_STATE", ex.getMessage());
+            case ConcurrentPaymentException ex ->
+                    new BatchResult(orderId, status, "CONCURRENT_REQUEST", ex.getMessage());
+            case OptimisticLockingFailureException ex ->
+                    new BatchResult(orderId, status, "CONCURRENT_REQUEST",
+                            "The order was modified by another request");
+            case GatewayUnavailableException ex ->
+                    new BatchResult(orderId, status, "GATEWAY_UNAVAILABLE", ex.getMessage());
+            default -> new BatchResult(orderId, status, "INTERNAL_SERVER_ERROR",
+                    "Unexpected error occurred");
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.talentica.payment.payment_service.dto.response;
+
+import java.util.List;
+
+/**
+ * One page of a listing. {@code nextCursor} is passed back to read the page
+ * after this one, and is null on the last page.
+ */
+public record PaymentPage(
+        List<PaymentSummary> items,
+        String nextCursor
+) {}
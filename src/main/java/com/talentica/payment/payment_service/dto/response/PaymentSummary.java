@@ -0,0 +1,18 @@
+package com.talentica.payment.payment_service.dto.response;
+
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public record PaymentSummary(
+        UUID orderId,
+        PaymentStatus status,
+        BigDecimal amount,
+        String currency,
+        BigDecimal capturedAmount,
+        BigDecimal refundedAmount,
+        Instant createdAt,
+        Instant updatedAt
+) {}
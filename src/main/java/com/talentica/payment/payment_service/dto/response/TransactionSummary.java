@@ -0,0 +1,17 @@
+package com.talentica.payment.payment_service.dto.response;
+
+import com.talentica.payment.payment_service.domain.enums.TransactionStatus;
+import com.talentica.payment.payment_service.domain.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public record TransactionSummary(
+        UUID id,
+        TransactionType type,
+        TransactionStatus status,
+        BigDecimal amount,
+        String gatewayTransactionId,
+        Instant createdAt
+) {}
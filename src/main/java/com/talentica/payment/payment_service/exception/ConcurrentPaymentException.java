@@ -0,0 +1,8 @@
+package com.talentica.payment.payment_service.exception;
+
+public class ConcurrentPaymentException extends RuntimeException {
+
+    public ConcurrentPaymentException(String message) {
+        super(message);
+    }
+}
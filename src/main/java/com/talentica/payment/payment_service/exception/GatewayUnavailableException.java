@@ -0,0 +1,31 @@
+package com.talentica.payment.payment_service.exception;
+
+public class GatewayUnavailableException extends RuntimeException {
+
+    /**
+     * Why the call was not attempted, e.g. {@code BULKHEAD_FULL}, or
+     * {@code TIMEOUT} when it went unanswered.
+     */
+    private final String reason;
+
+    public GatewayUnavailableException(String message) {
+        this("UNAVAILABLE", message);
+    }
+
+    public GatewayUnavailableException(String reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * Whether the request may have reached the gateway before the call was
+     * given up, so its outcome is unknown.
+     */
+    public boolean mayHaveReachedGateway() {
+        return "TIMEOUT".equals(reason) || "CANCELLED".equals(reason);
+    }
+}
@@ -3,11 +3,15 @@ package com.talentica.payment.payment_service.exception;
 import com.talentica.payment.payment_service.dto.response.ErrorResponse;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.MessageSourceResolvable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.Instant;
 
@@ -45,6 +49,49 @@ public class GlobalExceptionHandler {
                 ));
     }
 
+    /* ================= 409 — Idempotency key conflict ================= */
+
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyConflict(
+            IdempotencyConflictException ex) {
+
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse(
+                        "IDEMPOTENCY_CONFLICT",
+                        ex.getMessage(),
+                        Instant.now()
+                ));
+    }
+
+    /* ================= 409 — Concurrent request on the same order ================= */
+
+    @ExceptionHandler(ConcurrentPaymentException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrentPayment(
+            ConcurrentPaymentException ex) {
+
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse(
+                        "CONCURRENT_REQUEST",
+                        ex.getMessage(),
+                        Instant.now()
+                ));
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(
+            ObjectOptimisticLockingFailureException ex) {
+
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse(
+                        "CONCURRENT_REQUEST",
+                        "The order was modified by another request",
+                        Instant.now()
+                ));
+    }
+
     /* ================= 400 — Validation errors ================= */
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -82,6 +129,81 @@ public class GlobalExceptionHandler {
                 ));
     }
 
+    /* ================= 400 — Invalid headers / parameters ================= */
+
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ErrorResponse> handleMethodValidation(
+            HandlerMethodValidationException ex) {
+
+        String message = ex.getAllErrors()
+                .stream()
+                .findFirst()
+                .map(MessageSourceResolvable::getDefaultMessage)
+                .orElse("Invalid request");
+
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse(
+                        "VALIDATION_ERROR",
+                        message,
+                        Instant.now()
+                ));
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleTypeMismatch(
+            MethodArgumentTypeMismatchException ex) {
+
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse(
+                        "VALIDATION_ERROR",
+                        ex.getName() + " has an invalid value",
+                        Instant.now()
+                ));
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursor(
+            InvalidCursorException ex) {
+
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse(
+                        "INVALID_CURSOR",
+                        ex.getMessage(),
+                        Instant.now()
+                ));
+    }
+
+    /* ================= 503 — Gateway unavailable ================= */
+
+    @ExceptionHandler(GatewayUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleGatewayUnavailable(
+            GatewayUnavailableException ex) {
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErrorResponse(
+                        "GATEWAY_UNAVAILABLE",
+                        ex.getMessage(),
+                        Instant.now()
+                ));
+    }
+
+    @ExceptionHandler(SubscriptionLimitException.class)
+    public ResponseEntity<ErrorResponse> handleSubscriptionLimit(
+            SubscriptionLimitException ex) {
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErrorResponse(
+                        "TOO_MANY_SUBSCRIBERS",
+                        ex.getMessage(),
+                        Instant.now()
+                ));
+    }
+
     /* ================= 500 — Fallback ================= */
 
     @ExceptionHandler(Exception.class)
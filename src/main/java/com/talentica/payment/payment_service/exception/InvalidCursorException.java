@@ -0,0 +1,8 @@
+package com.talentica.payment.payment_service.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -2,7 +2,12 @@ package com.talentica.payment.payment_service.exception;
 
 public class InvalidPaymentStateException extends RuntimeException {
 
+    /**
+     * Created without a stack trace: the rejection is the client's error, and
+     * clients retrying an invalid operation would otherwise pay for walking
+     * the stack on every attempt.
+     */
     public InvalidPaymentStateException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,8 @@
+package com.talentica.payment.payment_service.exception;
+
+public class SubscriptionLimitException extends RuntimeException {
+
+    public SubscriptionLimitException(String message) {
+        super(message);
+    }
+}
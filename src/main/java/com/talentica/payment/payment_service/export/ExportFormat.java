@@ -0,0 +1,27 @@
+package com.talentica.payment.payment_service.export;
+
+import org.springframework.http.MediaType;
+
+public enum ExportFormat {
+
+    // One JSON object per line
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    // RFC 4180, with a header row
+    CSV(new MediaType("text", "csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+}
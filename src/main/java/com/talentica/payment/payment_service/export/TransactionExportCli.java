@@ -0,0 +1,107 @@
+package com.talentica.payment.payment_service.export;
+
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Command-line counterpart of {@code GET /api/exports/transactions} for
+ * scheduled reconciliation dumps. Connects to the database directly,
+ * without starting the application or its background jobs:
+ * <pre>
+ * EXPORT_DB_URL='jdbc:mysql://localhost:3306/paymentdb?useCursorFetch=true' \
+ * EXPORT_DB_USER=paymentuser EXPORT_DB_PASSWORD=paymentpass \
+ * mvn compile exec:java \
+ *     -Dexec.mainClass=com.talentica.payment.payment_service.export.TransactionExportCli \
+ *     -Dexec.args="--date=2026-10-16 --format=csv --out=transactions-2026-10-16.csv.gz"
+ * </pre>
+ * {@code --date} selects one UTC day; {@code --from} and {@code --to} give
+ * an explicit range instead. Output whose name ends in {@code .gz} is
+ * compressed. {@code --fetch-size} defaults to 1000.
+ */
+public final class TransactionExportCli {
+
+    private static final String USAGE = "Usage: TransactionExportCli (--date=YYYY-MM-DD | --from=INSTANT --to=INSTANT)"
+            + " [--format=ndjson|csv] [--fetch-size=N] --out=FILE[.gz]";
+
+    private TransactionExportCli() {
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                exit(USAGE);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        Instant from;
+        Instant to;
+        ExportFormat format;
+        int fetchSize;
+        Path file;
+        try {
+            if (options.containsKey("date")) {
+                LocalDate day = LocalDate.parse(options.get("date"));
+                from = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+                to = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+            } else {
+                from = Instant.parse(required(options, "from"));
+                to = Instant.parse(required(options, "to"));
+            }
+            format = ExportFormat.valueOf(options.getOrDefault("format", "ndjson").toUpperCase(Locale.ROOT));
+            fetchSize = Integer.parseInt(options.getOrDefault("fetch-size", "1000"));
+            file = Path.of(required(options, "out"));
+        } catch (RuntimeException e) {
+            exit(e.getMessage() + "\n" + USAGE);
+            return;
+        }
+
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                required(System.getenv(), "EXPORT_DB_URL"),
+                System.getenv("EXPORT_DB_USER"),
+                System.getenv("EXPORT_DB_PASSWORD"),
+                true);
+
+        try (OutputStream out = open(file)) {
+            long count = new TransactionExporter(dataSource, fetchSize).export(from, to, format, out);
+            System.err.printf("%d transactions written to %s%n", count, file);
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    private static OutputStream open(Path file) throws IOException {
+        OutputStream out = Files.newOutputStream(file);
+        return file.getFileName().toString().endsWith(".gz")
+                ? new GZIPOutputStream(out, 64 * 1024)
+                : new BufferedOutputStream(out, 64 * 1024);
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        return value;
+    }
+
+    private static void exit(String message) {
+        System.err.println(message);
+        System.exit(2);
+    }
+}
@@ -0,0 +1,300 @@
+package com.talentica.payment.payment_service.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.Properties;
+import java.util.TimeZone;
+import java.util.UUID;
+
+/**
+ * Streams the {@code payment_transactions} rows created in a time range, for
+ * reconciliation.
+ * <p>
+ * Rows are read through a forward-only cursor, {@code fetchSize} at a time,
+ * and written out as they arrive, so memory use does not grow with the
+ * number of rows and no entities are loaded. The raw gateway response is
+ * left out.
+ * <p>
+ * MySQL Connector/J honours the fetch size only with {@code useCursorFetch},
+ * without which the driver reads the whole result into memory before
+ * returning the first row. In the application, exports against MySQL
+ * therefore open connections of their own with it set, leaving the shared
+ * pool's statements as they are.
+ */
+@Slf4j
+@Component
+public class TransactionExporter {
+
+    static final String[] COLUMNS = {
+            "id", "orderId", "type", "status", "amount", "currency", "gatewayTransactionId", "createdAt"
+    };
+
+    private static final String QUERY = """
+            select t.id, t.order_id, t.type, t.status, t.amount, o.currency,
+                   t.gateway_transaction_id, t.created_at
+            from payment_transactions t
+            join payment_orders o on o.id = t.order_id
+            where t.created_at >= ? and t.created_at < ?
+            order by t.created_at, t.id
+            """;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final JdbcTemplate jdbc;
+
+    private volatile Boolean zoned;
+
+    @Autowired
+    public TransactionExporter(DataSource dataSource,
+                               DataSourceProperties dataSourceProperties,
+                               PaymentProperties properties) {
+        this(exportDataSource(dataSource, dataSourceProperties), properties.getExport().getFetchSize());
+    }
+
+    public TransactionExporter(DataSource dataSource, int fetchSize) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(fetchSize);
+    }
+
+    private static DataSource exportDataSource(DataSource shared, DataSourceProperties properties) {
+
+        String url = properties.determineUrl();
+        if (url == null || !url.startsWith("jdbc:mysql:")) {
+            return shared;
+        }
+
+        Properties cursorFetch = new Properties();
+        cursorFetch.setProperty("useCursorFetch", "true");
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                url, properties.determineUsername(), properties.determinePassword());
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setConnectionProperties(cursorFetch);
+        return dataSource;
+    }
+
+    /**
+     * Writes the transactions created in [{@code from}, {@code to}), oldest
+     * first, and returns how many were written. {@code out} is flushed but
+     * not closed.
+     */
+    public long export(Instant from, Instant to, ExportFormat format, OutputStream out) throws IOException {
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowWriter rows = switch (format) {
+            case NDJSON -> new NdjsonWriter(writer);
+            case CSV -> new CsvWriter(writer);
+        };
+
+        long start = System.nanoTime();
+        rows.zoned = zonedTimestamps();
+        try {
+            rows.begin();
+            jdbc.query(QUERY, ps -> {
+                bind(ps, 1, from, rows.zoned);
+                bind(ps, 2, to, rows.zoned);
+            }, rows);
+            rows.end();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+
+        log.info("Exported {} transactions created in [{}, {}) as {} in {} ms",
+                rows.count, from, to, format, (System.nanoTime() - start) / 1_000_000);
+        return rows.count;
+    }
+
+    /**
+     * Hibernate maps {@link Instant} to {@code timestamp with time zone}
+     * where the database has one (H2) and to a {@code datetime} holding UTC
+     * wall-clock time otherwise (MySQL). Instants are bound and read the same
+     * way, whatever the JVM's time zone.
+     */
+    private boolean zonedTimestamps() {
+        Boolean result = zoned;
+        if (result == null) {
+            result = jdbc.query("select created_at from payment_transactions where 1 = 0",
+                    rs -> rs.getMetaData().getColumnType(1) == Types.TIMESTAMP_WITH_TIMEZONE);
+            zoned = result;
+        }
+        return result;
+    }
+
+    private static void bind(PreparedStatement ps, int index, Instant value, boolean zoned) throws SQLException {
+        if (zoned) {
+            ps.setObject(index, value.atOffset(ZoneOffset.UTC));
+        } else {
+            ps.setTimestamp(index, Timestamp.from(value), utc());
+        }
+    }
+
+    private static Instant instant(ResultSet rs, int index, boolean zoned) throws SQLException {
+        return zoned
+                ? rs.getObject(index, OffsetDateTime.class).toInstant()
+                : rs.getTimestamp(index, utc()).toInstant();
+    }
+
+    private static Calendar utc() {
+        // Calendars are mutable, so each use gets its own
+        return Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    }
+
+    private static UUID uuid(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Writes each row as it is read. Write failures, typically a client that
+     * went away, are carried out of the JDBC callback unchecked.
+     */
+    private abstract static class RowWriter implements RowCallbackHandler {
+
+        final Writer writer;
+        boolean zoned;
+        long count;
+
+        RowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        void begin() throws IOException {
+        }
+
+        abstract void write(UUID id, UUID orderId, String type, String status, BigDecimal amount,
+                            String currency, String gatewayTransactionId, Instant createdAt) throws IOException;
+
+        void end() throws IOException {
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            try {
+                write(uuid(rs.getBytes(1)),
+                        uuid(rs.getBytes(2)),
+                        rs.getString(3),
+                        rs.getString(4),
+                        rs.getBigDecimal(5),
+                        rs.getString(6),
+                        rs.getString(7),
+                        instant(rs, 8, zoned));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count++;
+        }
+    }
+
+    private static final class NdjsonWriter extends RowWriter {
+
+        private final JsonGenerator json;
+
+        NdjsonWriter(Writer writer) throws IOException {
+            super(writer);
+            this.json = JSON.createGenerator(writer);
+            this.json.setRootValueSeparator(null);
+        }
+
+        @Override
+        void write(UUID id, UUID orderId, String type, String status, BigDecimal amount,
+                   String currency, String gatewayTransactionId, Instant createdAt) throws IOException {
+
+            json.writeStartObject();
+            json.writeStringField(COLUMNS[0], id.toString());
+            json.writeStringField(COLUMNS[1], orderId.toString());
+            json.writeStringField(COLUMNS[2], type);
+            json.writeStringField(COLUMNS[3], status);
+            json.writeNumberField(COLUMNS[4], amount);
+            json.writeStringField(COLUMNS[5], currency);
+            json.writeStringField(COLUMNS[6], gatewayTransactionId);
+            json.writeStringField(COLUMNS[7], createdAt.toString());
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        void end() throws IOException {
+            json.flush();
+        }
+    }
+
+    private static final class CsvWriter extends RowWriter {
+
+        CsvWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        void begin() throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        void write(UUID id, UUID orderId, String type, String status, BigDecimal amount,
+                   String currency, String gatewayTransactionId, Instant createdAt) throws IOException {
+
+            writer.write(id.toString());
+            writer.write(',');
+            writer.write(orderId.toString());
+            writer.write(',');
+            writer.write(type);
+            writer.write(',');
+            writer.write(status);
+            writer.write(',');
+            writer.write(amount.toPlainString());
+            writer.write(',');
+            writer.write(currency);
+            writer.write(',');
+            field(gatewayTransactionId);
+            writer.write(',');
+            writer.write(createdAt.toString());
+            writer.write("\r\n");
+        }
+
+        // The gateway's transaction ID is the one free-form column
+        private void field(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\r') < 0 && value.indexOf('\n') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
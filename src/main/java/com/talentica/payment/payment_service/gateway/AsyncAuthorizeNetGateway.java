@@ -0,0 +1,30 @@
+package com.talentica.payment.payment_service.gateway;
+
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.gateway.dto.GatewayResponse;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking variant of {@link AuthorizeNetGateway}. Futures complete with
+ * a failed {@link GatewayResponse} rather than exceptionally, mirroring the
+ * blocking contract, except when the gateway does not answer in time or the
+ * call is cancelled: those complete exceptionally with a
+ * {@link com.talentica.payment.payment_service.exception.GatewayUnavailableException}
+ * of reason {@code TIMEOUT} or {@code CANCELLED}.
+ */
+public interface AsyncAuthorizeNetGateway {
+
+    CompletableFuture<GatewayResponse> purchase(PaymentOrder order);
+
+    CompletableFuture<GatewayResponse> authorize(PaymentOrder order);
+
+    CompletableFuture<GatewayResponse> capture(PaymentOrder order, String refTransactionId);
+
+    CompletableFuture<GatewayResponse> cancel(PaymentOrder order, String refTransactionId);
+
+    CompletableFuture<GatewayResponse> refund(PaymentOrder order,
+                                              String refTransactionId,
+                                              BigDecimal refundAmount);
+}
@@ -1,8 +1,30 @@
 package com.talentica.payment.payment_service.gateway.dto;
 
+/**
+ * @param declined  true when the gateway processed the request and refused
+ *                  it (e.g. card declined), as opposed to failing to answer;
+ *                  only the latter counts against the gateway's health
+ * @param errorCode gateway error or response-reason code for unsuccessful
+ *                  calls, or the exception type when there was no answer
+ */
 public record GatewayResponse(
         boolean success,
         String transactionId,
-        String errorMessage
+        String errorMessage,
+        boolean declined,
+        String errorCode
 ) {
+
+    public GatewayResponse(boolean success, String transactionId, String errorMessage) {
+        this(success, transactionId, errorMessage, false, null);
+    }
+
+    public GatewayResponse(boolean success, String transactionId, String errorMessage, boolean declined) {
+        this(success, transactionId, errorMessage, declined, null);
+    }
+
+    public static GatewayResponse failure(Throwable cause) {
+        return new GatewayResponse(false, null, cause.getMessage(), false,
+                cause.getClass().getSimpleName());
+    }
 }
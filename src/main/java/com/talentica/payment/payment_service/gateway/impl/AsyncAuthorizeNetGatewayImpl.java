@@ -0,0 +1,267 @@
+package com.talentica.payment.payment_service.gateway.impl;
+
+import com.talentica.payment.payment_service.config.AuthorizeNetProperties;
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.exception.GatewayUnavailableException;
+import com.talentica.payment.payment_service.gateway.AsyncAuthorizeNetGateway;
+import com.talentica.payment.payment_service.gateway.dto.GatewayResponse;
+import lombok.extern.slf4j.Slf4j;
+import net.authorize.api.contract.v1.ANetApiResponse;
+import net.authorize.api.contract.v1.CreateTransactionRequest;
+import net.authorize.api.contract.v1.CreateTransactionResponse;
+import net.authorize.api.contract.v1.ObjectFactory;
+import net.authorize.api.contract.v1.TransactionRequestType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.JAXBIntrospector;
+import javax.xml.bind.Marshaller;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Asynchronous Authorize.Net client.
+ * <p>
+ * Unlike {@code CreateTransactionController.execute()}, which opens a new
+ * connection and blocks the calling thread, requests are sent through one
+ * shared {@link HttpClient} whose keep-alive connection pool is reused across
+ * calls. The JAXB context is built once, by the first request, or in the
+ * background once the application is ready when {@code authorize-net.warm-up}
+ * is set; a request arriving while it is being built waits for it.
+ * Marshallers are cheap to derive from it and are created per call because
+ * they are not thread-safe.
+ * <p>
+ * Cancelling a returned future aborts its HTTP exchange. Callers go through
+ * {@link com.talentica.payment.payment_service.gateway.resilience.ResilientAsyncAuthorizeNetGateway}.
+ */
+@Slf4j
+@Component("asyncAuthorizeNetTransport")
+public class AsyncAuthorizeNetGatewayImpl implements AsyncAuthorizeNetGateway {
+
+    private static final String API_PATH = "/xml/v1/request.api";
+
+    private final AuthorizeNetMerchants merchants;
+    private final Duration readTimeout;
+    private final HttpClient httpClient;
+    private final boolean warmUp;
+    private final AtomicBoolean contextRequested = new AtomicBoolean();
+    private final CompletableFuture<JAXBContext> jaxbContext = new CompletableFuture<>();
+
+    @Autowired
+    public AsyncAuthorizeNetGatewayImpl(
+            AuthorizeNetMerchants merchants,
+            AuthorizeNetProperties properties,
+            @Qualifier("asyncGatewayExecutor") ObjectProvider<ExecutorService> executor) {
+        this(merchants, properties.getReadTimeout(), httpClient(properties, executor), properties.isWarmUp());
+    }
+
+    AsyncAuthorizeNetGatewayImpl(AuthorizeNetMerchants merchants,
+                                 Duration readTimeout,
+                                 HttpClient httpClient) {
+        this(merchants, readTimeout, httpClient, false);
+    }
+
+    private AsyncAuthorizeNetGatewayImpl(AuthorizeNetMerchants merchants,
+                                         Duration readTimeout,
+                                         HttpClient httpClient,
+                                         boolean warmUp) {
+        this.merchants = merchants;
+        this.readTimeout = readTimeout;
+        this.httpClient = httpClient;
+        this.warmUp = warmUp;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWarmUp() {
+        if (warmUp) {
+            Thread.ofPlatform()
+                    .name("authorize-net-jaxb-init")
+                    .daemon()
+                    .start(this::buildContext);
+        }
+    }
+
+    @Override
+    public CompletableFuture<GatewayResponse> purchase(PaymentOrder order) {
+        return send(AuthorizeNetRequests.purchase(order));
+    }
+
+    @Override
+    public CompletableFuture<GatewayResponse> authorize(PaymentOrder order) {
+        return send(AuthorizeNetRequests.authorize(order));
+    }
+
+    @Override
+    public CompletableFuture<GatewayResponse> capture(PaymentOrder order, String refTransactionId) {
+        return send(AuthorizeNetRequests.capture(refTransactionId));
+    }
+
+    @Override
+    public CompletableFuture<GatewayResponse> cancel(PaymentOrder order, String refTransactionId) {
+        return send(AuthorizeNetRequests.cancel(refTransactionId));
+    }
+
+    @Override
+    public CompletableFuture<GatewayResponse> refund(PaymentOrder order,
+                                                     String refTransactionId,
+                                                     BigDecimal refundAmount) {
+        return send(AuthorizeNetRequests.refund(refTransactionId, refundAmount));
+    }
+
+    private CompletableFuture<GatewayResponse> send(TransactionRequestType request) {
+        try {
+            MerchantCredentials merchant = merchants.defaultMerchant();
+
+            HttpRequest httpRequest = HttpRequest.newBuilder()
+                    .uri(URI.create(merchant.environment().getXmlBaseUrl() + API_PATH))
+                    .timeout(readTimeout)
+                    .header("Content-Type", "text/xml; charset=utf-8")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(
+                            marshal(AuthorizeNetRequests.createTransactionRequest(merchant, request))))
+                    .build();
+
+            CompletableFuture<HttpResponse<String>> exchange = httpClient
+                    .sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            CompletableFuture<GatewayResponse> result = exchange.handle(this::complete);
+            result.whenComplete((response, e) -> {
+                if (result.isCancelled()) {
+                    exchange.cancel(true);
+                }
+            });
+            return result;
+
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(GatewayResponse.failure(e));
+        }
+    }
+
+    private byte[] marshal(CreateTransactionRequest apiRequest) throws JAXBException {
+
+        Marshaller marshaller = context().createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_ENCODING, StandardCharsets.UTF_8.name());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        marshaller.marshal(apiRequest, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * A call that got no answer within the read timeout, or whose exchange
+     * was cancelled, fails with {@link GatewayUnavailableException}; other
+     * transport errors become a failed response.
+     */
+    private GatewayResponse complete(HttpResponse<String> httpResponse, Throwable failure) {
+
+        if (failure == null) {
+            return toGatewayResponse(httpResponse);
+        }
+
+        Throwable cause = rootCause(failure);
+        if (cause instanceof HttpTimeoutException) {
+            throw new GatewayUnavailableException("TIMEOUT",
+                    "Authorize.Net did not answer within " + readTimeout);
+        }
+        if (cause instanceof CancellationException) {
+            throw new GatewayUnavailableException("CANCELLED", "Authorize.Net call was cancelled");
+        }
+        return GatewayResponse.failure(cause);
+    }
+
+    private GatewayResponse toGatewayResponse(HttpResponse<String> httpResponse) {
+
+        if (httpResponse.statusCode() != 200) {
+            return new GatewayResponse(false, null,
+                    "Gateway returned HTTP " + httpResponse.statusCode(), false,
+                    "HTTP_" + httpResponse.statusCode());
+        }
+
+        // Authorize.Net prefixes its XML with a byte order mark
+        String body = httpResponse.body();
+        if (body.startsWith("\uFEFF")) {
+            body = body.substring(1);
+        }
+
+        try {
+            Object result = JAXBIntrospector.getValue(
+                    context().createUnmarshaller().unmarshal(new StringReader(body)));
+
+            if (result instanceof CreateTransactionResponse response) {
+                return AuthorizeNetResponseParser.parseResponse(response);
+            }
+            if (result instanceof ANetApiResponse error
+                    && error.getMessages() != null
+                    && !error.getMessages().getMessage().isEmpty()) {
+                return new GatewayResponse(false, null,
+                        error.getMessages().getMessage().get(0).getText(), false,
+                        error.getMessages().getMessage().get(0).getCode());
+            }
+            return new GatewayResponse(false, null, "Unknown error");
+
+        } catch (JAXBException e) {
+            return GatewayResponse.failure(e);
+        }
+    }
+
+    private static HttpClient httpClient(AuthorizeNetProperties properties,
+                                         ObjectProvider<ExecutorService> executor) {
+
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getConnectTimeout());
+        executor.ifAvailable(builder::executor);
+        return builder.build();
+    }
+
+    /**
+     * Builds the JAXB context on the first call; later calls return at once.
+     */
+    private void buildContext() {
+        if (!contextRequested.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            jaxbContext.complete(JAXBContext.newInstance(ObjectFactory.class));
+            log.info("Authorize.Net JAXB context ready in {} ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (JAXBException | RuntimeException e) {
+            log.error("Unable to create Authorize.Net JAXB context, gateway calls will fail", e);
+            jaxbContext.completeExceptionally(e);
+        }
+    }
+
+    private JAXBContext context() throws JAXBException {
+        buildContext();
+        try {
+            return jaxbContext.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof JAXBException cause ? cause : new JAXBException(e.getCause());
+        }
+    }
+
+    private static Throwable rootCause(Throwable e) {
+        Throwable cause = e;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -4,83 +4,78 @@ import com.talentica.payment.payment_service.config.AuthorizeNetProperties;
 import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
 import com.talentica.payment.payment_service.gateway.AuthorizeNetGateway;
 import com.talentica.payment.payment_service.gateway.dto.GatewayResponse;
-import lombok.RequiredArgsConstructor;
-import net.authorize.Environment;
+import lombok.extern.slf4j.Slf4j;
 import net.authorize.api.contract.v1.*;
 import net.authorize.api.controller.CreateTransactionController;
-import net.authorize.api.controller.base.ApiOperationBase;
+import net.authorize.util.XmlUtility;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
-
-@Component
-@RequiredArgsConstructor
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Blocking Authorize.Net client on the SDK's {@code CreateTransactionController}.
+ * <p>
+ * The SDK loads its classes and builds its JAXB contexts on first use, which
+ * made the first payment after startup take seconds. With
+ * {@code authorize-net.warm-up}, that work is started in the background once
+ * the application is ready, so runs that never get there (AOT processing,
+ * the AppCDS training run) do not start it; a request arriving before it has
+ * finished waits on the SDK's own locks rather than repeating it.
+ */
+@Slf4j
+@Component("authorizeNetTransport")
+@ConditionalOnProperty(prefix = "authorize-net.simulator", name = "enabled",
+        havingValue = "false", matchIfMissing = true)
 public class AuthorizeNetGatewayImpl implements AuthorizeNetGateway {
 
-    private final AuthorizeNetProperties properties;
-
-    private void setupMerchantAuth() {
-        ApiOperationBase.setEnvironment(
-                properties.isSandbox() ? Environment.SANDBOX : Environment.PRODUCTION
-        );
-
-        MerchantAuthenticationType auth = new MerchantAuthenticationType();
-        auth.setName(properties.getApiLoginId());
-        auth.setTransactionKey(properties.getTransactionKey());
+    private final AuthorizeNetMerchants merchants;
+    private final ExecutorService offloadExecutor;
+    private final boolean warmUp;
+
+    public AuthorizeNetGatewayImpl(
+            AuthorizeNetMerchants merchants,
+            AuthorizeNetProperties properties,
+            @Qualifier("gatewayOffloadExecutor") ObjectProvider<ExecutorService> offloadExecutor) {
+        this.merchants = merchants;
+        this.offloadExecutor = offloadExecutor.getIfAvailable();
+        this.warmUp = properties.isWarmUp();
+    }
 
-        ApiOperationBase.setMerchantAuthentication(auth);
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWarmUp() {
+        if (warmUp) {
+            Thread.ofPlatform()
+                    .name("authorize-net-warmup")
+                    .daemon()
+                    .start(this::warmUp);
+        }
     }
 
     @Override
     public GatewayResponse purchase(PaymentOrder order) {
-        return executeTransaction(order, TransactionTypeEnum.AUTH_CAPTURE_TRANSACTION);
+        return execute(AuthorizeNetRequests.purchase(order));
     }
 
     @Override
     public GatewayResponse authorize(PaymentOrder order) {
-        return executeTransaction(order, TransactionTypeEnum.AUTH_ONLY_TRANSACTION);
+        return execute(AuthorizeNetRequests.authorize(order));
     }
 
     @Override
     public GatewayResponse capture(PaymentOrder order, String refTransactionId) {
-
-        setupMerchantAuth();
-
-        TransactionRequestType request = new TransactionRequestType();
-        request.setTransactionType(
-                TransactionTypeEnum.PRIOR_AUTH_CAPTURE_TRANSACTION.value()
-        );
-        request.setRefTransId(refTransactionId);
-
-        CreateTransactionRequest apiRequest = new CreateTransactionRequest();
-        apiRequest.setTransactionRequest(request);
-
-        CreateTransactionController controller =
-                new CreateTransactionController(apiRequest);
-        controller.execute();
-
-        return parseResponse(controller.getApiResponse());
+        return execute(AuthorizeNetRequests.capture(refTransactionId));
     }
 
     @Override
     public GatewayResponse cancel(PaymentOrder order, String refTransactionId) {
-
-        setupMerchantAuth();
-
-        TransactionRequestType request = new TransactionRequestType();
-        request.setTransactionType(
-                TransactionTypeEnum.VOID_TRANSACTION.value()
-        );
-        request.setRefTransId(refTransactionId);
-
-        CreateTransactionRequest apiRequest = new CreateTransactionRequest();
-        apiRequest.setTransactionRequest(request);
-
-        CreateTransactionController controller =
-                new CreateTransactionController(apiRequest);
-        controller.execute();
-
-        return parseResponse(controller.getApiResponse());
+        return execute(AuthorizeNetRequests.cancel(refTransactionId));
     }
 
 
@@ -88,89 +83,57 @@ public class AuthorizeNetGatewayImpl implements AuthorizeNetGateway {
     public GatewayResponse refund(PaymentOrder order,
                                   String refTransactionId,
                                   BigDecimal amount) {
+        return execute(AuthorizeNetRequests.refund(refTransactionId, amount));
+    }
 
-        setupMerchantAuth();
-
-        TransactionRequestType request = new TransactionRequestType();
-        request.setTransactionType(TransactionTypeEnum.REFUND_TRANSACTION.value());
-        request.setAmount(amount);
-        request.setRefTransId(refTransactionId);
-
-        CreditCardType card = new CreditCardType();
-        card.setCardNumber("1111");
-        card.setExpirationDate("XXXX");
-
-        PaymentType payment = new PaymentType();
-        payment.setCreditCard(card);
-        request.setPayment(payment);
-
-        CreateTransactionRequest apiRequest = new CreateTransactionRequest();
-        apiRequest.setTransactionRequest(request);
+    private GatewayResponse execute(TransactionRequestType request) {
 
-        CreateTransactionController controller =
-                new CreateTransactionController(apiRequest);
-        controller.execute();
+        // Keep the SDK's synchronized internals from pinning a carrier thread
+        if (offloadExecutor != null && Thread.currentThread().isVirtual()) {
+            return CompletableFuture
+                    .supplyAsync(() -> executeBlocking(request), offloadExecutor)
+                    .join();
+        }
 
-        return parseResponse(controller.getApiResponse());
+        return executeBlocking(request);
     }
 
-    private GatewayResponse executeTransaction(PaymentOrder order,
-                                               TransactionTypeEnum type) {
+    /**
+     * Runs a transaction request through the SDK up to the network call:
+     * builds and validates a controller, marshals the request and reads a
+     * response back. Nothing is sent to the gateway.
+     */
+    private void warmUp() {
+        long start = System.nanoTime();
         try {
-            setupMerchantAuth();
-
-            TransactionRequestType request = new TransactionRequestType();
-            request.setTransactionType(type.value());
-            request.setAmount(order.getAmount());
-
-            PaymentType payment = new PaymentType();
-            CreditCardType card = new CreditCardType();
-            card.setCardNumber("4111111111111111"); // sandbox test card
-            card.setExpirationDate("2038-12");
-            payment.setCreditCard(card);
+            CreateTransactionRequest request = AuthorizeNetRequests.createTransactionRequest(
+                    merchants.defaultMerchant(), AuthorizeNetRequests.capture("0"));
+            new CreateTransactionController(request);
+            XmlUtility.getXml(request);
+            XmlUtility.create(XmlUtility.getXml(new CreateTransactionResponse()), CreateTransactionResponse.class);
 
-            request.setPayment(payment);
+            log.info("Authorize.Net SDK warmed up in {} ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Authorize.Net SDK warm-up failed, the first request will initialize it", e);
+        }
+    }
 
-            CreateTransactionRequest apiRequest = new CreateTransactionRequest();
-            apiRequest.setTransactionRequest(request);
+    private GatewayResponse executeBlocking(TransactionRequestType request) {
+        try {
+            MerchantCredentials merchant = merchants.defaultMerchant();
 
             CreateTransactionController controller =
-                    new CreateTransactionController(apiRequest);
-            controller.execute();
+                    new CreateTransactionController(
+                            AuthorizeNetRequests.createTransactionRequest(merchant, request));
+            controller.execute(merchant.environment());
 
             CreateTransactionResponse response = controller.getApiResponse();
 
-            return parseResponse(response);
+            return AuthorizeNetResponseParser.parseResponse(response);
 
         } catch (Exception e) {
-            return new GatewayResponse(false, null, e.getMessage());
+            return GatewayResponse.failure(e);
         }
     }
 
-    private GatewayResponse parseResponse(CreateTransactionResponse response) {
-
-        if (response == null || response.getMessages().getResultCode() != MessageTypeEnum.OK) {
-            String error =
-                    response != null && response.getMessages() != null
-                            ? response.getMessages().getMessage().get(0).getText()
-                            : "Unknown error";
-            return new GatewayResponse(false, null, error);
-        }
-
-        TransactionResponse result = response.getTransactionResponse();
-
-        if (result != null && result.getResponseCode().equals("1")) {
-            return new GatewayResponse(
-                    true,
-                    result.getTransId(),
-                    null
-            );
-        }
-
-        return new GatewayResponse(false, null,
-                result != null && result.getErrors() != null
-                        ? result.getErrors().getError().get(0).getErrorText()
-                        : "Transaction failed");
-    }
-
 }
@@ -0,0 +1,76 @@
+package com.talentica.payment.payment_service.gateway.impl;
+
+import com.talentica.payment.payment_service.config.AuthorizeNetProperties;
+import net.authorize.Environment;
+import net.authorize.api.contract.v1.MerchantAuthenticationType;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registry of merchant credentials, built once at startup.
+ * <p>
+ * Replaces the SDK's static {@code ApiOperationBase} environment and merchant
+ * authentication, which are JVM-global and raced on by concurrent requests.
+ */
+@Component
+public class AuthorizeNetMerchants {
+
+    public static final String DEFAULT_MERCHANT = "default";
+
+    private final Map<String, MerchantCredentials> credentials;
+
+    public AuthorizeNetMerchants(AuthorizeNetProperties properties) {
+
+        Map<String, MerchantCredentials> byMerchant = new HashMap<>();
+
+        byMerchant.put(DEFAULT_MERCHANT, credentials(
+                properties.getApiLoginId(),
+                properties.getTransactionKey(),
+                environment(properties, properties.isSandbox())));
+
+        properties.getMerchants().forEach((merchantId, merchant) ->
+                byMerchant.put(merchantId, credentials(
+                        merchant.getApiLoginId(),
+                        merchant.getTransactionKey(),
+                        environment(properties, merchant.getSandbox() != null
+                                ? merchant.getSandbox()
+                                : properties.isSandbox()))));
+
+        this.credentials = Map.copyOf(byMerchant);
+    }
+
+    public MerchantCredentials defaultMerchant() {
+        return credentials.get(DEFAULT_MERCHANT);
+    }
+
+    public MerchantCredentials forMerchant(String merchantId) {
+
+        MerchantCredentials merchant = credentials.get(merchantId);
+        if (merchant == null) {
+            throw new IllegalArgumentException("Unknown merchant: " + merchantId);
+        }
+        return merchant;
+    }
+
+    private static Environment environment(AuthorizeNetProperties properties, boolean sandbox) {
+
+        String endpoint = properties.getEndpoint();
+        if (endpoint != null && !endpoint.isBlank()) {
+            return Environment.createEnvironment(endpoint, endpoint);
+        }
+        return sandbox ? Environment.SANDBOX : Environment.PRODUCTION;
+    }
+
+    private static MerchantCredentials credentials(String apiLoginId,
+                                                   String transactionKey,
+                                                   Environment environment) {
+
+        MerchantAuthenticationType auth = new MerchantAuthenticationType();
+        auth.setName(apiLoginId);
+        auth.setTransactionKey(transactionKey);
+
+        return new MerchantCredentials(environment, auth);
+    }
+}
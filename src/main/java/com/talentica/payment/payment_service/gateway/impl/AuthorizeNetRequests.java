@@ -0,0 +1,95 @@
+package com.talentica.payment.payment_service.gateway.impl;
+
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import net.authorize.api.contract.v1.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Builds Authorize.Net transaction requests; shared by the blocking and
+ * asynchronous gateways.
+ */
+public final class AuthorizeNetRequests {
+
+    private AuthorizeNetRequests() {
+    }
+
+    public static TransactionRequestType purchase(PaymentOrder order) {
+        return chargeCard(order, TransactionTypeEnum.AUTH_CAPTURE_TRANSACTION);
+    }
+
+    public static TransactionRequestType authorize(PaymentOrder order) {
+        return chargeCard(order, TransactionTypeEnum.AUTH_ONLY_TRANSACTION);
+    }
+
+    public static TransactionRequestType capture(String refTransactionId) {
+
+        TransactionRequestType request = new TransactionRequestType();
+        request.setTransactionType(
+                TransactionTypeEnum.PRIOR_AUTH_CAPTURE_TRANSACTION.value()
+        );
+        request.setRefTransId(refTransactionId);
+
+        return request;
+    }
+
+    public static TransactionRequestType cancel(String refTransactionId) {
+
+        TransactionRequestType request = new TransactionRequestType();
+        request.setTransactionType(
+                TransactionTypeEnum.VOID_TRANSACTION.value()
+        );
+        request.setRefTransId(refTransactionId);
+
+        return request;
+    }
+
+    public static TransactionRequestType refund(String refTransactionId,
+                                                BigDecimal amount) {
+
+        TransactionRequestType request = new TransactionRequestType();
+        request.setTransactionType(TransactionTypeEnum.REFUND_TRANSACTION.value());
+        request.setAmount(amount);
+        request.setRefTransId(refTransactionId);
+
+        CreditCardType card = new CreditCardType();
+        card.setCardNumber("1111");
+        card.setExpirationDate("XXXX");
+
+        PaymentType payment = new PaymentType();
+        payment.setCreditCard(card);
+        request.setPayment(payment);
+
+        return request;
+    }
+
+    public static CreateTransactionRequest createTransactionRequest(
+            MerchantCredentials merchant,
+            TransactionRequestType request) {
+
+        // Credentials travel with the request instead of the SDK's static state
+        CreateTransactionRequest apiRequest = new CreateTransactionRequest();
+        apiRequest.setMerchantAuthentication(merchant.authentication());
+        apiRequest.setTransactionRequest(request);
+
+        return apiRequest;
+    }
+
+    private static TransactionRequestType chargeCard(PaymentOrder order,
+                                                     TransactionTypeEnum type) {
+
+        TransactionRequestType request = new TransactionRequestType();
+        request.setTransactionType(type.value());
+        request.setAmount(order.getAmount());
+
+        PaymentType payment = new PaymentType();
+        CreditCardType card = new CreditCardType();
+        card.setCardNumber("4111111111111111"); // sandbox test card
+        card.setExpirationDate("2038-12");
+        payment.setCreditCard(card);
+
+        request.setPayment(payment);
+
+        return request;
+    }
+}
@@ -0,0 +1,78 @@
+package com.talentica.payment.payment_service.gateway.impl;
+
+import com.talentica.payment.payment_service.gateway.dto.GatewayResponse;
+import net.authorize.api.contract.v1.CreateTransactionResponse;
+import net.authorize.api.contract.v1.MessageTypeEnum;
+import net.authorize.api.contract.v1.TransactionResponse;
+
+/**
+ * Translates Authorize.Net responses into {@link GatewayResponse}.
+ */
+public final class AuthorizeNetResponseParser {
+
+    private AuthorizeNetResponseParser() {
+    }
+
+    public static GatewayResponse parseResponse(CreateTransactionResponse response) {
+
+        if (response == null || response.getMessages().getResultCode() != MessageTypeEnum.OK) {
+            String error =
+                    response != null && response.getMessages() != null
+                            ? response.getMessages().getMessage().get(0).getText()
+                            : "Unknown error";
+            return new GatewayResponse(false, null, error, isDecline(response), errorCode(response));
+        }
+
+        TransactionResponse result = response.getTransactionResponse();
+
+        if (result != null && result.getResponseCode().equals("1")) {
+            return new GatewayResponse(
+                    true,
+                    result.getTransId(),
+                    null
+            );
+        }
+
+        return new GatewayResponse(false, null,
+                hasErrors(result)
+                        ? result.getErrors().getError().get(0).getErrorText()
+                        : "Transaction failed",
+                isDecline(response),
+                errorCode(response));
+    }
+
+    /**
+     * The transaction-level reason code when there is one (e.g. 2 for a
+     * declined card), otherwise the API-level message code.
+     */
+    private static String errorCode(CreateTransactionResponse response) {
+
+        if (response == null) {
+            return null;
+        }
+        if (hasErrors(response.getTransactionResponse())) {
+            return response.getTransactionResponse().getErrors().getError().get(0).getErrorCode();
+        }
+        if (response.getMessages() != null && !response.getMessages().getMessage().isEmpty()) {
+            return response.getMessages().getMessage().get(0).getCode();
+        }
+        return null;
+    }
+
+    private static boolean hasErrors(TransactionResponse result) {
+        return result != null
+                && result.getErrors() != null
+                && !result.getErrors().getError().isEmpty();
+    }
+
+    /**
+     * A transaction-level response code means the gateway processed the
+     * request; anything else (no response, API-level error) is a failure
+     * of the gateway itself.
+     */
+    private static boolean isDecline(CreateTransactionResponse response) {
+        return response != null
+                && response.getTransactionResponse() != null
+                && response.getTransactionResponse().getResponseCode() != null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.talentica.payment.payment_service.gateway.impl;
+
+import net.authorize.Environment;
+import net.authorize.api.contract.v1.MerchantAuthenticationType;
+
+/**
+ * Immutable per-merchant gateway settings. The authentication object is
+ * only ever read while a request is marshalled, so a single instance can be
+ * attached to requests on any number of threads.
+ */
+public record MerchantCredentials(
+        Environment environment,
+        MerchantAuthenticationType authentication
+) {
+}
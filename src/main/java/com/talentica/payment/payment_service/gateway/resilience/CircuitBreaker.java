@@ -0,0 +1,146 @@
+package com.talentica.payment.payment_service.gateway.resilience;
+
+import com.talentica.payment.payment_service.config.AuthorizeNetProperties;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker over a sliding window of recent calls.
+ * <p>
+ * Opens when, over at least {@code minimum-calls} of the last
+ * {@code sliding-window-size} calls, the share of failed calls or of calls
+ * slower than {@code slow-call-duration} reaches its threshold. After
+ * {@code open-duration} it lets {@code half-open-calls} trial calls through
+ * and closes or reopens depending on how those fare.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final AuthorizeNetProperties.Resilience settings;
+    private final LongSupplier nanoClock;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slow;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialPermits;
+
+    public CircuitBreaker(AuthorizeNetProperties.Resilience settings) {
+        this(settings, System::nanoTime);
+    }
+
+    CircuitBreaker(AuthorizeNetProperties.Resilience settings, LongSupplier nanoClock) {
+        this.settings = settings;
+        this.nanoClock = nanoClock;
+        this.failedCalls = new boolean[settings.getSlidingWindowSize()];
+        this.slowCalls = new boolean[settings.getSlidingWindowSize()];
+    }
+
+    public State state() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns whether a call may proceed. Every permitted call must be
+     * followed by {@link #onResult}.
+     */
+    public boolean tryAcquirePermission() {
+        lock.lock();
+        try {
+            if (state == State.OPEN
+                    && nanoClock.getAsLong() - openedAt >= settings.getOpenDuration().toNanos()) {
+                transitionTo(State.HALF_OPEN);
+            }
+            return switch (state) {
+                case CLOSED -> true;
+                case OPEN -> false;
+                case HALF_OPEN -> {
+                    if (trialPermits == 0) {
+                        yield false;
+                    }
+                    trialPermits--;
+                    yield true;
+                }
+            };
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onResult(long durationNanos, boolean failed) {
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                // Call started before the circuit opened
+                return;
+            }
+
+            record(failed, durationNanos >= settings.getSlowCallDuration().toNanos());
+
+            int required = state == State.HALF_OPEN
+                    ? settings.getHalfOpenCalls()
+                    : settings.getMinimumCalls();
+            if (recorded < required) {
+                return;
+            }
+
+            if (exceedsThresholds()) {
+                transitionTo(State.OPEN);
+            } else if (state == State.HALF_OPEN) {
+                transitionTo(State.CLOSED);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean failed, boolean slowCall) {
+
+        if (recorded == failedCalls.length) {
+            // Evict the oldest outcome
+            failures -= failedCalls[next] ? 1 : 0;
+            slow -= slowCalls[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+
+        failedCalls[next] = failed;
+        slowCalls[next] = slowCall;
+        failures += failed ? 1 : 0;
+        slow += slowCall ? 1 : 0;
+        next = (next + 1) % failedCalls.length;
+    }
+
+    private boolean exceedsThresholds() {
+        return failures * 100 >= settings.getFailureRateThreshold() * recorded
+                || slow * 100 >= settings.getSlowCallRateThreshold() * recorded;
+    }
+
+    private void transitionTo(State target) {
+
+        state = target;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        slow = 0;
+
+        if (target == State.OPEN) {
+            openedAt = nanoClock.getAsLong();
+        } else if (target == State.HALF_OPEN) {
+            trialPermits = settings.getHalfOpenCalls();
+        }
+    }
+}
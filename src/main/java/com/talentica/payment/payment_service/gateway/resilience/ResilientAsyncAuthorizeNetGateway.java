@@ -0,0 +1,61 @@
+package com.talentica.payment.payment_service.gateway.resilience;
+
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.domain.enums.PaymentAction;
+import com.talentica.payment.payment_service.gateway.AsyncAuthorizeNetGateway;
+import com.talentica.payment.payment_service.gateway.dto.GatewayResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Guards the non-blocking Authorize.Net client with the same bulkheads and
+ * circuit breaker as {@link ResilientAuthorizeNetGateway}, so calls made
+ * through either client count against one limit per operation and trip one
+ * circuit.
+ */
+@Primary
+@Component
+public class ResilientAsyncAuthorizeNetGateway implements AsyncAuthorizeNetGateway {
+
+    private final AsyncAuthorizeNetGateway transport;
+    private final ResilientAuthorizeNetGateway guard;
+
+    public ResilientAsyncAuthorizeNetGateway(
+            @Qualifier("asyncAuthorizeNetTransport") AsyncAuthorizeNetGateway transport,
+            ResilientAuthorizeNetGateway guard) {
+        this.transport = transport;
+        this.guard = guard;
+    }
+
+    @Override
+    public CompletableFuture<GatewayResponse> purchase(PaymentOrder order) {
+        return guard.callAsync(PaymentAction.PURCHASE, () -> transport.purchase(order));
+    }
+
+    @Override
+    public CompletableFuture<GatewayResponse> authorize(PaymentOrder order) {
+        return guard.callAsync(PaymentAction.AUTHORIZE, () -> transport.authorize(order));
+    }
+
+    @Override
+    public CompletableFuture<GatewayResponse> capture(PaymentOrder order, String refTransactionId) {
+        return guard.callAsync(PaymentAction.CAPTURE, () -> transport.capture(order, refTransactionId));
+    }
+
+    @Override
+    public CompletableFuture<GatewayResponse> cancel(PaymentOrder order, String refTransactionId) {
+        return guard.callAsync(PaymentAction.CANCEL, () -> transport.cancel(order, refTransactionId));
+    }
+
+    @Override
+    public CompletableFuture<GatewayResponse> refund(PaymentOrder order,
+                                                     String refTransactionId,
+                                                     BigDecimal refundAmount) {
+        return guard.callAsync(PaymentAction.REFUND,
+                () -> transport.refund(order, refTransactionId, refundAmount));
+    }
+}
@@ -0,0 +1,182 @@
+package com.talentica.payment.payment_service.gateway.resilience;
+
+import com.talentica.payment.payment_service.config.AuthorizeNetProperties;
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.domain.enums.PaymentAction;
+import com.talentica.payment.payment_service.exception.GatewayUnavailableException;
+import com.talentica.payment.payment_service.gateway.AuthorizeNetGateway;
+import com.talentica.payment.payment_service.gateway.dto.GatewayResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Guards the Authorize.Net transport so a slow or failing gateway cannot
+ * tie up every request thread.
+ * <p>
+ * Each operation has its own bulkhead, so a backlog of refunds cannot
+ * starve captures, and all operations share one {@link CircuitBreaker},
+ * since they all depend on the same upstream. Rejected calls fail fast with
+ * {@link GatewayUnavailableException}. Declines are answers from a healthy
+ * gateway and do not count as failures.
+ */
+@Slf4j
+@Primary
+@Component
+public class ResilientAuthorizeNetGateway implements AuthorizeNetGateway {
+
+    private final AuthorizeNetGateway transport;
+    private final CircuitBreaker circuitBreaker;
+    private final Map<PaymentAction, Semaphore> bulkheads = new EnumMap<>(PaymentAction.class);
+    private final long maxWaitNanos;
+
+    @Autowired
+    public ResilientAuthorizeNetGateway(
+            @Qualifier("authorizeNetTransport") AuthorizeNetGateway transport,
+            AuthorizeNetProperties properties) {
+        this(transport, properties.getResilience(),
+                new CircuitBreaker(properties.getResilience()));
+    }
+
+    ResilientAuthorizeNetGateway(AuthorizeNetGateway transport,
+                                 AuthorizeNetProperties.Resilience settings,
+                                 CircuitBreaker circuitBreaker) {
+        this.transport = transport;
+        this.circuitBreaker = circuitBreaker;
+        this.maxWaitNanos = settings.getMaxWait().toNanos();
+        for (PaymentAction action : PaymentAction.values()) {
+            bulkheads.put(action, new Semaphore(settings.getMaxConcurrentCalls()));
+        }
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    @Override
+    public GatewayResponse purchase(PaymentOrder order) {
+        return call(PaymentAction.PURCHASE, () -> transport.purchase(order));
+    }
+
+    @Override
+    public GatewayResponse authorize(PaymentOrder order) {
+        return call(PaymentAction.AUTHORIZE, () -> transport.authorize(order));
+    }
+
+    @Override
+    public GatewayResponse capture(PaymentOrder order, String refTransactionId) {
+        return call(PaymentAction.CAPTURE, () -> transport.capture(order, refTransactionId));
+    }
+
+    @Override
+    public GatewayResponse cancel(PaymentOrder order, String refTransactionId) {
+        return call(PaymentAction.CANCEL, () -> transport.cancel(order, refTransactionId));
+    }
+
+    @Override
+    public GatewayResponse refund(PaymentOrder order,
+                                  String refTransactionId,
+                                  BigDecimal refundAmount) {
+        return call(PaymentAction.REFUND,
+                () -> transport.refund(order, refTransactionId, refundAmount));
+    }
+
+    private GatewayResponse call(PaymentAction action, Supplier<GatewayResponse> request) {
+
+        Semaphore bulkhead = bulkheads.get(action);
+        if (!acquire(bulkhead)) {
+            throw bulkheadFull(action);
+        }
+
+        try {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                throw circuitOpen();
+            }
+
+            long start = System.nanoTime();
+            GatewayResponse response = null;
+            try {
+                response = request.get();
+                return response;
+            } finally {
+                onResult(action, start, response);
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * {@link #call} for a non-blocking transport: the bulkhead slot is held
+     * and the circuit breaker told the outcome when the returned future
+     * completes. Rejections complete the future exceptionally.
+     */
+    CompletableFuture<GatewayResponse> callAsync(PaymentAction action,
+                                                 Supplier<CompletableFuture<GatewayResponse>> request) {
+
+        Semaphore bulkhead = bulkheads.get(action);
+        if (!acquire(bulkhead)) {
+            return CompletableFuture.failedFuture(bulkheadFull(action));
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            bulkhead.release();
+            return CompletableFuture.failedFuture(circuitOpen());
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<GatewayResponse> response;
+        try {
+            response = request.get();
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.whenComplete((answer, failure) -> {
+            try {
+                onResult(action, start, answer);
+            } finally {
+                bulkhead.release();
+            }
+        });
+    }
+
+    private void onResult(PaymentAction action, long start, GatewayResponse response) {
+        boolean failed = response == null
+                || (!response.success() && !response.declined());
+        circuitBreaker.onResult(System.nanoTime() - start, failed);
+        if (failed) {
+            log.warn("Gateway {} call failed: {}", action,
+                    response != null ? response.errorMessage() : "exception");
+        }
+    }
+
+    private static GatewayUnavailableException bulkheadFull(PaymentAction action) {
+        return new GatewayUnavailableException("BULKHEAD_FULL",
+                "Too many concurrent " + action + " requests to the payment gateway");
+    }
+
+    private static GatewayUnavailableException circuitOpen() {
+        return new GatewayUnavailableException("CIRCUIT_OPEN",
+                "Payment gateway is unavailable, try again later");
+    }
+
+    private boolean acquire(Semaphore bulkhead) {
+        try {
+            return maxWaitNanos > 0
+                    ? bulkhead.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)
+                    : bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
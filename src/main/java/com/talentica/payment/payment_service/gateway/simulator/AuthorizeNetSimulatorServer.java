@@ -0,0 +1,236 @@
+package com.talentica.payment.payment_service.gateway.simulator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.talentica.payment.payment_service.config.AuthorizeNetProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local HTTP stub for the Authorize.Net XML API, backed by
+ * {@link GatewaySimulator}.
+ * <p>
+ * Accepts {@code createTransactionRequest} documents on
+ * {@value #API_PATH} and answers with {@code createTransactionResponse}
+ * documents shaped like the real gateway's, byte order mark included, so
+ * the SDK and the async client can be exercised end to end by pointing
+ * {@code authorize-net.endpoint} at it. Simulated timeouts drop the
+ * connection without answering.
+ * <p>
+ * Can also be run on its own for load tests driven from another process:
+ * <pre>
+ * mvn compile exec:java \
+ *     -Dexec.mainClass=com.talentica.payment.payment_service.gateway.simulator.AuthorizeNetSimulatorServer \
+ *     -Dexec.args="8099"
+ * </pre>
+ */
+@Slf4j
+public class AuthorizeNetSimulatorServer {
+
+    public static final String API_PATH = "/xml/v1/request.api";
+
+    private static final String NAMESPACE = "AnetApi/xml/v1/schema/AnetApiSchema.xsd";
+
+    private final GatewaySimulator simulator;
+    private final int port;
+    private final DocumentBuilderFactory documentBuilders;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public AuthorizeNetSimulatorServer(GatewaySimulator simulator, int port) {
+        this.simulator = simulator;
+        this.port = port;
+        this.documentBuilders = DocumentBuilderFactory.newInstance();
+        documentBuilders.setNamespaceAware(true);
+        try {
+            documentBuilders.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            documentBuilders.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to configure XML parser", e);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8099;
+        AuthorizeNetSimulatorServer server = new AuthorizeNetSimulatorServer(
+                new GatewaySimulator(new AuthorizeNetProperties.Simulator()), port);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+    }
+
+    public void start() throws IOException {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(executor);
+        server.createContext(API_PATH, this::handle);
+        server.start();
+        log.info("Authorize.Net simulator listening on http://localhost:{}{}", port(), API_PATH);
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.close();
+        }
+    }
+
+    public int port() {
+        return server != null ? server.getAddress().getPort() : port;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            GatewaySimulator.Result result;
+            try (InputStream body = exchange.getRequestBody()) {
+                result = dispatch(parse(body));
+            } catch (Exception e) {
+                result = new GatewaySimulator.Result(GatewaySimulator.Outcome.ERROR, null, null, null,
+                        "E00003", "An error occurred while parsing the XML request.");
+            }
+
+            if (result.outcome() == GatewaySimulator.Outcome.TIMEOUT) {
+                // Closing without a response, as a hung gateway would look once the client gives up
+                return;
+            }
+
+            byte[] response = ("\uFEFF" + render(result)).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/xml; charset=utf-8");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        }
+    }
+
+    private Document parse(InputStream body) throws Exception {
+        DocumentBuilder builder = documentBuilders.newDocumentBuilder();
+        return builder.parse(body);
+    }
+
+    private GatewaySimulator.Result dispatch(Document request) {
+
+        Element root = request.getDocumentElement();
+        if (!"createTransactionRequest".equals(root.getLocalName())) {
+            return new GatewaySimulator.Result(GatewaySimulator.Outcome.ERROR, null, null, null,
+                    "E00045", "The root node does not reference a valid XML namespace.");
+        }
+
+        if (text(root, "name") == null || text(root, "transactionKey") == null) {
+            return new GatewaySimulator.Result(GatewaySimulator.Outcome.ERROR, null, null, null,
+                    "E00007", "User authentication failed due to invalid authentication values.");
+        }
+
+        String type = text(root, "transactionType");
+        String amount = text(root, "amount");
+        String refTransId = text(root, "refTransId");
+
+        return switch (type == null ? "" : type) {
+            case "authCaptureTransaction" -> simulator.purchase(new BigDecimal(amount));
+            case "authOnlyTransaction" -> simulator.authorize(new BigDecimal(amount));
+            case "priorAuthCaptureTransaction" -> simulator.capture(refTransId);
+            case "voidTransaction" -> simulator.voidTransaction(refTransId);
+            case "refundTransaction" -> simulator.refund(refTransId, new BigDecimal(amount));
+            default -> new GatewaySimulator.Result(GatewaySimulator.Outcome.ERROR, null, null, null,
+                    "E00003", "Unsupported transaction type: " + type);
+        };
+    }
+
+    private static String text(Element root, String tag) {
+        NodeList nodes = root.getElementsByTagNameNS("*", tag);
+        if (nodes.getLength() == 0) {
+            return null;
+        }
+        String value = nodes.item(0).getTextContent().trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String render(GatewaySimulator.Result result) {
+
+        StringBuilder xml = new StringBuilder(768)
+                .append("<?xml version=\"1.0\" encoding=\"utf-8\"?>")
+                .append("<createTransactionResponse")
+                .append(" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"")
+                .append(" xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\"")
+                .append(" xmlns=\"").append(NAMESPACE).append("\">");
+
+        switch (result.outcome()) {
+            case APPROVED -> apiMessages(xml, "Ok", "I00001", "Successful.");
+            case DECLINED -> apiMessages(xml, "Error", "E00027", "The transaction was unsuccessful.");
+            default -> apiMessages(xml, "Error", result.code(), result.text());
+        }
+
+        if (result.responseCode() != null) {
+            xml.append("<transactionResponse>")
+                    .append("<responseCode>").append(result.responseCode()).append("</responseCode>")
+                    .append("<authCode>").append(result.outcome() == GatewaySimulator.Outcome.APPROVED
+                            ? "SIM" + result.transactionId().substring(result.transactionId().length() - 3)
+                            : "").append("</authCode>")
+                    .append("<avsResultCode>").append(result.outcome() == GatewaySimulator.Outcome.APPROVED
+                            ? "Y" : "P").append("</avsResultCode>")
+                    .append("<cvvResultCode>P</cvvResultCode>")
+                    .append("<cavvResultCode>2</cavvResultCode>")
+                    .append("<transId>").append(escape(result.transactionId())).append("</transId>")
+                    .append("<refTransID>").append(escape(result.refTransactionId())).append("</refTransID>")
+                    .append("<transHash />")
+                    .append("<testRequest>0</testRequest>")
+                    .append("<accountNumber>XXXX1111</accountNumber>")
+                    .append("<accountType>Visa</accountType>");
+
+            if (result.outcome() == GatewaySimulator.Outcome.APPROVED) {
+                xml.append("<messages><message>")
+                        .append("<code>").append(result.code()).append("</code>")
+                        .append("<description>").append(escape(result.text())).append("</description>")
+                        .append("</message></messages>");
+            } else {
+                xml.append("<errors><error>")
+                        .append("<errorCode>").append(result.code()).append("</errorCode>")
+                        .append("<errorText>").append(escape(result.text())).append("</errorText>")
+                        .append("</error></errors>");
+            }
+            xml.append("</transactionResponse>");
+        }
+
+        return xml.append("</createTransactionResponse>").toString();
+    }
+
+    private static void apiMessages(StringBuilder xml, String resultCode, String code, String text) {
+        xml.append("<messages>")
+                .append("<resultCode>").append(resultCode).append("</resultCode>")
+                .append("<message>")
+                .append("<code>").append(code).append("</code>")
+                .append("<text>").append(escape(text)).append("</text>")
+                .append("</message>")
+                .append("</messages>");
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("\"", "&quot;");
+    }
+}
@@ -0,0 +1,270 @@
+package com.talentica.payment.payment_service.gateway.simulator;
+
+import com.talentica.payment.payment_service.config.AuthorizeNetProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Stateful stand-in for the Authorize.Net transaction API.
+ * <p>
+ * Every call is delayed by a latency sampled from the configured
+ * distribution and may be turned into a timeout or a processing error at
+ * the configured rates. New charges may be declined. Authorizations and
+ * captures are remembered by transaction ID, so capture, void and refund
+ * are accepted or refused the way the real gateway would, including the
+ * error codes it returns. Captured transactions are treated as settled.
+ */
+public class GatewaySimulator {
+
+    public enum Outcome {
+        APPROVED,
+        // Processed by the gateway and refused
+        DECLINED,
+        // Gateway failed to process the request
+        ERROR,
+        // No answer within the timeout
+        TIMEOUT
+    }
+
+    /**
+     * @param responseCode transaction-level code: 1 approved, 2 declined, 3 error
+     * @param code         transaction message or error code, or API-level
+     *                     {@code Exxxxx} code for {@link Outcome#ERROR}
+     */
+    public record Result(Outcome outcome,
+                         String responseCode,
+                         String transactionId,
+                         String refTransactionId,
+                         String code,
+                         String text) {
+
+        static Result approved(String transactionId, String refTransactionId) {
+            return new Result(Outcome.APPROVED, "1", transactionId, refTransactionId,
+                    "1", "This transaction has been approved.");
+        }
+
+        static Result declined(String transactionId) {
+            return new Result(Outcome.DECLINED, "2", transactionId, null,
+                    "2", "This transaction has been declined.");
+        }
+
+        static Result rejected(String refTransactionId, String code, String text) {
+            return new Result(Outcome.DECLINED, "3", "0", refTransactionId, code, text);
+        }
+
+        static Result error() {
+            return new Result(Outcome.ERROR, null, null, null,
+                    "E00001", "An error occurred during processing. Please try again.");
+        }
+
+        static Result timeout() {
+            return new Result(Outcome.TIMEOUT, null, null, null, null, "Read timed out");
+        }
+    }
+
+    private enum State { AUTHORIZED, CAPTURED, VOIDED }
+
+    private record Transaction(BigDecimal amount, State state, BigDecimal refunded) {
+
+        Transaction with(State next) {
+            return new Transaction(amount, next, refunded);
+        }
+
+        Transaction refund(BigDecimal refundAmount) {
+            return new Transaction(amount, state, refunded.add(refundAmount));
+        }
+    }
+
+    private static final double Z_99 = 2.326;
+
+    private final AuthorizeNetProperties.Simulator settings;
+    private final Random seeded;
+    private final ConcurrentMap<String, Transaction> transactions = new ConcurrentHashMap<>();
+    private final AtomicLong nextTransactionId = new AtomicLong(80_000_000_000L);
+
+    public GatewaySimulator(AuthorizeNetProperties.Simulator settings) {
+        this.settings = settings;
+        this.seeded = settings.getSeed() != null ? new Random(settings.getSeed()) : null;
+    }
+
+    public Result purchase(BigDecimal amount) {
+        return simulate(() -> charge(amount, State.CAPTURED));
+    }
+
+    public Result authorize(BigDecimal amount) {
+        return simulate(() -> charge(amount, State.AUTHORIZED));
+    }
+
+    public Result capture(String refTransactionId) {
+        return simulate(() -> transition(refTransactionId, txn -> switch (txn.state()) {
+            case AUTHORIZED -> null;
+            case CAPTURED -> Result.rejected(refTransactionId, "311",
+                    "This transaction has already been captured.");
+            case VOIDED -> Result.rejected(refTransactionId, "16",
+                    "The transaction cannot be found.");
+        }, State.CAPTURED));
+    }
+
+    public Result voidTransaction(String refTransactionId) {
+        return simulate(() -> transition(refTransactionId, txn -> switch (txn.state()) {
+            case AUTHORIZED -> null;
+            // A settled transaction can only be refunded
+            case CAPTURED -> Result.rejected(refTransactionId, "16",
+                    "The transaction cannot be found.");
+            case VOIDED -> Result.rejected(refTransactionId, "310",
+                    "This transaction has already been voided.");
+        }, State.VOIDED));
+    }
+
+    public Result refund(String refTransactionId, BigDecimal amount) {
+        return simulate(() -> {
+
+            if (refTransactionId == null) {
+                return notFound(null);
+            }
+
+            Result[] rejection = new Result[1];
+
+            Transaction updated = transactions.computeIfPresent(refTransactionId, (id, txn) -> {
+                if (txn.state() != State.CAPTURED) {
+                    rejection[0] = Result.rejected(id, "54",
+                            "The referenced transaction does not meet the criteria for issuing a credit.");
+                    return txn;
+                }
+                if (txn.refunded().add(amount).compareTo(txn.amount()) > 0) {
+                    rejection[0] = Result.rejected(id, "55",
+                            "The sum of credits against the referenced transaction would exceed original debit amount.");
+                    return txn;
+                }
+                return txn.refund(amount);
+            });
+
+            if (updated == null) {
+                return notFound(refTransactionId);
+            }
+            if (rejection[0] != null) {
+                return rejection[0];
+            }
+            return Result.approved(newTransactionId(), refTransactionId);
+        });
+    }
+
+    public int transactionCount() {
+        return transactions.size();
+    }
+
+    private Result charge(BigDecimal amount, State state) {
+
+        String id = newTransactionId();
+        if (roll(settings.getDeclineRate())) {
+            return Result.declined(id);
+        }
+
+        transactions.put(id, new Transaction(amount, state, BigDecimal.ZERO));
+        return Result.approved(id, null);
+    }
+
+    /**
+     * Moves a referenced transaction to {@code next} unless {@code check}
+     * returns a rejection for its current state. The check and the update
+     * happen atomically, so concurrent captures of one authorization cannot
+     * both succeed.
+     */
+    private Result transition(String refTransactionId,
+                              Function<Transaction, Result> check,
+                              State next) {
+
+        if (refTransactionId == null) {
+            return notFound(null);
+        }
+
+        Result[] rejection = new Result[1];
+
+        Transaction updated = transactions.computeIfPresent(refTransactionId, (id, txn) -> {
+            rejection[0] = check.apply(txn);
+            return rejection[0] == null ? txn.with(next) : txn;
+        });
+
+        if (updated == null) {
+            return notFound(refTransactionId);
+        }
+        if (rejection[0] != null) {
+            return rejection[0];
+        }
+        // Prior-auth captures and voids report the original transaction ID
+        return Result.approved(refTransactionId, refTransactionId);
+    }
+
+    private static Result notFound(String refTransactionId) {
+        return Result.rejected(refTransactionId, "16", "The transaction cannot be found.");
+    }
+
+    private Result simulate(Supplier<Result> operation) {
+
+        sleep(sampleLatency());
+
+        if (roll(settings.getTimeoutRate())) {
+            sleep(settings.getTimeout());
+            return Result.timeout();
+        }
+        if (roll(settings.getErrorRate())) {
+            return Result.error();
+        }
+        return operation.get();
+    }
+
+    Duration sampleLatency() {
+
+        AuthorizeNetProperties.Simulator.Latency latency = settings.getLatency();
+        long min = latency.getMin().toNanos();
+        long max = latency.getMax().toNanos();
+
+        long nanos = switch (latency.getDistribution()) {
+            case FIXED -> latency.getMedian().toNanos();
+            case UNIFORM -> min + (long) (nextDouble() * (max - min));
+            case LOG_NORMAL -> {
+                double mu = Math.log(latency.getMedian().toNanos());
+                double sigma = Math.log((double) latency.getP99().toNanos()
+                        / latency.getMedian().toNanos()) / Z_99;
+                yield (long) Math.exp(mu + sigma * nextGaussian());
+            }
+        };
+
+        return Duration.ofNanos(Math.clamp(nanos, min, max));
+    }
+
+    private String newTransactionId() {
+        return Long.toString(nextTransactionId.getAndIncrement());
+    }
+
+    private boolean roll(double rate) {
+        return rate > 0 && nextDouble() < rate;
+    }
+
+    private double nextDouble() {
+        return seeded != null ? seeded.nextDouble() : ThreadLocalRandom.current().nextDouble();
+    }
+
+    private double nextGaussian() {
+        return seeded != null ? seeded.nextGaussian() : ThreadLocalRandom.current().nextGaussian();
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
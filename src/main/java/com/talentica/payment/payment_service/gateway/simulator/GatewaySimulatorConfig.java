@@ -0,0 +1,43 @@
+package com.talentica.payment.payment_service.gateway.simulator;
+
+import com.talentica.payment.payment_service.config.AuthorizeNetProperties;
+import com.talentica.payment.payment_service.gateway.AuthorizeNetGateway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the Authorize.Net simulator.
+ * <ul>
+ *     <li>{@code authorize-net.simulator.enabled=true} replaces the SDK
+ *     transport with {@link SimulatedAuthorizeNetGateway}.</li>
+ *     <li>{@code authorize-net.simulator.http.enabled=true} starts
+ *     {@link AuthorizeNetSimulatorServer}; set {@code authorize-net.endpoint}
+ *     to its address to send real SDK traffic to it.</li>
+ * </ul>
+ * Both share one {@link GatewaySimulator}, and with it one set of
+ * transaction state.
+ */
+@Configuration
+@ConditionalOnExpression("${authorize-net.simulator.enabled:false} or ${authorize-net.simulator.http.enabled:false}")
+public class GatewaySimulatorConfig {
+
+    @Bean
+    public GatewaySimulator gatewaySimulator(AuthorizeNetProperties properties) {
+        return new GatewaySimulator(properties.getSimulator());
+    }
+
+    @Bean("authorizeNetTransport")
+    @ConditionalOnProperty(prefix = "authorize-net.simulator", name = "enabled", havingValue = "true")
+    public AuthorizeNetGateway simulatedAuthorizeNetGateway(GatewaySimulator simulator) {
+        return new SimulatedAuthorizeNetGateway(simulator);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "authorize-net.simulator.http", name = "enabled", havingValue = "true")
+    public AuthorizeNetSimulatorServer authorizeNetSimulatorServer(GatewaySimulator simulator,
+                                                                   AuthorizeNetProperties properties) {
+        return new AuthorizeNetSimulatorServer(simulator, properties.getSimulator().getHttp().getPort());
+    }
+}
@@ -0,0 +1,7 @@
+package com.talentica.payment.payment_service.gateway.simulator;
+
+public enum LatencyDistribution {
+    FIXED,
+    UNIFORM,
+    LOG_NORMAL
+}
@@ -0,0 +1,58 @@
+package com.talentica.payment.payment_service.gateway.simulator;
+
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.gateway.AuthorizeNetGateway;
+import com.talentica.payment.payment_service.gateway.dto.GatewayResponse;
+
+import java.math.BigDecimal;
+import java.net.SocketTimeoutException;
+
+/**
+ * In-process {@link AuthorizeNetGateway} backed by {@link GatewaySimulator},
+ * for load and latency tests that should not leave the JVM.
+ */
+public class SimulatedAuthorizeNetGateway implements AuthorizeNetGateway {
+
+    private final GatewaySimulator simulator;
+
+    public SimulatedAuthorizeNetGateway(GatewaySimulator simulator) {
+        this.simulator = simulator;
+    }
+
+    @Override
+    public GatewayResponse purchase(PaymentOrder order) {
+        return toResponse(simulator.purchase(order.getAmount()));
+    }
+
+    @Override
+    public GatewayResponse authorize(PaymentOrder order) {
+        return toResponse(simulator.authorize(order.getAmount()));
+    }
+
+    @Override
+    public GatewayResponse capture(PaymentOrder order, String refTransactionId) {
+        return toResponse(simulator.capture(refTransactionId));
+    }
+
+    @Override
+    public GatewayResponse cancel(PaymentOrder order, String refTransactionId) {
+        return toResponse(simulator.voidTransaction(refTransactionId));
+    }
+
+    @Override
+    public GatewayResponse refund(PaymentOrder order,
+                                  String refTransactionId,
+                                  BigDecimal refundAmount) {
+        return toResponse(simulator.refund(refTransactionId, refundAmount));
+    }
+
+    private static GatewayResponse toResponse(GatewaySimulator.Result result) {
+        return switch (result.outcome()) {
+            case APPROVED -> new GatewayResponse(true, result.transactionId(), null);
+            case DECLINED -> new GatewayResponse(false, null, result.text(), true, result.code());
+            case ERROR -> new GatewayResponse(false, null, result.text(), false, result.code());
+            // What the SDK's HTTP client reports when the gateway does not answer
+            case TIMEOUT -> GatewayResponse.failure(new SocketTimeoutException(result.text()));
+        };
+    }
+}
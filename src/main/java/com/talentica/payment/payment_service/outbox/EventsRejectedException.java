@@ -0,0 +1,16 @@
+package com.talentica.payment.payment_service.outbox;
+
+import java.io.IOException;
+
+/**
+ * Thrown by an {@link OutboxSink} that refused a batch in a way retrying
+ * will not change, such as a webhook answering 400. The relay then delivers
+ * the batch's events one at a time and moves those still refused to the
+ * dead-letter table.
+ */
+public class EventsRejectedException extends IOException {
+
+    public EventsRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,62 @@
+package com.talentica.payment.payment_service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends events to a file as NDJSON, for consumers that tail it. Each
+ * batch is synced to disk before it is acknowledged, so an event removed
+ * from the outbox survives a crash.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.outbox", name = "sink", havingValue = "file", matchIfMissing = true)
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    private FileChannel channel;
+
+    public FileOutboxSink(PaymentProperties properties, ObjectMapper objectMapper) {
+        this.path = Path.of(properties.getOutbox().getFile().getPath());
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<PaymentEvent> events) throws IOException {
+
+        if (channel == null) {
+            channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+
+        StringBuilder lines = new StringBuilder(events.size() * 256);
+        for (PaymentEvent event : events) {
+            lines.append(objectMapper.writeValueAsString(event)).append('\n');
+        }
+
+        ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        channel.force(false);
+    }
+
+    @PreDestroy
+    synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.talentica.payment.payment_service.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps delivered events in memory so tests can assert on them.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.outbox", name = "sink", havingValue = "memory")
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final List<PaymentEvent> events = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(List<PaymentEvent> batch) {
+        events.addAll(batch);
+    }
+
+    public List<PaymentEvent> events() {
+        return List.copyOf(events);
+    }
+
+    public void clear() {
+        events.clear();
+    }
+}
@@ -0,0 +1,240 @@
+package com.talentica.payment.payment_service.outbox;
+
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import com.talentica.payment.payment_service.domain.entity.OutboxDeadLetter;
+import com.talentica.payment.payment_service.domain.entity.OutboxEvent;
+import com.talentica.payment.payment_service.repository.OutboxDeadLetterRepository;
+import com.talentica.payment.payment_service.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers outbox events to the configured {@link OutboxSink}.
+ * <p>
+ * A single thread reads the oldest events, up to {@code batch-size} of
+ * them, hands them to the sink and deletes them once it has accepted them.
+ * A partial batch is held back until its oldest event is {@code linger} old,
+ * so bursts go out together. A failed delivery is retried with the same
+ * batch after a backoff that doubles up to {@code max-backoff}: nothing is
+ * skipped and an order's events never overtake each other. An event is
+ * delivered again if the node stops between delivery and delete.
+ * <p>
+ * A batch the sink rejects for good ({@link EventsRejectedException}) is
+ * delivered again one event at a time, and each event still rejected is
+ * moved to {@code payment_outbox_dead_letter}, so one bad event does not
+ * hold up the rest. Later events of its order are delivered as usual.
+ * <p>
+ * Commits on this node wake the relay at once; events committed by other
+ * nodes are picked up within {@code poll-interval}. Run the relay on one
+ * node only ({@code relay-enabled}), since two relays could deliver
+ * consecutive events of one order concurrently.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository repository;
+    private final OutboxDeadLetterRepository deadLetterRepository;
+    private final TransactionOperations transactionOperations;
+    private final OutboxSink sink;
+    private final PaymentProperties.Outbox settings;
+    private final Counter published;
+    private final Counter failures;
+    private final Counter deadLettered;
+
+    private volatile boolean running;
+    private volatile Thread relayThread;
+    private int consecutiveFailures;
+
+    public OutboxRelay(OutboxEventRepository repository,
+                       OutboxDeadLetterRepository deadLetterRepository,
+                       TransactionOperations transactionOperations,
+                       OutboxSink sink,
+                       PaymentProperties properties,
+                       MeterRegistry registry) {
+        this.repository = repository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.transactionOperations = transactionOperations;
+        this.sink = sink;
+        this.settings = properties.getOutbox();
+        this.published = Counter.builder("payment.outbox.published")
+                .description("Payment events delivered to the outbox sink")
+                .register(registry);
+        this.failures = Counter.builder("payment.outbox.failures")
+                .description("Failed outbox deliveries, each retried")
+                .register(registry);
+        this.deadLettered = Counter.builder("payment.outbox.dead.lettered")
+                .description("Outbox events the sink rejected, moved to the dead-letter table")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (settings.isEnabled() && settings.isRelayEnabled()) {
+            running = true;
+            relayThread = Thread.ofPlatform()
+                    .name("payment-outbox-relay")
+                    .daemon()
+                    .start(this::relay);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        Thread thread = relayThread;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * Tells the relay that events were committed, so it does not wait for
+     * its next poll.
+     */
+    public void wake() {
+        Thread thread = relayThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void relay() {
+        while (running && !Thread.currentThread().isInterrupted()) {
+            long waitNanos;
+            try {
+                waitNanos = relayOnce();
+            } catch (RuntimeException e) {
+                log.error("Outbox relay could not read or remove events", e);
+                waitNanos = backoff();
+            }
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(this, waitNanos);
+            }
+        }
+    }
+
+    /**
+     * Delivers at most one batch and returns how many nanoseconds to wait
+     * before the next.
+     */
+    long relayOnce() {
+
+        List<OutboxEvent> batch = repository.findAllByOrderByIdAsc(
+                PageRequest.of(0, settings.getBatchSize()));
+        if (batch.isEmpty()) {
+            return settings.getPollInterval().toNanos();
+        }
+
+        boolean full = batch.size() >= settings.getBatchSize();
+        if (!full) {
+            long age = Duration.between(batch.getFirst().getOccurredAt(), Instant.now()).toNanos();
+            long lingering = settings.getLinger().toNanos() - age;
+            if (lingering > 0) {
+                return lingering;
+            }
+        }
+
+        try {
+            sink.publish(batch.stream().map(PaymentEvent::of).toList());
+        } catch (EventsRejectedException e) {
+            log.warn("Sink rejected {} outbox events from id {}: {}",
+                    batch.size(), batch.getFirst().getId(), e.getMessage());
+            if (batch.size() > 1) {
+                return relayOneByOne(batch);
+            }
+            deadLetter(batch.getFirst(), e);
+            consecutiveFailures = 0;
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Delivery of {} outbox events from id {} failed, will retry",
+                    batch.size(), batch.getFirst().getId(), e);
+            return backoff();
+        }
+
+        repository.deleteAllByIdInBatch(batch.stream().map(OutboxEvent::getId).toList());
+        published.increment(batch.size());
+        consecutiveFailures = 0;
+
+        // A full batch suggests more are waiting
+        return full ? 0 : settings.getPollInterval().toNanos();
+    }
+
+    /**
+     * Delivers a rejected batch an event at a time, so that only the events
+     * the sink refuses are dead-lettered. Stops at the first failure that
+     * may be transient, leaving that event and the rest for a retry.
+     */
+    private long relayOneByOne(List<OutboxEvent> batch) {
+
+        for (OutboxEvent event : batch) {
+            try {
+                sink.publish(List.of(PaymentEvent.of(event)));
+            } catch (EventsRejectedException e) {
+                deadLetter(event, e);
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 0;
+            } catch (Exception e) {
+                failures.increment();
+                log.warn("Delivery of outbox event {} failed, will retry", event.getId(), e);
+                return backoff();
+            }
+            repository.deleteAllByIdInBatch(List.of(event.getId()));
+            published.increment();
+        }
+
+        consecutiveFailures = 0;
+        return 0;
+    }
+
+    private void deadLetter(OutboxEvent event, EventsRejectedException rejection) {
+
+        transactionOperations.executeWithoutResult(status -> {
+            deadLetterRepository.save(OutboxDeadLetter.builder()
+                    .id(event.getId())
+                    .orderId(event.getOrderId())
+                    .previousStatus(event.getPreviousStatus())
+                    .status(event.getStatus())
+                    .amount(event.getAmount())
+                    .currency(event.getCurrency())
+                    .capturedAmount(event.getCapturedAmount())
+                    .refundedAmount(event.getRefundedAmount())
+                    .occurredAt(event.getOccurredAt())
+                    .rejectedAt(Instant.now())
+                    .reason(truncate(rejection.getMessage()))
+                    .build());
+            repository.deleteAllByIdInBatch(List.of(event.getId()));
+        });
+        deadLettered.increment();
+        log.error("Outbox event {} for order {} moved to the dead-letter table: {}",
+                event.getId(), event.getOrderId(), rejection.getMessage());
+    }
+
+    private static String truncate(String reason) {
+        return reason == null || reason.length() <= 500 ? reason : reason.substring(0, 500);
+    }
+
+    private long backoff() {
+        int doublings = Math.min(consecutiveFailures++, 20);
+        return Math.min(settings.getBackoff().toNanos() << doublings, settings.getMaxBackoff().toNanos());
+    }
+}
@@ -0,0 +1,18 @@
+package com.talentica.payment.payment_service.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of relayed payment events, selected with
+ * {@code payment.outbox.sink}.
+ */
+public interface OutboxSink {
+
+    /**
+     * Delivers a batch, oldest event first. Returning means every event was
+     * accepted and may be removed from the outbox; throwing makes the relay
+     * deliver the same batch again later, unless it is an
+     * {@link EventsRejectedException}, which says retrying is pointless.
+     */
+    void publish(List<PaymentEvent> events) throws Exception;
+}
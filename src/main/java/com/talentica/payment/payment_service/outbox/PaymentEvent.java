@@ -0,0 +1,37 @@
+package com.talentica.payment.payment_service.outbox;
+
+import com.talentica.payment.payment_service.domain.entity.OutboxEvent;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A payment order status change as delivered to consumers. Delivery is at
+ * least once: consumers should ignore an {@code eventId} they have already
+ * processed. Events of one order arrive in the order they happened.
+ */
+public record PaymentEvent(long eventId,
+                           UUID orderId,
+                           PaymentStatus previousStatus,
+                           PaymentStatus status,
+                           BigDecimal amount,
+                           String currency,
+                           BigDecimal capturedAmount,
+                           BigDecimal refundedAmount,
+                           Instant occurredAt) {
+
+    public static PaymentEvent of(OutboxEvent event) {
+        return new PaymentEvent(
+                event.getId(),
+                event.getOrderId(),
+                event.getPreviousStatus(),
+                event.getStatus(),
+                event.getAmount(),
+                event.getCurrency(),
+                event.getCapturedAmount(),
+                event.getRefundedAmount(),
+                event.getOccurredAt());
+    }
+}
@@ -0,0 +1,60 @@
+package com.talentica.payment.payment_service.outbox;
+
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import com.talentica.payment.payment_service.domain.entity.OutboxEvent;
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import com.talentica.payment.payment_service.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+
+/**
+ * Records payment order status changes in the outbox. Events are written
+ * in the transaction that changes the order, so one exists exactly when the
+ * change was committed, and are delivered later by {@link OutboxRelay}.
+ */
+@Component
+@RequiredArgsConstructor
+public class PaymentOutbox {
+
+    private final OutboxEventRepository repository;
+    private final OutboxRelay relay;
+    private final PaymentProperties properties;
+
+    /**
+     * Records the change from {@code previousStatus} to the order's current
+     * status. Does nothing if the status is unchanged or the outbox is
+     * disabled. Must be called in the transaction that saves the order.
+     */
+    public void recordStatusChange(PaymentOrder order, PaymentStatus previousStatus) {
+
+        if (!properties.getOutbox().isEnabled() || order.getStatus() == previousStatus) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Outbox events must be written in the order's transaction");
+        }
+
+        repository.save(OutboxEvent.builder()
+                .orderId(order.getId())
+                .previousStatus(previousStatus)
+                .status(order.getStatus())
+                .amount(order.getAmount())
+                .currency(order.getCurrency())
+                .capturedAmount(order.getCapturedAmount())
+                .refundedAmount(order.getRefundedAmount())
+                .occurredAt(Instant.now())
+                .build());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                relay.wake();
+            }
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package com.talentica.payment.payment_service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * POSTs each batch to a webhook as a JSON array. Any 2xx answer
+ * acknowledges the whole batch. A 4xx other than 408 or 429 rejects it for
+ * good; anything else, or no answer within the timeout, has it sent again.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.outbox", name = "sink", havingValue = "webhook")
+public class WebhookOutboxSink implements OutboxSink {
+
+    private final URI url;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+
+    public WebhookOutboxSink(PaymentProperties properties, ObjectMapper objectMapper) {
+
+        PaymentProperties.Outbox.Webhook settings = properties.getOutbox().getWebhook();
+        if (settings.getUrl() == null || settings.getUrl().isBlank()) {
+            throw new IllegalStateException("payment.outbox.webhook.url is required for the webhook sink");
+        }
+
+        this.url = URI.create(settings.getUrl());
+        this.timeout = settings.getTimeout();
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(settings.getConnectTimeout())
+                .build();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(List<PaymentEvent> events) throws IOException, InterruptedException {
+
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(events)))
+                .build();
+
+        int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status >= 400 && status < 500 && status != 408 && status != 429) {
+            throw new EventsRejectedException("Webhook " + url + " rejected the events with " + status);
+        }
+        if (status < 200 || status >= 300) {
+            throw new IOException("Webhook " + url + " answered " + status);
+        }
+    }
+}
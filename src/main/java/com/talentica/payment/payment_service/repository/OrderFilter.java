@@ -0,0 +1,15 @@
+package com.talentica.payment.payment_service.repository;
+
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+
+import java.time.Instant;
+
+/**
+ * Criteria for listing orders; null fields match everything. {@code from}
+ * is inclusive and {@code to} exclusive.
+ */
+public record OrderFilter(PaymentStatus status,
+                          String currency,
+                          Instant from,
+                          Instant to) {
+}
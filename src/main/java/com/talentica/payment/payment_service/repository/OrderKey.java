@@ -0,0 +1,16 @@
+package com.talentica.payment.payment_service.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Position of an order in creation order, used to page through orders by
+ * key rather than by offset.
+ */
+public record OrderKey(UUID id, Instant createdAt) {
+
+    /**
+     * Sorts before every order.
+     */
+    public static final OrderKey START = new OrderKey(new UUID(0, 0), Instant.EPOCH);
+}
@@ -0,0 +1,7 @@
+package com.talentica.payment.payment_service.repository;
+
+import com.talentica.payment.payment_service.domain.entity.OutboxDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface OutboxDeadLetterRepository extends JpaRepository<OutboxDeadLetter, Long> {
+}
@@ -0,0 +1,20 @@
+package com.talentica.payment.payment_service.repository;
+
+import com.talentica.payment.payment_service.dto.response.PaymentSummary;
+
+import java.util.List;
+
+/**
+ * Read-side queries on orders that project straight into DTOs, so listing
+ * never loads or tracks {@code PaymentOrder} entities.
+ */
+public interface PaymentOrderQueries {
+
+    /**
+     * Up to {@code limit} orders matching {@code filter}, newest first,
+     * starting after {@code after} (or at the newest order if null).
+     * Seeks by (created_at, id) instead of skipping rows, so every page costs
+     * the same however deep into the listing it is.
+     */
+    List<PaymentSummary> findSummaries(OrderFilter filter, OrderKey after, int limit);
+}
@@ -0,0 +1,73 @@
+package com.talentica.payment.payment_service.repository;
+
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.dto.response.PaymentSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Builds the listing query from only the filters that are set, rather than
+ * {@code (:x is null or ...)} conditions, so the database can pick the
+ * index matching the filters actually used.
+ */
+class PaymentOrderQueriesImpl implements PaymentOrderQueries {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PaymentSummary> findSummaries(OrderFilter filter, OrderKey after, int limit) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PaymentSummary> query = cb.createQuery(PaymentSummary.class);
+        Root<PaymentOrder> order = query.from(PaymentOrder.class);
+
+        Path<Instant> createdAt = order.get("createdAt");
+        Path<UUID> id = order.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        if (filter.status() != null) {
+            where.add(cb.equal(order.get("status"), filter.status()));
+        }
+        if (filter.currency() != null) {
+            where.add(cb.equal(order.get("currency"), filter.currency()));
+        }
+        if (filter.from() != null) {
+            where.add(cb.greaterThanOrEqualTo(createdAt, filter.from()));
+        }
+        if (filter.to() != null) {
+            where.add(cb.lessThan(createdAt, filter.to()));
+        }
+        if (after != null) {
+            where.add(cb.or(
+                    cb.lessThan(createdAt, after.createdAt()),
+                    cb.and(cb.equal(createdAt, after.createdAt()), cb.lessThan(id, after.id()))));
+        }
+
+        query.select(cb.construct(PaymentSummary.class,
+                        id,
+                        order.get("status"),
+                        order.get("amount"),
+                        order.get("currency"),
+                        order.get("capturedAmount"),
+                        order.get("refundedAmount"),
+                        createdAt,
+                        order.get("updatedAt")))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.desc(createdAt), cb.desc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -1,10 +1,79 @@
 package com.talentica.payment.payment_service.repository;
 
 import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import com.talentica.payment.payment_service.domain.enums.TransactionStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
-public interface PaymentOrderRepository extends JpaRepository<PaymentOrder, UUID> {
-}
+public interface PaymentOrderRepository extends JpaRepository<PaymentOrder, UUID>, PaymentOrderQueries {
+
+    /**
+     * Orders in {@code status} created before {@code cutoff} with no
+     * operation in flight, in creation order starting after {@code after}.
+     * Served by {@code idx_payment_order_status_created}.
+     */
+    @Query("""
+            select new com.talentica.payment.payment_service.repository.OrderKey(o.id, o.createdAt)
+              from PaymentOrder o
+             where o.status = :status
+               and o.createdAt < :cutoff
+               and o.pendingAction is null
+               and (o.createdAt > :afterCreatedAt
+                    or (o.createdAt = :afterCreatedAt and o.id > :afterId))
+             order by o.createdAt, o.id
+            """)
+    List<OrderKey> findIdleCreatedBefore(@Param("status") PaymentStatus status,
+                                         @Param("cutoff") Instant cutoff,
+                                         @Param("afterCreatedAt") Instant afterCreatedAt,
+                                         @Param("afterId") UUID afterId,
+                                         Pageable pageable);
 
+    /**
+     * Orders whose in-flight claim was last updated before {@code cutoff}
+     * and that have no attempt in {@code pending} status, oldest first.
+     * Served by {@code idx_payment_order_pending_updated}.
+     */
+    @Query("""
+            select o
+              from PaymentOrder o
+             where o.pendingAction is not null
+               and o.updatedAt < :cutoff
+               and not exists (
+                   select t.id
+                     from PaymentTransaction t
+                    where t.paymentOrder = o
+                      and t.status = :pending)
+             order by o.updatedAt
+            """)
+    List<PaymentOrder> findClaimedWithoutAttempt(@Param("pending") TransactionStatus pending,
+                                                 @Param("cutoff") Instant cutoff,
+                                                 Pageable pageable);
+
+    /**
+     * Those of {@code ids} with no operation in flight, locked for update.
+     * Rows locked by another transaction are skipped rather than waited for
+     * ({@code SKIP LOCKED}, lock timeout -2 in Hibernate), so nodes claiming
+     * overlapping sets of orders each get a disjoint share.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            select o
+              from PaymentOrder o
+             where o.id in :ids
+               and o.pendingAction is null
+            """)
+    List<PaymentOrder> findIdleByIdSkipLocked(@Param("ids") Collection<UUID> ids);
+}
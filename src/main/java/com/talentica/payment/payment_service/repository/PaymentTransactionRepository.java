@@ -3,8 +3,17 @@ package com.talentica.payment.payment_service.repository;
 import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
 import com.talentica.payment.payment_service.domain.entity.PaymentTransaction;
 import com.talentica.payment.payment_service.domain.enums.TransactionStatus;
+import com.talentica.payment.payment_service.domain.enums.TransactionType;
+import com.talentica.payment.payment_service.dto.response.TransactionSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -14,5 +23,37 @@ public interface PaymentTransactionRepository extends JpaRepository<PaymentTrans
             PaymentOrder paymentOrder,
             TransactionStatus status
     );
-}
 
+    List<TransactionSummary> findByPaymentOrderIdOrderByCreatedAtAscIdAsc(UUID orderId);
+
+    /**
+     * Served by {@code idx_payment_txn_status_created}.
+     */
+    List<PaymentTransaction> findByStatusAndCreatedAtBefore(
+            TransactionStatus status,
+            Instant cutoff,
+            Pageable pageable
+    );
+
+    @Modifying
+    @Query("""
+            update PaymentTransaction t
+               set t.status = :status,
+                   t.gatewayTransactionId = :gatewayTransactionId
+             where t.id = :id
+            """)
+    int completeAttempt(@Param("id") UUID id,
+                        @Param("status") TransactionStatus status,
+                        @Param("gatewayTransactionId") String gatewayTransactionId);
+
+    @Query("""
+            select coalesce(sum(t.amount), 0)
+              from PaymentTransaction t
+             where t.paymentOrder = :order
+               and t.type = :type
+               and t.status = :status
+            """)
+    BigDecimal sumAmount(@Param("order") PaymentOrder order,
+                         @Param("type") TransactionType type,
+                         @Param("status") TransactionStatus status);
+}
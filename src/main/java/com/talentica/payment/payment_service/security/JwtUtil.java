@@ -1,25 +1,59 @@
 package com.talentica.payment.payment_service.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.talentica.payment.payment_service.config.JwtProperties;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 
+/**
+ * Issues and validates HS256 bearer tokens.
+ * <p>
+ * Clients reuse a token for its whole lifetime, so verified tokens are kept
+ * in a bounded cache until their {@code exp}; a hit skips parsing and the
+ * HMAC check. Entries are keyed by a SHA-256 digest of the whole token,
+ * signature included, so a tampered token never matches a cached one and
+ * the tokens themselves are not retained.
+ */
 @Component
 public class JwtUtil {
 
+    private record VerifiedToken(String username, Instant expiresAt) {
+    }
+
     private final Key key;
     private final long expirationMs;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verified;
 
     public JwtUtil(JwtProperties properties) {
         this.key = Keys.hmacShaKeyFor(
                 Decoders.BASE64.decode(properties.getSecret())
         );
         this.expirationMs = properties.getExpirationMs();
+        // Immutable and thread-safe once built
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        this.verified = properties.getCacheSize() > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(properties.getCacheSize())
+                        .expireAfter(Expiry.creating((String digest, VerifiedToken token) ->
+                                Duration.between(Instant.now(), token.expiresAt())))
+                        .build()
+                : null;
     }
 
     public String generateToken(String username) {
@@ -37,12 +71,38 @@ public class JwtUtil {
 
     public String validateAndGetUsername(String token) {
 
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        if (verified == null) {
+            return parse(token).getSubject();
+        }
+
+        String digest = digest(token);
+        VerifiedToken cached = verified.getIfPresent(digest);
+        if (cached != null) {
+            return cached.username();
+        }
 
+        Claims claims = parse(token);
+
+        // Tokens without an expiry are not issued here; verify them every time
+        if (claims.getExpiration() != null) {
+            verified.put(digest, new VerifiedToken(
+                    claims.getSubject(), claims.getExpiration().toInstant()));
+        }
         return claims.getSubject();
     }
+
+    private Claims parse(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -0,0 +1,120 @@
+package com.talentica.payment.payment_service.service;
+
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Pool that the gateway calls of batch operations, bulk captures and
+ * {@link StaleAuthorizationVoidJob} voids, are fanned out to.
+ * <p>
+ * All batches share it, so {@code concurrency} caps the calls in flight
+ * however many batches are running, and a {@link TokenBucket} caps the rate
+ * at which they start. Orders beyond that wait in the queue; every batch is
+ * bounded in size by its caller, so the queue is not.
+ * <p>
+ * Calls made through the non-blocking gateway client
+ * ({@link #submitAsync}) hold a worker only while they are sent, and their
+ * slot under the cap until they complete.
+ */
+@Slf4j
+@Component
+public class BatchWorkers {
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore inFlight;
+    private final TokenBucket rateLimit;
+    private final boolean asyncGateway;
+    private final long shutdownTimeoutMillis;
+
+    public BatchWorkers(PaymentProperties properties, MeterRegistry meterRegistry) {
+        PaymentProperties.Batch settings = properties.getBatch();
+
+        this.executor = new ThreadPoolExecutor(
+                settings.getConcurrency(), settings.getConcurrency(),
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                Thread.ofPlatform().name("payment-batch-", 0).factory());
+        this.inFlight = new Semaphore(settings.getConcurrency());
+        this.rateLimit = settings.getRatePerSecond() > 0
+                ? new TokenBucket(settings.getRatePerSecond(), settings.getBurst())
+                : null;
+        this.asyncGateway = settings.isAsyncGateway();
+        this.shutdownTimeoutMillis = settings.getShutdownTimeout().toMillis();
+
+        new ExecutorServiceMetrics(executor, "payment.batch", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Queues {@code task} to run once a worker is free and the rate limit
+     * allows.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            start();
+            try {
+                return task.get();
+            } finally {
+                inFlight.release();
+            }
+        }, executor);
+    }
+
+    /**
+     * {@link #submit} for a task that returns as soon as its gateway call is
+     * sent. The call keeps its slot until the task's future completes.
+     */
+    public <T> CompletableFuture<T> submitAsync(Supplier<CompletableFuture<T>> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            start();
+            CompletableFuture<T> call;
+            try {
+                call = task.get();
+            } catch (RuntimeException e) {
+                inFlight.release();
+                throw e;
+            }
+            return call.whenComplete((result, failure) -> inFlight.release());
+        }, executor).thenCompose(Function.identity());
+    }
+
+    /**
+     * Whether batch captures go through the non-blocking gateway client
+     * ({@code payment.batch.async-gateway}).
+     */
+    public boolean isAsyncGateway() {
+        return asyncGateway;
+    }
+
+    private void start() {
+        inFlight.acquireUninterruptibly();
+        if (rateLimit != null) {
+            rateLimit.acquire();
+        }
+    }
+
+    /**
+     * Lets queued calls drain for a while; attempts still PENDING afterwards
+     * are resolved by the recovery job.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            log.warn("{} batch operations still queued at shutdown", executor.getQueue().size());
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.talentica.payment.payment_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.talentica.payment.payment_service.cache.OrderCache;
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import com.talentica.payment.payment_service.domain.entity.IdempotencyRecord;
+import com.talentica.payment.payment_service.domain.enums.IdempotencyStatus;
+import com.talentica.payment.payment_service.domain.enums.PaymentAction;
+import com.talentica.payment.payment_service.dto.response.PaymentResponse;
+import com.talentica.payment.payment_service.exception.ConcurrentPaymentException;
+import com.talentica.payment.payment_service.exception.GatewayUnavailableException;
+import com.talentica.payment.payment_service.exception.IdempotencyConflictException;
+import com.talentica.payment.payment_service.exception.InvalidPaymentStateException;
+import com.talentica.payment.payment_service.exception.ResourceNotFoundException;
+import com.talentica.payment.payment_service.repository.IdempotencyRecordRepository;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates requests carrying an {@code Idempotency-Key} header.
+ * <p>
+ * Lookups go through three layers: a bounded in-memory cache of completed
+ * responses, a map of requests currently executing on this node (so
+ * concurrent duplicates wait for the first one instead of calling the
+ * gateway again), and the {@code idempotency_keys} table, which also
+ * arbitrates between nodes.
+ * <p>
+ * A key is released for reuse only when the request was rejected before
+ * the gateway was called. Any other failure, such as a database error
+ * after the card was charged, leaves the key {@code UNKNOWN} and its
+ * retries are refused, since running them could charge the card twice.
+ * So is a key left {@code IN_PROGRESS} for longer than
+ * {@code in-progress-timeout} by a node that stopped mid-request.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private final IdempotencyRecordRepository repository;
+    private final OrderCache orderCache;
+    private final PaymentProperties.Idempotency settings;
+    private final Cache<String, IdempotencyRecord> completed;
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              OrderCache orderCache,
+                              PaymentProperties properties) {
+        this.repository = repository;
+        this.orderCache = orderCache;
+        this.settings = properties.getIdempotency();
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(settings.getCacheSize())
+                .expireAfterWrite(settings.getTtl())
+                .build();
+    }
+
+    public static String fingerprint(PaymentAction action, Object... parts) {
+
+        StringJoiner joiner = new StringJoiner("|").add(action.name());
+        for (Object part : parts) {
+            joiner.add(part instanceof BigDecimal amount
+                    ? amount.stripTrailingZeros().toPlainString()
+                    : String.valueOf(part));
+        }
+        return joiner.toString();
+    }
+
+    public PaymentResponse execute(String key,
+                                   String fingerprint,
+                                   Supplier<PaymentResponse> operation) {
+        return execute(key, fingerprint, true, operation);
+    }
+
+    /**
+     * {@link #execute} for operations that answer before the order settles,
+     * such as a purchase accepted with {@code 202}. Replays report the
+     * order's current state rather than the state it was accepted in.
+     */
+    public PaymentResponse executeAccepted(String key,
+                                           String fingerprint,
+                                           Supplier<PaymentResponse> operation) {
+        return execute(key, fingerprint, false, operation);
+    }
+
+    private PaymentResponse execute(String key,
+                                    String fingerprint,
+                                    boolean settled,
+                                    Supplier<PaymentResponse> operation) {
+
+        if (key == null || key.isBlank()) {
+            return operation.get();
+        }
+
+        IdempotencyRecord cached = completed.getIfPresent(key);
+        if (cached != null) {
+            return replay(cached, fingerprint);
+        }
+
+        InFlight mine = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight existing = inFlight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            checkFingerprint(existing.fingerprint(), fingerprint);
+            return await(existing.response());
+        }
+
+        try {
+            PaymentResponse response = executeOnce(key, fingerprint, settled, operation);
+            mine.response().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.response().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment.idempotency.purge-interval:PT1H}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = repository.deleteCreatedBefore(Instant.now().minus(settings.getTtl()));
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private PaymentResponse executeOnce(String key,
+                                        String fingerprint,
+                                        boolean settled,
+                                        Supplier<PaymentResponse> operation) {
+
+        Optional<IdempotencyRecord> stored = repository.findById(key);
+
+        if (stored.isPresent()) {
+            IdempotencyRecord record = stored.get();
+            checkFingerprint(record.getRequestFingerprint(), fingerprint);
+
+            if (record.getStatus() == IdempotencyStatus.COMPLETED) {
+                completed.put(key, record);
+                return replay(record);
+            }
+            if (record.getStatus() == IdempotencyStatus.IN_PROGRESS
+                    && record.getCreatedAt().isAfter(Instant.now().minus(settings.getInProgressTimeout()))) {
+                throw new IdempotencyConflictException(
+                        "A request with this Idempotency-Key is already in progress");
+            }
+            // UNKNOWN, or claimed by a node that never finished and may have
+            // charged the card before it stopped; never run it again
+            throw new IdempotencyConflictException(
+                    "A request with this Idempotency-Key ended with an unknown outcome after it may have "
+                            + "reached the payment gateway; check the order's status before retrying with a new key");
+        }
+
+        IdempotencyRecord record = claim(key, fingerprint);
+
+        PaymentResponse response;
+        try {
+            response = operation.get();
+        } catch (RuntimeException e) {
+            if (rejectedBeforeGateway(e)) {
+                // Nothing was charged; let the client retry with the same key
+                repository.delete(record);
+            } else {
+                markUnknown(record, e);
+            }
+            throw e;
+        }
+
+        record.setStatus(IdempotencyStatus.COMPLETED);
+        record.setOrderId(response.orderId());
+        record.setPaymentStatus(settled ? response.status() : null);
+        record.setAmount(response.amount());
+        record.setCurrency(response.currency());
+        repository.save(record);
+
+        completed.put(key, record);
+        return response;
+    }
+
+    private IdempotencyRecord claim(String key, String fingerprint) {
+        try {
+            return repository.saveAndFlush(
+                    IdempotencyRecord.builder()
+                            .idempotencyKey(key)
+                            .requestFingerprint(fingerprint)
+                            .status(IdempotencyStatus.IN_PROGRESS)
+                            .build());
+        } catch (DataIntegrityViolationException e) {
+            throw new IdempotencyConflictException(
+                    "A request with this Idempotency-Key is already in progress");
+        }
+    }
+
+    /**
+     * Failures known to happen before the gateway is called: rejections in
+     * phase 1, and calls refused by the bulkhead, circuit breaker or a full
+     * worker pool, which are recorded as failed without being sent.
+     */
+    private static boolean rejectedBeforeGateway(RuntimeException e) {
+        return e instanceof InvalidPaymentStateException
+                || e instanceof ConcurrentPaymentException
+                || e instanceof ResourceNotFoundException
+                || e instanceof ValidationException
+                || e instanceof GatewayUnavailableException unavailable && !unavailable.mayHaveReachedGateway();
+    }
+
+    private void markUnknown(IdempotencyRecord record, RuntimeException failure) {
+        try {
+            record.setStatus(IdempotencyStatus.UNKNOWN);
+            repository.save(record);
+        } catch (RuntimeException e) {
+            // Left IN_PROGRESS, which is refused the same way once in-progress-timeout passes
+            failure.addSuppressed(e);
+        }
+        log.error("Request with Idempotency-Key {} failed with an unknown outcome", record.getIdempotencyKey(), failure);
+    }
+
+    private PaymentResponse replay(IdempotencyRecord record, String fingerprint) {
+        checkFingerprint(record.getRequestFingerprint(), fingerprint);
+        return replay(record);
+    }
+
+    private PaymentResponse replay(IdempotencyRecord record) {
+        return record.getPaymentStatus() != null
+                ? record.toResponse()
+                : orderCache.get(record.getOrderId());
+    }
+
+    private void checkFingerprint(String expected, String actual) {
+        if (!expected.equals(actual)) {
+            throw new IdempotencyConflictException(
+                    "Idempotency-Key was already used with a different request");
+        }
+    }
+
+    private PaymentResponse await(CompletableFuture<PaymentResponse> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record InFlight(String fingerprint,
+                            CompletableFuture<PaymentResponse> response) {
+    }
+}
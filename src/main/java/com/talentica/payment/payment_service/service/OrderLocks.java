@@ -0,0 +1,71 @@
+package com.talentica.payment.payment_service.service;
+
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import com.talentica.payment.payment_service.exception.ConcurrentPaymentException;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped in-process locks keyed by order ID.
+ * <p>
+ * Serializes the start of follow-up operations on the same order within
+ * this node, so only one of them can claim the order; the {@code @Version}
+ * column on the order covers requests racing from other nodes. Uses
+ * {@link ReentrantLock} rather than {@code synchronized} so waiting virtual
+ * threads do not pin their carrier.
+ */
+@Component
+public class OrderLocks {
+
+    private final ReentrantLock[] stripes;
+    private final long waitNanos;
+
+    public OrderLocks(PaymentProperties properties) {
+        PaymentProperties.OrderLock settings = properties.getOrderLock();
+        int count = Integer.highestOneBit(Math.max(1, settings.getStripes() - 1)) << 1;
+        this.stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.waitNanos = settings.getWaitTimeout().toNanos();
+    }
+
+    /**
+     * Acquires the stripe for the order, failing fast with
+     * {@link ConcurrentPaymentException} if it stays busy beyond the
+     * configured wait.
+     */
+    public Lease acquire(UUID orderId) {
+
+        ReentrantLock lock = stripes[index(orderId)];
+
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            throw new ConcurrentPaymentException(
+                    "Another request is currently processing this order");
+        }
+        return lock::unlock;
+    }
+
+    private int index(UUID orderId) {
+        int h = orderId.hashCode();
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+
+    @FunctionalInterface
+    public interface Lease extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
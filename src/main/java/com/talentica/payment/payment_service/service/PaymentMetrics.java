@@ -0,0 +1,242 @@
+package com.talentica.payment.payment_service.service;
+
+import com.talentica.payment.payment_service.domain.enums.PaymentAction;
+import com.talentica.payment.payment_service.exception.ConcurrentPaymentException;
+import com.talentica.payment.payment_service.exception.GatewayUnavailableException;
+import com.talentica.payment.payment_service.exception.InvalidPaymentStateException;
+import com.talentica.payment.payment_service.exception.ResourceNotFoundException;
+import com.talentica.payment.payment_service.gateway.dto.GatewayResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer instruments for payment operations, exported through the
+ * Prometheus actuator endpoint:
+ * <ul>
+ *     <li>{@code payment.operation} – end-to-end time per action and outcome,</li>
+ *     <li>{@code payment.gateway} – time spent in the gateway call,</li>
+ *     <li>{@code payment.db} – time spent in the phase 1 and phase 3 transactions,</li>
+ *     <li>{@code payment.gateway.declines} and {@code payment.gateway.errors} –
+ *         unsuccessful gateway calls by gateway code,</li>
+ *     <li>{@code payment.gateway.in.flight} – gateway calls currently outstanding.</li>
+ * </ul>
+ * Timers publish percentile histograms so quantiles can be aggregated across
+ * instances; their bucket ranges are bounded to keep the series count down.
+ * Timers and gauges with fixed tags are registered up front so the hot path
+ * does not look them up.
+ */
+@Component
+public class PaymentMetrics {
+
+    public enum Outcome {
+        // Gateway approved the operation
+        APPROVED,
+        // Gateway answered and refused it
+        DECLINED,
+        // Gateway failed to answer or returned an error
+        FAILED,
+        // Gateway call not attempted (circuit open, bulkhead full)
+        UNAVAILABLE,
+        // Refused by the service before the gateway (state, concurrency, not found)
+        REJECTED,
+        // Anything else
+        ERROR;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    public enum DbPhase {
+        BEGIN,
+        FINISH;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    // A gateway call is never rejected by the service, and exceptions count as failures
+    private static final Set<Outcome> GATEWAY_OUTCOMES =
+            EnumSet.of(Outcome.APPROVED, Outcome.DECLINED, Outcome.FAILED, Outcome.UNAVAILABLE);
+
+    private final MeterRegistry registry;
+    private final Map<PaymentAction, Map<Outcome, Timer>> operationTimers = new EnumMap<>(PaymentAction.class);
+    private final Map<PaymentAction, Map<Outcome, Timer>> gatewayTimers = new EnumMap<>(PaymentAction.class);
+    private final Map<PaymentAction, Map<DbPhase, Timer>> dbTimers = new EnumMap<>(PaymentAction.class);
+    private final Map<PaymentAction, AtomicInteger> inFlight = new EnumMap<>(PaymentAction.class);
+
+    public PaymentMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        for (PaymentAction action : PaymentAction.values()) {
+            String actionTag = action.name();
+
+            Map<Outcome, Timer> operations = new EnumMap<>(Outcome.class);
+            Map<Outcome, Timer> gatewayCalls = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                operations.put(outcome, timer("payment.operation", "Payment operation, end to end",
+                        Duration.ofMillis(1), Duration.ofSeconds(60))
+                        .tags("action", actionTag, "outcome", outcome.tag)
+                        .register(registry));
+            }
+            for (Outcome outcome : GATEWAY_OUTCOMES) {
+                gatewayCalls.put(outcome, timer("payment.gateway", "Payment gateway call",
+                        Duration.ofMillis(1), Duration.ofSeconds(60))
+                        .tags("action", actionTag, "outcome", outcome.tag)
+                        .register(registry));
+            }
+            operationTimers.put(action, operations);
+            gatewayTimers.put(action, gatewayCalls);
+
+            Map<DbPhase, Timer> phases = new EnumMap<>(DbPhase.class);
+            for (DbPhase phase : DbPhase.values()) {
+                phases.put(phase, timer("payment.db", "Payment database transaction",
+                        Duration.ofNanos(100_000), Duration.ofSeconds(10))
+                        .tags("action", actionTag, "phase", phase.tag)
+                        .register(registry));
+            }
+            dbTimers.put(action, phases);
+
+            AtomicInteger calls = new AtomicInteger();
+            Gauge.builder("payment.gateway.in.flight", calls, AtomicInteger::get)
+                    .description("Payment gateway calls in progress")
+                    .tag("action", actionTag)
+                    .register(registry);
+            inFlight.put(action, calls);
+        }
+    }
+
+    public void recordOperation(PaymentAction action, Outcome outcome, long nanos) {
+        operationTimers.get(action).get(outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDb(PaymentAction action, DbPhase phase, long nanos) {
+        dbTimers.get(action).get(phase).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Runs a gateway call, timing it and counting unsuccessful answers by
+     * gateway code. Exceptions are recorded and rethrown.
+     */
+    public GatewayResponse recordGatewayCall(PaymentAction action, Supplier<GatewayResponse> call) {
+
+        AtomicInteger calls = inFlight.get(action);
+        calls.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            GatewayResponse response = call.get();
+            recordAnswer(action, response, start);
+            return response;
+        } catch (RuntimeException e) {
+            recordFailure(action, e, start);
+            throw e;
+        } finally {
+            calls.decrementAndGet();
+        }
+    }
+
+    /**
+     * {@link #recordGatewayCall} for a non-blocking call, recorded when the
+     * returned future completes.
+     */
+    public CompletableFuture<GatewayResponse> recordGatewayCallAsync(
+            PaymentAction action, Supplier<CompletableFuture<GatewayResponse>> call) {
+
+        AtomicInteger calls = inFlight.get(action);
+        calls.incrementAndGet();
+        long start = System.nanoTime();
+        CompletableFuture<GatewayResponse> response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.whenComplete((answer, failure) -> {
+            calls.decrementAndGet();
+            if (failure == null) {
+                recordAnswer(action, answer, start);
+            } else {
+                recordFailure(action, failure instanceof CompletionException && failure.getCause() != null
+                        ? failure.getCause()
+                        : failure, start);
+            }
+        });
+    }
+
+    public static Outcome outcomeOf(GatewayResponse response) {
+        if (response.success()) {
+            return Outcome.APPROVED;
+        }
+        return response.declined() ? Outcome.DECLINED : Outcome.FAILED;
+    }
+
+    public static Outcome outcomeOf(RuntimeException e) {
+        if (e instanceof GatewayUnavailableException) {
+            return Outcome.UNAVAILABLE;
+        }
+        if (e instanceof InvalidPaymentStateException
+                || e instanceof ConcurrentPaymentException
+                || e instanceof ResourceNotFoundException
+                || e instanceof OptimisticLockingFailureException) {
+            return Outcome.REJECTED;
+        }
+        return Outcome.ERROR;
+    }
+
+    private void recordAnswer(PaymentAction action, GatewayResponse response, long start) {
+        Outcome outcome = outcomeOf(response);
+        if (outcome == Outcome.DECLINED) {
+            count("payment.gateway.declines", "Payment gateway declines",
+                    action, response.errorCode());
+        } else if (outcome == Outcome.FAILED) {
+            count("payment.gateway.errors", "Payment gateway errors",
+                    action, response.errorCode());
+        }
+        recordGateway(action, outcome, start);
+    }
+
+    private void recordFailure(PaymentAction action, Throwable e, long start) {
+        if (e instanceof GatewayUnavailableException unavailable) {
+            count("payment.gateway.errors", "Payment gateway errors", action, unavailable.getReason());
+            recordGateway(action, Outcome.UNAVAILABLE, start);
+        } else {
+            count("payment.gateway.errors", "Payment gateway errors",
+                    action, e.getClass().getSimpleName());
+            recordGateway(action, Outcome.FAILED, start);
+        }
+    }
+
+    private void recordGateway(PaymentAction action, Outcome outcome, long start) {
+        gatewayTimers.get(action).get(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void count(String name, String description, PaymentAction action, String code) {
+        // Codes come from a small fixed set on the gateway side, so tagging by them is bounded
+        Counter.builder(name)
+                .description(description)
+                .tags("action", action.name(), "code", code != null ? code : "unknown")
+                .register(registry)
+                .increment();
+    }
+
+    private static Timer.Builder timer(String name, String description, Duration min, Duration max) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(min)
+                .maximumExpectedValue(max);
+    }
+}
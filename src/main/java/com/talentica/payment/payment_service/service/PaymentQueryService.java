@@ -0,0 +1,83 @@
+package com.talentica.payment.payment_service.service;
+
+import com.talentica.payment.payment_service.cache.OrderCache;
+import com.talentica.payment.payment_service.dto.response.PaymentPage;
+import com.talentica.payment.payment_service.dto.response.PaymentResponse;
+import com.talentica.payment.payment_service.dto.response.PaymentSummary;
+import com.talentica.payment.payment_service.dto.response.TransactionSummary;
+import com.talentica.payment.payment_service.exception.InvalidCursorException;
+import com.talentica.payment.payment_service.exception.ResourceNotFoundException;
+import com.talentica.payment.payment_service.repository.OrderFilter;
+import com.talentica.payment.payment_service.repository.OrderKey;
+import com.talentica.payment.payment_service.repository.PaymentOrderRepository;
+import com.talentica.payment.payment_service.repository.PaymentTransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read-only views of orders. Single orders are served from {@link OrderCache};
+ * listings for support tooling are DTO projections, and their pages are
+ * addressed by an opaque cursor holding the position of the last order
+ * returned.
+ */
+@Service
+@RequiredArgsConstructor
+public class PaymentQueryService {
+
+    private final PaymentOrderRepository orderRepository;
+    private final PaymentTransactionRepository transactionRepository;
+    private final OrderCache orderCache;
+
+    public PaymentResponse getPayment(UUID orderId) {
+        return orderCache.get(orderId);
+    }
+
+    public PaymentPage listPayments(OrderFilter filter, String cursor, int limit) {
+
+        // One extra row tells whether there is a next page without a count query
+        List<PaymentSummary> rows = orderRepository.findSummaries(filter, decode(cursor), limit + 1);
+        if (rows.size() <= limit) {
+            return new PaymentPage(rows, null);
+        }
+
+        List<PaymentSummary> page = rows.subList(0, limit);
+        PaymentSummary last = page.getLast();
+        return new PaymentPage(List.copyOf(page), encode(new OrderKey(last.orderId(), last.createdAt())));
+    }
+
+    public List<TransactionSummary> listTransactions(UUID orderId) {
+
+        if (!orderRepository.existsById(orderId)) {
+            throw new ResourceNotFoundException("Payment order not found");
+        }
+        return transactionRepository.findByPaymentOrderIdOrderByCreatedAtAscIdAsc(orderId);
+    }
+
+    static String encode(OrderKey key) {
+        String position = key.createdAt() + "|" + key.id();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static OrderKey decode(String cursor) {
+
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf('|');
+            return new OrderKey(
+                    UUID.fromString(position.substring(separator + 1)),
+                    Instant.parse(position.substring(0, separator)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+}
@@ -3,184 +3,779 @@ package com.talentica.payment.payment_service.service;
 import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
 import com.talentica.payment.payment_service.domain.entity.PaymentTransaction;
 import com.talentica.payment.payment_service.domain.enums.*;
+import com.talentica.payment.payment_service.domain.event.PaymentStatusChanged;
+import com.talentica.payment.payment_service.dto.response.BatchResult;
+import com.talentica.payment.payment_service.exception.ConcurrentPaymentException;
+import com.talentica.payment.payment_service.exception.GatewayUnavailableException;
+import com.talentica.payment.payment_service.exception.InvalidPaymentStateException;
 import com.talentica.payment.payment_service.exception.ResourceNotFoundException;
+import com.talentica.payment.payment_service.gateway.AsyncAuthorizeNetGateway;
 import com.talentica.payment.payment_service.gateway.AuthorizeNetGateway;
+import com.talentica.payment.payment_service.gateway.dto.GatewayResponse;
+import com.talentica.payment.payment_service.outbox.PaymentOutbox;
 import com.talentica.payment.payment_service.repository.PaymentOrderRepository;
 import com.talentica.payment.payment_service.repository.PaymentTransactionRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Orchestrates payment flows in three phases so that no database connection
+ * is held while Authorize.Net is being called:
+ * <ol>
+ *     <li>a short transaction validates the order and records a PENDING attempt,</li>
+ *     <li>the gateway is called with no transaction open,</li>
+ *     <li>a second short transaction finalizes the attempt and the order.</li>
+ * </ol>
+ * Attempts left PENDING by a crash between phases are resolved by
+ * {@link PendingTransactionRecoveryJob}. When enabled, the PENDING insert is
+ * handed to {@link PaymentTransactionWriter} after phase 1 commits so it can be
+ * batched with inserts from other requests. Each phase is timed through
+ * {@link PaymentMetrics}. Status changes are published through
+ * {@link PaymentOutbox}.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class PaymentService {
 
+    // Orders loaded and claimed per phase 1 transaction of a batch operation,
+    // in line with hibernate.jdbc.batch_size
+    private static final int CLAIM_CHUNK_SIZE = 50;
+
     private final PaymentOrderRepository orderRepository;
     private final PaymentTransactionRepository transactionRepository;
     private final AuthorizeNetGateway gateway;
+    private final AsyncAuthorizeNetGateway asyncGateway;
     private final PaymentStateValidator stateValidator;
+    private final TransactionOperations transactionOperations;
+    private final PaymentTransactionWriter transactionWriter;
+    private final OrderLocks orderLocks;
+    private final PaymentMetrics metrics;
+    private final PaymentWorkers paymentWorkers;
+    private final BatchWorkers batchWorkers;
+    private final PaymentOutbox outbox;
+    private final ApplicationEventPublisher eventPublisher;
 
-    @Transactional
     public PaymentOrder purchase(BigDecimal amount, String currency) {
+        return timed(PaymentAction.PURCHASE, () ->
+                completePurchase(begin(() -> startNewOrder(amount, currency, PaymentAction.PURCHASE))));
+    }
 
-        PaymentOrder order = createOrder(amount, currency);
+    /**
+     * Asynchronous {@link #purchase}: returns the CREATED order once it and
+     * its PENDING attempt are committed, and leaves the gateway call and
+     * phase 3 to {@link PaymentWorkers}.
+     */
+    public PaymentOrder submitPurchase(BigDecimal amount, String currency) {
+        return submit(PaymentAction.PURCHASE,
+                () -> startNewOrder(amount, currency, PaymentAction.PURCHASE),
+                this::completePurchase);
+    }
 
-        stateValidator.validate(order.getStatus(), PaymentAction.PURCHASE);
+    public PaymentOrder authorize(BigDecimal amount, String currency) {
+        return timed(PaymentAction.AUTHORIZE, () ->
+                completeAuthorize(begin(() -> startNewOrder(amount, currency, PaymentAction.AUTHORIZE))));
+    }
 
-        var gatewayResponse = gateway.purchase(order);
+    /**
+     * Asynchronous {@link #authorize}, see {@link #submitPurchase}.
+     */
+    public PaymentOrder submitAuthorize(BigDecimal amount, String currency) {
+        return submit(PaymentAction.AUTHORIZE,
+                () -> startNewOrder(amount, currency, PaymentAction.AUTHORIZE),
+                this::completeAuthorize);
+    }
 
-        saveTransaction(order, TransactionType.PURCHASE,
-                amount,
-                gatewayResponse.transactionId(),
-                gatewayResponse.success());
 
-        if (gatewayResponse.success()) {
-            order.setStatus(PaymentStatus.CAPTURED);
-        } else {
-            order.setStatus(PaymentStatus.FAILED);
+    public PaymentOrder capture(UUID orderId) {
+        return timed(PaymentAction.CAPTURE, () -> completeCapture(begin(orderId, () -> {
+            PaymentOrder order = getOrder(orderId);
+            claim(order, PaymentAction.CAPTURE);
+            return startAttempt(order, PaymentAction.CAPTURE, order.getAmount());
+        })));
+    }
+
+    /**
+     * Captures many authorized orders, see {@link #runBatch}. Unless
+     * {@code payment.batch.async-gateway} is off, the captures are sent
+     * through the non-blocking gateway client, so a worker is not held for
+     * the length of each call.
+     */
+    public CompletableFuture<Void> captureBatch(List<UUID> orderIds,
+                                                Consumer<BatchResult> results) {
+        if (batchWorkers.isAsyncGateway()) {
+            return dispatchBatch(PaymentAction.CAPTURE, orderIds, false, results,
+                    attempt -> batchWorkers.submitAsync(() -> completeCaptureAsync(attempt)));
         }
+        return runBatch(PaymentAction.CAPTURE, orderIds, false, results, this::completeCapture);
+    }
 
-        return orderRepository.save(order);
+    public PaymentOrder cancel(UUID orderId) {
+        return timed(PaymentAction.CANCEL, () -> completeCancel(begin(orderId, () -> {
+            PaymentOrder order = getOrder(orderId);
+            claim(order, PaymentAction.CANCEL);
+            return startAttempt(order, PaymentAction.CANCEL, order.getAmount());
+        })));
     }
 
-    @Transactional
-    public PaymentOrder authorize(BigDecimal amount, String currency) {
+    /**
+     * Voids many authorized orders, see {@link #runBatch}.
+     */
+    public CompletableFuture<Void> cancelBatch(List<UUID> orderIds,
+                                               Consumer<BatchResult> results) {
+        return runBatch(PaymentAction.CANCEL, orderIds, false, results, this::completeCancel);
+    }
+
+    /**
+     * Voids stale authorizations for {@link StaleAuthorizationVoidJob}. Unlike
+     * {@link #cancelBatch}, orders locked or already claimed by another node
+     * are skipped without a result, and a void that fails without a decline
+     * leaves the order AUTHORIZED for the next run to try again.
+     */
+    public CompletableFuture<Void> voidStale(List<UUID> orderIds,
+                                             Consumer<BatchResult> results) {
+        return runBatch(PaymentAction.CANCEL, orderIds, true, results, this::completeStaleVoid);
+    }
 
-        PaymentOrder order = createOrder(amount, currency);
 
-        stateValidator.validate(order.getStatus(), PaymentAction.AUTHORIZE);
+    public PaymentOrder refund(UUID orderId, BigDecimal refundAmount) {
+        return timed(PaymentAction.REFUND, () -> {
+
+            PaymentAttempt attempt = begin(orderId, () -> {
+                PaymentOrder order = getOrder(orderId);
+                claim(order, PaymentAction.REFUND);
+                checkRefundable(order, refundAmount);
+                return startAttempt(order, PaymentAction.REFUND, refundAmount);
+            });
+
+            PaymentOrder order = attempt.order();
+            var response = call(attempt, () ->
+                    gateway.refund(order, attempt.refTxnId(), refundAmount));
+
+            PaymentStatus nextStatus = order.getStatus();
+            if (response.success()) {
+                BigDecimal refunded = order.getRefundedAmount().add(refundAmount);
+                nextStatus = refunded.compareTo(order.getCapturedAmount()) < 0
+                        ? PaymentStatus.PARTIALLY_REFUNDED
+                        : PaymentStatus.REFUNDED;
+            }
+
+            return finish(attempt, response, nextStatus);
+        });
+    }
 
-        var response = gateway.authorize(order);
+    private PaymentAttempt startNewOrder(BigDecimal amount, String currency, PaymentAction action) {
+        PaymentOrder order = createOrder(amount, currency, action);
+        return startAttempt(order, action, amount);
+    }
 
-        saveTransaction(order, TransactionType.AUTHORIZE,
-                amount,
-                response.transactionId(),
-                response.success());
+    private CompletedAttempt completePurchase(PaymentAttempt attempt) {
 
-        order.setStatus(response.success()
-                ? PaymentStatus.AUTHORIZED
-                : PaymentStatus.FAILED);
+        var gatewayResponse = call(attempt, () -> gateway.purchase(attempt.order()));
 
-        return orderRepository.save(order);
+        return finish(attempt, gatewayResponse,
+                gatewayResponse.success()
+                        ? PaymentStatus.CAPTURED
+                        : PaymentStatus.FAILED);
     }
 
+    private CompletedAttempt completeCapture(PaymentAttempt attempt) {
 
-    @Transactional
-    public PaymentOrder capture(UUID orderId) {
+        var response = call(attempt, () ->
+                gateway.capture(attempt.order(), attempt.refTxnId()));
 
-        PaymentOrder order = getOrder(orderId);
+        return finish(attempt, response,
+                response.success()
+                        ? PaymentStatus.CAPTURED
+                        : PaymentStatus.FAILED);
+    }
 
-        stateValidator.validate(order.getStatus(), PaymentAction.CAPTURE);
+    private CompletableFuture<CompletedAttempt> completeCaptureAsync(PaymentAttempt attempt) {
 
-        String refTxnId = getLastSuccessfulGatewayTxnId(order);
+        return callAsync(attempt, () ->
+                asyncGateway.capture(attempt.order(), attempt.refTxnId()))
+                .thenApply(response -> finish(attempt, response,
+                        response.success()
+                                ? PaymentStatus.CAPTURED
+                                : PaymentStatus.FAILED));
+    }
 
-        var response = gateway.capture(order, refTxnId);
+    private CompletedAttempt completeCancel(PaymentAttempt attempt) {
 
-        saveTransaction(order, TransactionType.CAPTURE,
-                order.getAmount(),
-                response.transactionId(),
-                response.success());
+        var response = call(attempt, () ->
+                gateway.cancel(attempt.order(), attempt.refTxnId()));
 
-        order.setStatus(response.success()
-                ? PaymentStatus.CAPTURED
-                : PaymentStatus.FAILED);
+        return finish(attempt, response,
+                response.success()
+                        ? PaymentStatus.CANCELLED
+                        : PaymentStatus.FAILED);
+    }
 
-        return orderRepository.save(order);
+    /**
+     * A client's void that fails leaves the order FAILED; an automatic one
+     * only does so when the gateway declined it, since an error or a lost
+     * answer says nothing about the authorization, which may still be
+     * holding the cardholder's funds.
+     */
+    private CompletedAttempt completeStaleVoid(PaymentAttempt attempt) {
+
+        var response = call(attempt, () ->
+                gateway.cancel(attempt.order(), attempt.refTxnId()));
+
+        PaymentStatus nextStatus;
+        if (response.success()) {
+            nextStatus = PaymentStatus.CANCELLED;
+        } else if (response.declined()) {
+            nextStatus = PaymentStatus.FAILED;
+        } else {
+            nextStatus = attempt.order().getStatus();
+        }
+        return finish(attempt, response, nextStatus);
     }
 
-    @Transactional
-    public PaymentOrder cancel(UUID orderId) {
+    private CompletedAttempt completeAuthorize(PaymentAttempt attempt) {
 
-        PaymentOrder order = getOrder(orderId);
+        var response = call(attempt, () -> gateway.authorize(attempt.order()));
 
-        stateValidator.validate(order.getStatus(), PaymentAction.CANCEL);
+        return finish(attempt, response,
+                response.success()
+                        ? PaymentStatus.AUTHORIZED
+                        : PaymentStatus.FAILED);
+    }
 
-        String refTxnId = getLastSuccessfulGatewayTxnId(order);
+    /**
+     * Runs phase 1 on the caller's thread and queues the rest. Room on the
+     * worker pool is reserved first, so a full pool rejects the request
+     * before anything is written.
+     */
+    private PaymentOrder submit(PaymentAction action,
+                                Supplier<PaymentAttempt> phase,
+                                Function<PaymentAttempt, CompletedAttempt> completion) {
+
+        long start = System.nanoTime();
+        PaymentWorkers.Reservation reservation = null;
+        PaymentAttempt attempt;
+        try {
+            reservation = paymentWorkers.reserve();
+            attempt = begin(phase);
+        } catch (RuntimeException e) {
+            if (reservation != null) {
+                reservation.cancel();
+            }
+            metrics.recordOperation(action, PaymentMetrics.outcomeOf(e), System.nanoTime() - start);
+            throw e;
+        }
 
-        var response = gateway.cancel(order, refTxnId);
+        // The worker goes on to update the attempt's order, so answer with a copy
+        PaymentOrder accepted = PaymentOrder.builder()
+                .id(attempt.order().getId())
+                .amount(attempt.order().getAmount())
+                .currency(attempt.order().getCurrency())
+                .status(attempt.order().getStatus())
+                .createdAt(attempt.order().getCreatedAt())
+                .build();
+
+        reservation.submit(
+                () -> {
+                    try {
+                        timed(action, start, () -> completion.apply(attempt));
+                    } catch (GatewayUnavailableException e) {
+                        // Already recorded as a failed attempt; there is no caller to tell
+                    }
+                },
+                () -> timed(action, start, () -> abandon(attempt,
+                        new GatewayResponse(false, null,
+                                "Not processed within the maximum queue time", false, "QUEUE_TIMEOUT"))));
+
+        return accepted;
+    }
+
+    /**
+     * Records the end-to-end time of an operation, tagged with the gateway's
+     * answer or, when the operation did not complete, the kind of failure.
+     */
+    private PaymentOrder timed(PaymentAction action, Supplier<CompletedAttempt> operation) {
+        return timed(action, System.nanoTime(), operation);
+    }
+
+    private PaymentOrder timed(PaymentAction action, long start, Supplier<CompletedAttempt> operation) {
+        return measured(action, start, operation).order();
+    }
+
+    private CompletedAttempt measured(PaymentAction action, long start, Supplier<CompletedAttempt> operation) {
+        try {
+            CompletedAttempt completed = operation.get();
+            metrics.recordOperation(action,
+                    PaymentMetrics.outcomeOf(completed.response()), System.nanoTime() - start);
+            return completed;
+        } catch (RuntimeException e) {
+            metrics.recordOperation(action, PaymentMetrics.outcomeOf(e), System.nanoTime() - start);
+            throw e;
+        }
+    }
 
-        saveTransaction(order, TransactionType.CANCEL,
-                order.getAmount(),
-                response.transactionId(),
-                response.success());
 
-        order.setStatus(response.success()
-                ? PaymentStatus.CANCELLED
-                : PaymentStatus.FAILED);
 
+    private PaymentOrder createOrder(BigDecimal amount, String currency, PaymentAction action) {
+
+        PaymentOrder order = PaymentOrder.builder()
+                .amount(amount)
+                .currency(currency)
+                .status(PaymentStatus.CREATED)
+                .build();
+
+        claim(order, action);
         return orderRepository.save(order);
     }
 
+    private PaymentOrder getOrder(UUID orderId) {
+        return orderRepository.findById(orderId)
+                .orElseThrow(() ->
+                        new ResourceNotFoundException("Payment order not found"));
+    }
 
-    @Transactional
-    public PaymentOrder refund(UUID orderId, BigDecimal refundAmount) {
+    /**
+     * Runs phase 1 for an existing order while holding its in-process lock,
+     * so concurrent requests for the order on this node claim it one at a
+     * time and the loser is rejected by {@link #claim} without waiting on a
+     * database lock.
+     */
+    private PaymentAttempt begin(UUID orderId, Supplier<PaymentAttempt> phase) {
+        try (OrderLocks.Lease ignored = orderLocks.acquire(orderId)) {
+            return begin(phase);
+        }
+    }
 
-        PaymentOrder order = getOrder(orderId);
+    /**
+     * Runs phase 1 and, with the write-behind pipeline enabled, queues the
+     * PENDING insert once the order it references has been committed.
+     */
+    private PaymentAttempt begin(Supplier<PaymentAttempt> phase) {
 
-        stateValidator.validate(order.getStatus(), PaymentAction.REFUND);
+        long start = System.nanoTime();
+        PaymentAttempt attempt = transactionOperations.execute(status -> phase.get());
+        metrics.recordDb(attempt.action(), PaymentMetrics.DbPhase.BEGIN, System.nanoTime() - start);
 
-        String refTxnId = getLastSuccessfulGatewayTxnId(order);
+        return persist(attempt);
+    }
 
-        var response = gateway.refund(order, refTxnId, refundAmount);
+    /**
+     * Applies {@code action} to many existing orders. Orders are loaded and
+     * claimed a chunk at a time, one query and one transaction per chunk, and
+     * their gateway calls are spread over {@link BatchWorkers}, which bounds
+     * how many run at once and how fast they start. Each order's result is
+     * passed to {@code results} as soon as it is known, possibly from a
+     * worker thread; the returned future completes after the last one.
+     * With {@code skipLocked}, see {@link #claimAll}, orders another node
+     * holds are left out of the results.
+     */
+    private CompletableFuture<Void> runBatch(PaymentAction action,
+                                             List<UUID> orderIds,
+                                             boolean skipLocked,
+                                             Consumer<BatchResult> results,
+                                             Function<PaymentAttempt, CompletedAttempt> completion) {
+        return dispatchBatch(action, orderIds, skipLocked, results,
+                attempt -> batchWorkers.submit(() -> completion.apply(attempt)));
+    }
 
-        saveTransaction(order, TransactionType.REFUND,
-                refundAmount,
-                response.transactionId(),
-                response.success());
+    /**
+     * {@link #runBatch} with phases 2 and 3 of each claimed order started by
+     * {@code dispatch}.
+     */
+    private CompletableFuture<Void> dispatchBatch(PaymentAction action,
+                                                  List<UUID> orderIds,
+                                                  boolean skipLocked,
+                                                  Consumer<BatchResult> results,
+                                                  Function<PaymentAttempt, CompletableFuture<CompletedAttempt>> dispatch) {
+
+        List<UUID> distinct = List.copyOf(new LinkedHashSet<>(orderIds));
+        List<CompletableFuture<Void>> calls = new ArrayList<>(distinct.size());
+
+        for (int from = 0; from < distinct.size(); from += CLAIM_CHUNK_SIZE) {
+            List<UUID> chunk = distinct.subList(from, Math.min(from + CLAIM_CHUNK_SIZE, distinct.size()));
+            long start = System.nanoTime();
+
+            for (BatchClaim claim : claimAll(action, chunk, skipLocked)) {
+                if (claim.attempt() == null) {
+                    metrics.recordOperation(action,
+                            PaymentMetrics.outcomeOf(claim.rejection()), System.nanoTime() - start);
+                    results.accept(BatchResult.of(claim.orderId(), claim.status(), claim.rejection()));
+                } else {
+                    calls.add(dispatch.apply(claim.attempt())
+                            .handle((completed, failure) ->
+                                    completeClaimed(claim.attempt(), start, completed, failure))
+                            .thenAccept(results));
+                }
+            }
+        }
 
-        if (response.success()) {
-            order.setStatus(
-                    refundAmount.compareTo(order.getAmount()) < 0
-                            ? PaymentStatus.PARTIALLY_REFUNDED
-                            : PaymentStatus.REFUNDED
-            );
+        return CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Phase 1 for a chunk of a batch operation. The chunk's orders are loaded
+     * with one query and claimed in one transaction; orders the action cannot
+     * be applied to are reported without failing the rest. If another request
+     * changed one of the orders meanwhile, the commit fails as a whole and
+     * the chunk is claimed again one order at a time, so that only the
+     * contended order is rejected.
+     * <p>
+     * With {@code skipLocked} only orders with no operation in flight are
+     * loaded, locked with {@code FOR UPDATE SKIP LOCKED}: an order another
+     * node is claiming, or has claimed, is left to that node instead of
+     * failing this chunk's commit.
+     */
+    private List<BatchClaim> claimAll(PaymentAction action, List<UUID> orderIds, boolean skipLocked) {
+
+        long start = System.nanoTime();
+        List<BatchClaim> claims;
+        try {
+            claims = transactionOperations.execute(status -> {
+                List<PaymentOrder> loaded = skipLocked
+                        ? orderRepository.findIdleByIdSkipLocked(orderIds)
+                        : orderRepository.findAllById(orderIds);
+                Map<UUID, PaymentOrder> orders = loaded.stream()
+                        .collect(Collectors.toMap(PaymentOrder::getId, Function.identity()));
+
+                List<BatchClaim> chunk = new ArrayList<>(orderIds.size());
+                for (UUID orderId : orderIds) {
+                    if (skipLocked && !orders.containsKey(orderId)) {
+                        continue;
+                    }
+                    chunk.add(claimLoaded(action, orderId, orders.get(orderId)));
+                }
+                return chunk;
+            });
+        } catch (OptimisticLockingFailureException e) {
+            log.debug("Batch {} chunk hit a concurrent update, claiming its orders one by one", action, e);
+            return orderIds.stream().map(orderId -> claimOne(action, orderId)).toList();
         }
+        metrics.recordDb(action, PaymentMetrics.DbPhase.BEGIN, System.nanoTime() - start);
+
+        return claims.stream()
+                .map(claim -> {
+                    if (claim.attempt() == null) {
+                        return claim;
+                    }
+                    try {
+                        return BatchClaim.claimed(persist(claim.attempt()));
+                    } catch (RuntimeException e) {
+                        return BatchClaim.rejected(claim.orderId(), claim.attempt().order().getStatus(), e);
+                    }
+                })
+                .toList();
+    }
 
-        return orderRepository.save(order);
+    private BatchClaim claimLoaded(PaymentAction action, UUID orderId, PaymentOrder order) {
+
+        if (order == null) {
+            return BatchClaim.rejected(orderId, null,
+                    new ResourceNotFoundException("Payment order not found"));
+        }
+        try {
+            claim(order, action);
+        } catch (RuntimeException e) {
+            return BatchClaim.rejected(orderId, order.getStatus(), e);
+        }
+        try {
+            return BatchClaim.claimed(startAttempt(order, action, order.getAmount()));
+        } catch (RuntimeException e) {
+            // Leaves the order as it was loaded, so the chunk's commit does not touch it
+            order.setPendingAction(null);
+            return BatchClaim.rejected(orderId, order.getStatus(), e);
+        }
+    }
+
+    private BatchClaim claimOne(PaymentAction action, UUID orderId) {
+        try {
+            return BatchClaim.claimed(begin(orderId, () -> {
+                PaymentOrder order = getOrder(orderId);
+                claim(order, action);
+                return startAttempt(order, action, order.getAmount());
+            }));
+        } catch (RuntimeException e) {
+            return BatchClaim.rejected(orderId, null, e);
+        }
     }
 
+    /**
+     * Phases 2 and 3 of one order in a batch operation, reported rather than
+     * thrown since there is no caller to throw to.
+     */
+    private BatchResult completeClaimed(PaymentAttempt attempt,
+                                        long start,
+                                        CompletedAttempt completed,
+                                        Throwable failure) {
+        if (failure == null) {
+            metrics.recordOperation(attempt.action(),
+                    PaymentMetrics.outcomeOf(completed.response()), System.nanoTime() - start);
+            return BatchResult.of(completed.order(), completed.response());
+        }
+        if (!(unwrap(failure) instanceof RuntimeException e)) {
+            throw failure instanceof CompletionException c ? c : new CompletionException(failure);
+        }
+        metrics.recordOperation(attempt.action(), PaymentMetrics.outcomeOf(e), System.nanoTime() - start);
+        if (!(e instanceof GatewayUnavailableException)) {
+            log.error("Batch {} of order {} failed", attempt.action(), attempt.order().getId(), e);
+        }
+        return BatchResult.of(attempt.order().getId(), attempt.order().getStatus(), e);
+    }
 
+    /**
+     * With the write-behind pipeline enabled, queues the PENDING insert of an
+     * attempt whose phase 1 has committed.
+     */
+    private PaymentAttempt persist(PaymentAttempt attempt) {
 
-    private PaymentOrder createOrder(BigDecimal amount, String currency) {
-        return orderRepository.save(
-                PaymentOrder.builder()
-                        .amount(amount)
-                        .currency(currency)
-                        .status(PaymentStatus.CREATED)
-                        .build()
-        );
+        if (!transactionWriter.isEnabled()) {
+            return attempt;
+        }
+        try {
+            return attempt.persistedBy(transactionWriter.write(attempt.transaction()));
+        } catch (RuntimeException e) {
+            // No PENDING row for the recovery job to find, so release the claim here
+            transactionOperations.executeWithoutResult(status -> {
+                attempt.order().setPendingAction(null);
+                orderRepository.save(attempt.order());
+            });
+            throw e;
+        }
     }
 
-    private PaymentOrder getOrder(UUID orderId) {
-        return orderRepository.findById(orderId)
-                .orElseThrow(() ->
-                        new ResourceNotFoundException("Payment order not found"));
+    /**
+     * Validates the transition and marks the order as having an operation in
+     * flight. The resulting version bump makes a request racing from another
+     * node fail its commit with an optimistic locking error.
+     */
+    private void claim(PaymentOrder order, PaymentAction action) {
+
+        if (order.getPendingAction() != null) {
+            throw new ConcurrentPaymentException(
+                    "A " + order.getPendingAction() + " is already in progress for this order");
+        }
+
+        stateValidator.validate(order.getStatus(), action);
+        order.setPendingAction(action);
+    }
+
+    /**
+     * Rejects a refund that would take the order's refunded total past its
+     * captured total. Runs under the order's claim, so no other refund can
+     * change the totals until this attempt completes.
+     */
+    private void checkRefundable(PaymentOrder order, BigDecimal refundAmount) {
+
+        if (order.getCapturedAmount() == null) {
+            // Orders that predate the running totals were captured in full
+            order.setCapturedAmount(order.getAmount());
+        }
+        if (order.getRefundedAmount() == null) {
+            order.setRefundedAmount(order.getStatus() == PaymentStatus.PARTIALLY_REFUNDED
+                    ? transactionRepository.sumAmount(
+                            order, TransactionType.REFUND, TransactionStatus.SUCCESS)
+                    : BigDecimal.ZERO);
+        }
+
+        BigDecimal refundable = order.getCapturedAmount().subtract(order.getRefundedAmount());
+        if (refundAmount.compareTo(refundable) > 0) {
+            throw new InvalidPaymentStateException(
+                    "Refund amount exceeds refundable balance of " + refundable.toPlainString());
+        }
     }
 
-    private void saveTransaction(PaymentOrder order,
-                                 TransactionType type,
-                                 BigDecimal amount,
-                                 String gatewayTxnId,
-                                 boolean success) {
+    /**
+     * Phase 1: records the attempt as PENDING before the gateway is called, so
+     * a crash mid-flight leaves a trace the recovery job can resolve.
+     */
+    private PaymentAttempt startAttempt(PaymentOrder order,
+                                        PaymentAction action,
+                                        BigDecimal amount) {
+
+        TransactionType type = switch (action) {
+            case PURCHASE -> TransactionType.PURCHASE;
+            case AUTHORIZE -> TransactionType.AUTHORIZE;
+            case CAPTURE -> TransactionType.CAPTURE;
+            case CANCEL -> TransactionType.CANCEL;
+            case REFUND -> TransactionType.REFUND;
+        };
+
+        String refTxnId = switch (action) {
+            case CAPTURE, CANCEL, REFUND -> getLastSuccessfulGatewayTxnId(order);
+            default -> null;
+        };
 
         PaymentTransaction txn = PaymentTransaction.builder()
                 .paymentOrder(order)
                 .type(type)
                 .amount(amount)
-                .status(success
-                        ? TransactionStatus.SUCCESS
-                        : TransactionStatus.FAILED)
-                .gatewayTransactionId(gatewayTxnId)
+                .status(TransactionStatus.PENDING)
                 .build();
 
-        transactionRepository.save(txn);
+        if (!transactionWriter.isEnabled()) {
+            transactionRepository.save(txn);
+        }
+
+        return new PaymentAttempt(action, order, txn, refTxnId,
+                CompletableFuture.completedFuture(null));
+    }
+
+    /**
+     * Phase 2. When the gateway is rejected up front (circuit open, bulkhead
+     * full) the attempt is recorded as FAILED and the error propagated.
+     */
+    private GatewayResponse call(PaymentAttempt attempt, Supplier<GatewayResponse> request) {
+        try {
+            return metrics.recordGatewayCall(attempt.action(), request);
+        } catch (GatewayUnavailableException e) {
+            abandon(attempt, new GatewayResponse(false, null, e.getMessage(), false, e.getReason()));
+            throw e;
+        }
+    }
+
+    /**
+     * {@link #call} through the non-blocking gateway client.
+     */
+    private CompletableFuture<GatewayResponse> callAsync(PaymentAttempt attempt,
+                                                         Supplier<CompletableFuture<GatewayResponse>> request) {
+        return metrics.recordGatewayCallAsync(attempt.action(), request)
+                .whenComplete((response, failure) -> {
+                    if (unwrap(failure) instanceof GatewayUnavailableException e) {
+                        abandon(attempt, new GatewayResponse(false, null, e.getMessage(), false, e.getReason()));
+                    }
+                });
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+    }
+
+    /**
+     * Completes an attempt whose gateway call was never made. New orders are
+     * failed; follow-up operations leave the order state as it was so the
+     * client can retry.
+     */
+    private CompletedAttempt abandon(PaymentAttempt attempt, GatewayResponse response) {
+        PaymentStatus current = attempt.order().getStatus();
+        return finish(attempt, response,
+                current == PaymentStatus.CREATED ? PaymentStatus.FAILED : current);
+    }
+
+    private CompletedAttempt finish(PaymentAttempt attempt,
+                                    GatewayResponse response,
+                                    PaymentStatus nextStatus) {
+
+        long start = System.nanoTime();
+        boolean persisted = awaitPersisted(attempt);
+
+        PaymentOrder order = transactionOperations.execute(status ->
+                completeAttempt(attempt, persisted, response, nextStatus));
+        metrics.recordDb(attempt.action(), PaymentMetrics.DbPhase.FINISH, System.nanoTime() - start);
+
+        return new CompletedAttempt(order, response);
+    }
+
+    private boolean awaitPersisted(PaymentAttempt attempt) {
+        try {
+            attempt.persisted().join();
+            return true;
+        } catch (CompletionException e) {
+            log.warn("Write-behind insert failed for order {}, recording attempt directly",
+                    attempt.order().getId(), e.getCause());
+            return false;
+        }
+    }
+
+    /**
+     * Phase 3: applies the gateway outcome to the attempt and the order. A
+     * status change is recorded in the outbox in the same transaction and
+     * published as a {@link PaymentStatusChanged} event.
+     */
+    private PaymentOrder completeAttempt(PaymentAttempt attempt,
+                                         boolean persisted,
+                                         GatewayResponse response,
+                                         PaymentStatus nextStatus) {
+
+        TransactionStatus outcome = response.success()
+                ? TransactionStatus.SUCCESS
+                : TransactionStatus.FAILED;
+
+        if (persisted) {
+            transactionRepository.completeAttempt(
+                    attempt.transaction().getId(), outcome, response.transactionId());
+        } else {
+            PaymentTransaction txn = attempt.transaction();
+            transactionRepository.save(
+                    PaymentTransaction.builder()
+                            .paymentOrder(txn.getPaymentOrder())
+                            .type(txn.getType())
+                            .amount(txn.getAmount())
+                            .status(outcome)
+                            .gatewayTransactionId(response.transactionId())
+                            .build());
+        }
+
+        PaymentOrder order = attempt.order();
+        PaymentStatus previousStatus = order.getStatus();
+        order.setStatus(nextStatus);
+        order.setPendingAction(null);
+
+        if (response.success() && isReferenceable(attempt.transaction().getType())) {
+            order.setLastSuccessfulGatewayTxnId(response.transactionId());
+        }
+
+        if (response.success()) {
+            applyAmount(order, attempt.transaction());
+        }
+
+        PaymentOrder saved = orderRepository.save(order);
+        if (saved.getStatus() != previousStatus) {
+            outbox.recordStatusChange(saved, previousStatus);
+            eventPublisher.publishEvent(PaymentStatusChanged.of(saved, previousStatus));
+        }
+        return saved;
+    }
+
+    private static void applyAmount(PaymentOrder order, PaymentTransaction txn) {
+        switch (txn.getType()) {
+            case PURCHASE, CAPTURE -> order.setCapturedAmount(txn.getAmount());
+            case REFUND -> order.setRefundedAmount(order.getRefundedAmount().add(txn.getAmount()));
+            default -> {
+            }
+        }
+    }
+
+    private static boolean isReferenceable(TransactionType type) {
+        return type == TransactionType.PURCHASE
+                || type == TransactionType.AUTHORIZE
+                || type == TransactionType.CAPTURE;
     }
 
     private String getLastSuccessfulGatewayTxnId(PaymentOrder order) {
 
+        if (order.getLastSuccessfulGatewayTxnId() != null) {
+            return order.getLastSuccessfulGatewayTxnId();
+        }
+
+        // Orders that predate the denormalized pointer
         return transactionRepository
                 .findTopByPaymentOrderAndStatusOrderByCreatedAtDesc(
                         order, TransactionStatus.SUCCESS
@@ -192,5 +787,36 @@ public class PaymentService {
                         ));
     }
 
-}
+    private record PaymentAttempt(PaymentAction action,
+                                  PaymentOrder order,
+                                  PaymentTransaction transaction,
+                                  String refTxnId,
+                                  CompletableFuture<Void> persisted) {
+
+        PaymentAttempt persistedBy(CompletableFuture<Void> insert) {
+            return new PaymentAttempt(action, order, transaction, refTxnId, insert);
+        }
+    }
 
+    private record CompletedAttempt(PaymentOrder order, GatewayResponse response) {
+    }
+
+    /**
+     * An order of a batch operation after phase 1: either claimed, with its
+     * attempt, or rejected, with the reason and the order's status if known.
+     */
+    private record BatchClaim(UUID orderId,
+                              PaymentAttempt attempt,
+                              PaymentStatus status,
+                              RuntimeException rejection) {
+
+        static BatchClaim claimed(PaymentAttempt attempt) {
+            return new BatchClaim(attempt.order().getId(), attempt, null, null);
+        }
+
+        static BatchClaim rejected(UUID orderId, PaymentStatus status, RuntimeException rejection) {
+            return new BatchClaim(orderId, null, status, rejection);
+        }
+    }
+
+}
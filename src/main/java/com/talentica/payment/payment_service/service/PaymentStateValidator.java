@@ -1,52 +1,75 @@
 package com.talentica.payment.payment_service.service;
 
+import com.talentica.payment.payment_service.config.PaymentProperties;
 import com.talentica.payment.payment_service.domain.enums.PaymentAction;
 import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
 import com.talentica.payment.payment_service.exception.InvalidPaymentStateException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Decides whether an action may start from an order's current status.
+ * <p>
+ * The rules come from {@code payment.state-machine.allowed-from} and are
+ * compiled into one bit mask of allowed statuses per action (a bit per
+ * status ordinal, so up to 64 statuses), making a check an array read and a
+ * bit test. Rejection messages are built once as well; the default rules
+ * keep the wording clients have always been given.
+ */
 @Component
 public class PaymentStateValidator {
 
-    public void validate(PaymentStatus currentStatus, PaymentAction action) {
-        switch (action) {
-            case PURCHASE -> {
-                if (currentStatus != PaymentStatus.CREATED) {
-                    throw new InvalidPaymentStateException(
-                            "Purchase allowed only in CREATED state"
-                    );
-                }
-            }
-            case AUTHORIZE -> {
-                if (currentStatus != PaymentStatus.CREATED) {
-                    throw new InvalidPaymentStateException(
-                            "Authorize allowed only in CREATED state"
-                    );
-                }
-            }
-            case CAPTURE -> {
-                if (currentStatus != PaymentStatus.AUTHORIZED) {
-                    throw new InvalidPaymentStateException(
-                            "Capture allowed only in AUTHORIZED state"
-                    );
-                }
-            }
-            case CANCEL -> {
-                if (currentStatus != PaymentStatus.AUTHORIZED) {
-                    throw new InvalidPaymentStateException(
-                            "Cancel allowed only in AUTHORIZED state"
-                    );
-                }
+    private static final Set<PaymentStatus> REFUNDABLE =
+            EnumSet.of(PaymentStatus.CAPTURED, PaymentStatus.PARTIALLY_REFUNDED);
+
+    private final long[] allowed = new long[PaymentAction.values().length];
+    private final String[] rejections = new String[PaymentAction.values().length];
+
+    public PaymentStateValidator() {
+        this(new PaymentProperties());
+    }
+
+    @Autowired
+    public PaymentStateValidator(PaymentProperties properties) {
+
+        Map<PaymentAction, Set<PaymentStatus>> allowedFrom = properties.getStateMachine().getAllowedFrom();
+        for (PaymentAction action : PaymentAction.values()) {
+            Set<PaymentStatus> statuses = allowedFrom.get(action);
+            if (statuses == null || statuses.isEmpty()) {
+                throw new IllegalStateException(
+                        "payment.state-machine.allowed-from has no status for " + action);
             }
-            case REFUND -> {
-                if (currentStatus != PaymentStatus.CAPTURED
-                        && currentStatus != PaymentStatus.PARTIALLY_REFUNDED) {
-                    throw new InvalidPaymentStateException(
-                            "Refund allowed only after CAPTURE"
-                    );
-                }
+            for (PaymentStatus status : statuses) {
+                allowed[action.ordinal()] |= 1L << status.ordinal();
             }
+            rejections[action.ordinal()] = rejection(action, statuses);
+        }
+    }
+
+    public boolean isAllowed(PaymentStatus currentStatus, PaymentAction action) {
+        return (allowed[action.ordinal()] & (1L << currentStatus.ordinal())) != 0;
+    }
+
+    public void validate(PaymentStatus currentStatus, PaymentAction action) {
+        if (!isAllowed(currentStatus, action)) {
+            throw new InvalidPaymentStateException(rejections[action.ordinal()]);
         }
     }
-}
 
+    private static String rejection(PaymentAction action, Set<PaymentStatus> statuses) {
+        if (action == PaymentAction.REFUND && REFUNDABLE.equals(statuses)) {
+            return "Refund allowed only after CAPTURE";
+        }
+        String name = action.name();
+        return name.charAt(0) + name.substring(1).toLowerCase(Locale.ROOT)
+                + " allowed only in "
+                + statuses.stream().sorted().map(Enum::name).collect(Collectors.joining(" or "))
+                + " state";
+    }
+}
@@ -0,0 +1,178 @@
+package com.talentica.payment.payment_service.service;
+
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import com.talentica.payment.payment_service.domain.entity.PaymentTransaction;
+import com.talentica.payment.payment_service.repository.PaymentTransactionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional write-behind pipeline for {@link PaymentTransaction} audit rows.
+ * <p>
+ * Inserts submitted by concurrent requests are queued and written by a
+ * single thread in multi-row JDBC batches, one database transaction per
+ * batch. A batch is flushed once it reaches {@code batch-size} rows or its
+ * first row has waited {@code linger}, whichever comes first.
+ * <p>
+ * With {@code SYNC} durability the caller waits until its row is committed
+ * (group commit). With {@code ASYNC} it continues immediately and overlaps
+ * the insert with the gateway call, at the cost of losing the PENDING
+ * record if the node crashes before the batch commits; the order's claim is
+ * then released by {@link PendingTransactionRecoveryJob}. When the queue is
+ * full the caller writes its own row, so backpressure never drops data.
+ */
+@Slf4j
+@Component
+public class PaymentTransactionWriter {
+
+    private final PaymentTransactionRepository transactionRepository;
+    private final TransactionOperations transactionOperations;
+    private final PaymentProperties.AuditWriter settings;
+    private final BlockingQueue<PendingInsert> queue;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public PaymentTransactionWriter(PaymentTransactionRepository transactionRepository,
+                                    TransactionOperations transactionOperations,
+                                    PaymentProperties properties) {
+        this.transactionRepository = transactionRepository;
+        this.transactionOperations = transactionOperations;
+        this.settings = properties.getAuditWriter();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, settings.getQueueCapacity()));
+    }
+
+    @PostConstruct
+    void start() {
+        if (settings.isEnabled()) {
+            running = true;
+            writerThread = Thread.ofPlatform()
+                    .name("payment-txn-writer")
+                    .daemon()
+                    .start(this::drain);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    public boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    /**
+     * Queues an insert. The returned future completes once the row is
+     * committed; with SYNC durability that has already happened on return.
+     */
+    public CompletableFuture<Void> write(PaymentTransaction txn) {
+
+        PendingInsert insert = new PendingInsert(txn, new CompletableFuture<>());
+
+        if (!enqueue(insert)) {
+            transactionOperations.executeWithoutResult(status ->
+                    transactionRepository.save(txn));
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (settings.getDurability() == PaymentProperties.Durability.SYNC) {
+            try {
+                insert.committed().join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        return insert.committed();
+    }
+
+    private boolean enqueue(PendingInsert insert) {
+        try {
+            return running && queue.offer(insert,
+                    settings.getEnqueueTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void drain() {
+
+        int batchSize = settings.getBatchSize();
+        long lingerNanos = settings.getLinger().toNanos();
+        List<PendingInsert> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingInsert first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingInsert next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                flush(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingInsert> batch) {
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionOperations.executeWithoutResult(status ->
+                    transactionRepository.saveAll(
+                            batch.stream().map(PendingInsert::transaction).toList()));
+
+            batch.forEach(insert -> insert.committed().complete(null));
+
+        } catch (RuntimeException e) {
+            log.error("Failed to write batch of {} payment transactions", batch.size(), e);
+            batch.forEach(insert -> insert.committed().completeExceptionally(e));
+        }
+    }
+
+    private record PendingInsert(PaymentTransaction transaction,
+                                 CompletableFuture<Void> committed) {
+    }
+}
@@ -0,0 +1,117 @@
+package com.talentica.payment.payment_service.service;
+
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import com.talentica.payment.payment_service.exception.GatewayUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded pool that runs the gateway call and completion of payments
+ * submitted asynchronously.
+ * <p>
+ * Room in the pool (threads plus queue) is reserved before the order is
+ * created, so a submission is either accepted with a place to run or
+ * rejected up front with nothing persisted. Work that waits in the queue
+ * longer than {@code max-queue-time} is handed to its expiry action
+ * instead, so it cannot race {@link PendingTransactionRecoveryJob} for the
+ * same attempt.
+ */
+@Slf4j
+@Component
+public class PaymentWorkers {
+
+    /**
+     * A reserved place in the pool; exactly one of its methods must be called.
+     */
+    public interface Reservation {
+
+        /**
+         * Queues {@code task}, or runs {@code expired} in its place if the
+         * task has not started within the maximum queue time.
+         */
+        void submit(Runnable task, Runnable expired);
+
+        void cancel();
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore capacity;
+    private final long maxQueueNanos;
+    private final long shutdownTimeoutMillis;
+
+    public PaymentWorkers(PaymentProperties properties, MeterRegistry meterRegistry) {
+        PaymentProperties.AsyncWorkers settings = properties.getAsyncWorkers();
+
+        // The semaphore bounds the queue, so the queue itself need not be
+        this.executor = new ThreadPoolExecutor(
+                settings.getPoolSize(), settings.getPoolSize(),
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                Thread.ofPlatform().name("payment-worker-", 0).factory());
+        this.capacity = new Semaphore(settings.getPoolSize() + settings.getQueueCapacity());
+        this.maxQueueNanos = settings.getMaxQueueTime().toNanos();
+        this.shutdownTimeoutMillis = settings.getShutdownTimeout().toMillis();
+
+        new ExecutorServiceMetrics(executor, "payment.workers", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * @throws GatewayUnavailableException if the pool and its queue are full
+     */
+    public Reservation reserve() {
+
+        if (!capacity.tryAcquire()) {
+            throw new GatewayUnavailableException("WORKERS_BUSY",
+                    "Too many payments in progress, try again later");
+        }
+
+        return new Reservation() {
+
+            @Override
+            public void submit(Runnable task, Runnable expired) {
+                long queuedAt = System.nanoTime();
+                executor.execute(() -> {
+                    try {
+                        if (System.nanoTime() - queuedAt > maxQueueNanos) {
+                            expired.run();
+                        } else {
+                            task.run();
+                        }
+                    } catch (RuntimeException e) {
+                        // The attempt stays PENDING for the recovery job
+                        log.error("Asynchronous payment failed", e);
+                    } finally {
+                        capacity.release();
+                    }
+                });
+            }
+
+            @Override
+            public void cancel() {
+                capacity.release();
+            }
+        };
+    }
+
+    /**
+     * Lets queued work drain for a while; anything still unfinished is
+     * resolved by the recovery job.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            log.warn("{} asynchronous payments still queued at shutdown", executor.getQueue().size());
+            executor.shutdownNow();
+        }
+    }
+}
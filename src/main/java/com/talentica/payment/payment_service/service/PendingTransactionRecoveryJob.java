@@ -0,0 +1,104 @@
+package com.talentica.payment.payment_service.service;
+
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.domain.entity.PaymentTransaction;
+import com.talentica.payment.payment_service.domain.enums.PaymentAction;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import com.talentica.payment.payment_service.domain.enums.TransactionStatus;
+import com.talentica.payment.payment_service.domain.event.PaymentStatusChanged;
+import com.talentica.payment.payment_service.outbox.PaymentOutbox;
+import com.talentica.payment.payment_service.repository.PaymentOrderRepository;
+import com.talentica.payment.payment_service.repository.PaymentTransactionRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Resolves attempts that were recorded as PENDING but never finalized,
+ * typically because the node crashed while the gateway call was in flight.
+ * <p>
+ * The gateway outcome of such an attempt is unknown, so it is marked FAILED
+ * and logged for reconciliation. An order that never left CREATED may still
+ * have been charged or authorized, so it is parked as NEEDS_RECONCILIATION
+ * rather than announced as failed; follow-up operations leave the order
+ * state untouched so the client can retry. Either way the order's in-flight
+ * claim is released.
+ * <p>
+ * With the write-behind pipeline ({@code payment.audit-writer}) the PENDING
+ * row is written after the claim commits and can be lost with the node, so
+ * claims older than the same timeout with no PENDING row are released the
+ * same way.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PendingTransactionRecoveryJob {
+
+    private final PaymentTransactionRepository transactionRepository;
+    private final PaymentOrderRepository orderRepository;
+    private final PaymentProperties properties;
+    private final PaymentOutbox outbox;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Scheduled(fixedDelayString = "${payment.recovery.interval:PT1M}")
+    @Transactional
+    public void recoverStaleAttempts() {
+
+        PaymentProperties.Recovery recovery = properties.getRecovery();
+        Instant cutoff = Instant.now().minus(recovery.getPendingTimeout());
+
+        List<PaymentTransaction> stale = transactionRepository.findByStatusAndCreatedAtBefore(
+                TransactionStatus.PENDING,
+                cutoff,
+                PageRequest.of(0, recovery.getBatchSize(), Sort.by("createdAt"))
+        );
+
+        for (PaymentTransaction txn : stale) {
+
+            txn.setStatus(TransactionStatus.FAILED);
+            txn.setRawResponse("No gateway result recorded before " + cutoff);
+
+            PaymentOrder order = txn.getPaymentOrder();
+            release(order);
+
+            log.warn("Resolved stale {} attempt {} for order {} ({}) as FAILED; reconcile with gateway",
+                    txn.getType(), txn.getId(), order.getId(), order.getStatus());
+        }
+
+        // Claims whose PENDING row was queued to the write-behind pipeline
+        // but lost before its batch committed
+        List<PaymentOrder> orphaned = orderRepository.findClaimedWithoutAttempt(
+                TransactionStatus.PENDING,
+                cutoff,
+                PageRequest.of(0, recovery.getBatchSize())
+        );
+
+        for (PaymentOrder order : orphaned) {
+
+            PaymentAction action = order.getPendingAction();
+            release(order);
+
+            log.warn("Released stale {} claim with no recorded attempt for order {} ({}); reconcile with gateway",
+                    action, order.getId(), order.getStatus());
+        }
+    }
+
+    private void release(PaymentOrder order) {
+
+        if (order.getStatus() == PaymentStatus.CREATED) {
+            order.setStatus(PaymentStatus.NEEDS_RECONCILIATION);
+            outbox.recordStatusChange(order, PaymentStatus.CREATED);
+            eventPublisher.publishEvent(PaymentStatusChanged.of(order, PaymentStatus.CREATED));
+        }
+        order.setPendingAction(null);
+    }
+}
@@ -0,0 +1,94 @@
+package com.talentica.payment.payment_service.service;
+
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import com.talentica.payment.payment_service.repository.OrderKey;
+import com.talentica.payment.payment_service.repository.PaymentOrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Voids authorizations that were never captured within
+ * {@code payment.auto-void.ttl}, releasing the cardholder's funds. Off
+ * unless {@code payment.auto-void.enabled} is set.
+ * <p>
+ * Stale orders are read a page at a time, by key on (status, created_at),
+ * and voided through {@link PaymentService#voidStale}, which shares the
+ * batch workers' concurrency and rate limits. The next page is only read
+ * once the previous one has completed, so at most one page is in flight.
+ * A run stops early if the gateway turns calls away, leaving the rest for
+ * the next run. A void that fails without a decline leaves the order
+ * AUTHORIZED, so a later run tries it again.
+ * <p>
+ * Several nodes may run the job at once: each page is claimed with
+ * {@code FOR UPDATE SKIP LOCKED}, so an order is voided by whichever node
+ * claims it first and skipped by the others.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StaleAuthorizationVoidJob {
+
+    private static final String VOIDED = "VOIDED";
+
+    private final PaymentOrderRepository orderRepository;
+    private final PaymentService paymentService;
+    private final PaymentProperties properties;
+
+    @Scheduled(fixedDelayString = "${payment.auto-void.interval:PT15M}")
+    public void voidStaleAuthorizations() {
+
+        PaymentProperties.AutoVoid settings = properties.getAutoVoid();
+        if (!settings.isEnabled()) {
+            return;
+        }
+
+        Instant cutoff = Instant.now().minus(settings.getTtl());
+        Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        OrderKey after = OrderKey.START;
+        int seen = 0;
+
+        while (seen < settings.getMaxPerRun()) {
+
+            List<OrderKey> page = orderRepository.findIdleCreatedBefore(
+                    PaymentStatus.AUTHORIZED, cutoff, after.createdAt(), after.id(),
+                    PageRequest.of(0, Math.min(settings.getPageSize(), settings.getMaxPerRun() - seen)));
+            if (page.isEmpty()) {
+                break;
+            }
+
+            paymentService.voidStale(page.stream().map(OrderKey::id).toList(), result -> {
+                if (result.error() != null) {
+                    log.warn("Auto-void of order {} not applied: {} {}",
+                            result.orderId(), result.error(), result.message());
+                }
+                outcomes.computeIfAbsent(Objects.requireNonNullElse(result.error(), VOIDED),
+                        key -> new LongAdder()).increment();
+            }).join();
+
+            seen += page.size();
+            after = page.getLast();
+
+            if (outcomes.containsKey("GATEWAY_UNAVAILABLE")) {
+                log.warn("Payment gateway unavailable, leaving remaining stale authorizations for the next run");
+                break;
+            }
+        }
+
+        if (seen > 0) {
+            log.info("Auto-void processed {} authorizations created before {}: {}",
+                    seen, cutoff, new TreeMap<>(outcomes));
+        }
+    }
+}
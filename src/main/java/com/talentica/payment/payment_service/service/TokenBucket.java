@@ -0,0 +1,69 @@
+package com.talentica.payment.payment_service.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Paces callers to {@code permitsPerSecond} on average while letting up to
+ * {@code burst} of them through back to back after a quiet period.
+ * <p>
+ * Callers are served in arrival order: each one takes the next token, going
+ * into debt if the bucket is empty, and sleeps until that token would have
+ * been refilled. No caller waits longer than the queue ahead of it requires.
+ */
+class TokenBucket {
+
+    private final double nanosPerPermit;
+    private final int burst;
+    private final LongSupplier nanoClock;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    TokenBucket(double permitsPerSecond, int burst, LongSupplier nanoClock) {
+        this.nanosPerPermit = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        this.burst = Math.max(1, burst);
+        this.nanoClock = nanoClock;
+        this.tokens = this.burst;
+        this.refilledAt = nanoClock.getAsLong();
+    }
+
+    /**
+     * Blocks until the caller may proceed. An interrupt ends the wait early
+     * and is left set on the thread.
+     */
+    void acquire() {
+        long wait = reserve();
+        if (wait == 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Takes a token and returns how many nanoseconds the caller must wait
+     * before using it.
+     */
+    long reserve() {
+        lock.lock();
+        try {
+            long now = nanoClock.getAsLong();
+            tokens = Math.min(burst, tokens + (now - refilledAt) / nanosPerPermit);
+            refilledAt = now;
+            tokens -= 1;
+            return tokens >= 0 ? 0 : (long) Math.ceil(-tokens * nanosPerPermit);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.talentica.payment.payment_service.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import com.talentica.payment.payment_service.domain.event.PaymentStatusChanged;
+import com.talentica.payment.payment_service.dto.response.PaymentResponse;
+import com.talentica.payment.payment_service.exception.SubscriptionLimitException;
+import com.talentica.payment.payment_service.repository.PaymentOrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent event subscriptions to order status changes.
+ * <p>
+ * Changes are fanned out after their transaction commits, so subscribers
+ * never see a status that was rolled back. The committing thread only
+ * serializes the update once and offers it to the bounded queue of each
+ * matching subscriber; writes to the connections happen on virtual threads,
+ * one drain at a time per subscriber so its updates stay in order. A
+ * subscriber whose queue is full is too slow to keep up and is disconnected
+ * rather than buffered without limit; it can reconnect and start again from
+ * the current state.
+ * <p>
+ * Subscribers filtering by order ID are indexed by it, so an update is
+ * offered only to those subscribers and the ones watching every order.
+ * They also receive the current state of their orders first, unless an
+ * update for the order has already arrived.
+ */
+@Slf4j
+@Component
+public class PaymentSubscriptions {
+
+    static final String EVENT_NAME = "payment";
+    // Queued like an update, so a connection that cannot take it is dropped too
+    private static final String HEARTBEAT = "";
+
+    private final PaymentOrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+    private final PaymentProperties.Stream settings;
+    private final Counter evictions;
+
+    private final Map<UUID, Set<Subscriber>> byOrder = new ConcurrentHashMap<>();
+    private final Set<Subscriber> allOrders = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger count = new AtomicInteger();
+    private final Executor senders;
+
+    @Autowired
+    public PaymentSubscriptions(PaymentOrderRepository orderRepository,
+                                ObjectMapper objectMapper,
+                                PaymentProperties properties,
+                                MeterRegistry registry) {
+        this(orderRepository, objectMapper, properties, registry,
+                Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    PaymentSubscriptions(PaymentOrderRepository orderRepository,
+                         ObjectMapper objectMapper,
+                         PaymentProperties properties,
+                         MeterRegistry registry,
+                         Executor senders) {
+        this.orderRepository = orderRepository;
+        this.senders = senders;
+        this.objectMapper = objectMapper;
+        this.settings = properties.getStream();
+        this.evictions = Counter.builder("payment.stream.evictions")
+                .description("Status stream subscribers disconnected for falling behind")
+                .register(registry);
+        Gauge.builder("payment.stream.subscribers", count, AtomicInteger::get)
+                .description("Open status stream connections")
+                .register(registry);
+    }
+
+    /**
+     * Opens a subscription. Empty filters match everything.
+     *
+     * @throws SubscriptionLimitException if {@code max-subscribers} are already connected
+     */
+    public SseEmitter subscribe(Set<UUID> orderIds, Set<PaymentStatus> statuses) {
+
+        if (count.incrementAndGet() > settings.getMaxSubscribers()) {
+            count.decrementAndGet();
+            throw new SubscriptionLimitException(
+                    "Too many open status streams, retry later");
+        }
+
+        SseEmitter emitter = new SseEmitter(settings.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(orderIds),
+                statuses.isEmpty() ? EnumSet.allOf(PaymentStatus.class) : EnumSet.copyOf(statuses),
+                settings.getQueueCapacity());
+
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        register(subscriber);
+
+        if (!subscriber.orderIds.isEmpty()) {
+            for (PaymentOrder order : orderRepository.findAllById(subscriber.orderIds)) {
+                if (!subscriber.updated.contains(order.getId())
+                        && subscriber.statuses.contains(order.getStatus())) {
+                    subscriber.offer(frame(new PaymentResponse(
+                            order.getId(), order.getStatus(), order.getAmount(), order.getCurrency())));
+                }
+            }
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatusChanged(PaymentStatusChanged event) {
+
+        Set<Subscriber> watching = byOrder.getOrDefault(event.orderId(), Set.of());
+        if (watching.isEmpty() && allOrders.isEmpty()) {
+            return;
+        }
+
+        String frame = frame(new PaymentResponse(
+                event.orderId(), event.status(), event.amount(), event.currency()));
+        for (Subscriber subscriber : watching) {
+            subscriber.updated.add(event.orderId());
+            if (subscriber.statuses.contains(event.status())) {
+                subscriber.offer(frame);
+            }
+        }
+        for (Subscriber subscriber : allOrders) {
+            if (subscriber.statuses.contains(event.status())) {
+                subscriber.offer(frame);
+            }
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies, and finds connections
+     * closed by clients, which only fail on the next write.
+     */
+    @Scheduled(fixedDelayString = "${payment.stream.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(HEARTBEAT);
+        }
+    }
+
+    int subscriberCount() {
+        return count.get();
+    }
+
+    /**
+     * Ends the streams when shutdown starts, since graceful shutdown would
+     * otherwise wait for them as requests still in progress.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void closeAll() {
+        subscribers.forEach(Subscriber::close);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (senders instanceof ExecutorService executor) {
+            executor.shutdown();
+        }
+    }
+
+    private void register(Subscriber subscriber) {
+        subscribers.add(subscriber);
+        if (subscriber.orderIds.isEmpty()) {
+            allOrders.add(subscriber);
+        } else {
+            for (UUID orderId : subscriber.orderIds) {
+                // Added inside compute, so a concurrent unregister cannot drop the set under it
+                byOrder.compute(orderId, (id, watching) -> {
+                    Set<Subscriber> set = watching != null ? watching : ConcurrentHashMap.<Subscriber>newKeySet();
+                    set.add(subscriber);
+                    return set;
+                });
+            }
+        }
+    }
+
+    private void unregister(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        count.decrementAndGet();
+        allOrders.remove(subscriber);
+        for (UUID orderId : subscriber.orderIds) {
+            byOrder.computeIfPresent(orderId, (id, watching) -> {
+                watching.remove(subscriber);
+                return watching.isEmpty() ? null : watching;
+            });
+        }
+    }
+
+    private String frame(PaymentResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final class Subscriber {
+
+        final SseEmitter emitter;
+        final Set<UUID> orderIds;
+        final Set<PaymentStatus> statuses;
+        // Orders with an update already queued, whose snapshot would be older
+        final Set<UUID> updated = ConcurrentHashMap.newKeySet();
+
+        private final BlockingQueue<String> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, Set<UUID> orderIds, Set<PaymentStatus> statuses, int capacity) {
+            this.emitter = emitter;
+            this.orderIds = orderIds;
+            this.statuses = statuses;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void offer(String frame) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(frame)) {
+                evictions.increment();
+                log.debug("Status stream subscriber fell {} updates behind, disconnecting", queue.size());
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        /**
+         * Sends everything queued. The flag is rechecked after it is cleared,
+         * since a frame offered in between would otherwise wait for the next one.
+         */
+        private void drain() {
+            do {
+                String frame;
+                while (!closed.get() && (frame = queue.poll()) != null) {
+                    try {
+                        emitter.send(frame == HEARTBEAT
+                                ? SseEmitter.event().comment("keep-alive")
+                                : SseEmitter.event().name(EVENT_NAME).data(frame));
+                    } catch (IOException | IllegalStateException e) {
+                        log.debug("Status stream subscriber gone: {}", e.toString());
+                        close();
+                    }
+                }
+                draining.set(false);
+            } while (!closed.get() && !queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                queue.clear();
+                unregister(this);
+                emitter.complete();
+            }
+        }
+    }
+}
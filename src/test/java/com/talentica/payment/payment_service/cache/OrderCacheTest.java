@@ -0,0 +1,150 @@
+package com.talentica.payment.payment_service.cache;
+
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import com.talentica.payment.payment_service.domain.event.PaymentStatusChanged;
+import com.talentica.payment.payment_service.dto.response.PaymentResponse;
+import com.talentica.payment.payment_service.exception.ResourceNotFoundException;
+import com.talentica.payment.payment_service.repository.PaymentOrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderCacheTest {
+
+    @Mock
+    private PaymentOrderRepository orderRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PaymentProperties properties = new PaymentProperties();
+
+    private OrderCache cache(OrderInvalidationChannel channel) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(
+                channel != null ? Map.of("channel", channel) : Map.of());
+        return new OrderCache(orderRepository, properties, meterRegistry,
+                beans.getBeanProvider(OrderInvalidationChannel.class));
+    }
+
+    private PaymentOrder stored(PaymentStatus status) {
+        PaymentOrder order = PaymentOrder.builder()
+                .id(UUID.randomUUID())
+                .amount(new BigDecimal("10.00"))
+                .currency("USD")
+                .status(status)
+                .build();
+        when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+        return order;
+    }
+
+    private static PaymentStatusChanged captured(PaymentOrder order) {
+        return new PaymentStatusChanged(order.getId(), PaymentStatus.AUTHORIZED,
+                PaymentStatus.CAPTURED, order.getAmount(), order.getCurrency());
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tags("cache", OrderCache.NAME, "result", result)
+                .functionCounter().count();
+    }
+
+    private double remoteInvalidations() {
+        return meterRegistry.get("payment.orders.invalidations").tags("source", "remote").counter().count();
+    }
+
+    @Test
+    void get_shouldReadOrderOnce_andCountHitsAndMisses() {
+
+        OrderCache cache = cache(null);
+        PaymentOrder order = stored(PaymentStatus.AUTHORIZED);
+
+        PaymentResponse first = cache.get(order.getId());
+        PaymentResponse second = cache.get(order.getId());
+
+        assertEquals(PaymentStatus.AUTHORIZED, second.status());
+        assertSame(first, second);
+        verify(orderRepository, times(1)).findById(order.getId());
+        assertEquals(1.0, gets("hit"));
+        assertEquals(1.0, gets("miss"));
+    }
+
+    @Test
+    void statusChange_shouldEvictOrder() {
+
+        OrderCache cache = cache(null);
+        PaymentOrder order = stored(PaymentStatus.AUTHORIZED);
+        cache.get(order.getId());
+
+        order.setStatus(PaymentStatus.CAPTURED);
+        cache.onStatusChanged(captured(order));
+
+        assertEquals(PaymentStatus.CAPTURED, cache.get(order.getId()).status());
+        verify(orderRepository, times(2)).findById(order.getId());
+    }
+
+    @Test
+    void get_shouldNotCacheMissingOrder() {
+
+        OrderCache cache = cache(null);
+        UUID orderId = UUID.randomUUID();
+        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> cache.get(orderId));
+        assertThrows(ResourceNotFoundException.class, () -> cache.get(orderId));
+        verify(orderRepository, times(2)).findById(orderId);
+    }
+
+    @Test
+    void statusChange_shouldEvictOrderOnOtherNodes() {
+
+        InMemoryOrderInvalidationChannel channel = new InMemoryOrderInvalidationChannel();
+        OrderCache committing = cache(channel);
+        OrderCache other = cache(channel);
+        PaymentOrder order = stored(PaymentStatus.AUTHORIZED);
+        other.get(order.getId());
+
+        order.setStatus(PaymentStatus.CAPTURED);
+        committing.onStatusChanged(captured(order));
+
+        assertEquals(PaymentStatus.CAPTURED, other.get(order.getId()).status());
+        assertEquals(1.0, remoteInvalidations());
+    }
+
+    @Test
+    void statusChange_shouldIgnoreOwnInvalidation_echoedByChannel() {
+
+        OrderCache cache = cache(new InMemoryOrderInvalidationChannel());
+        PaymentOrder order = stored(PaymentStatus.AUTHORIZED);
+        cache.get(order.getId());
+
+        cache.onStatusChanged(captured(order));
+
+        assertEquals(0.0, remoteInvalidations());
+        assertEquals(1.0, meterRegistry.get("payment.orders.invalidations")
+                .tags("source", "local").counter().count());
+    }
+
+    @Test
+    void disabledCache_shouldReadEveryTime() {
+
+        properties.getOrderCache().setEnabled(false);
+        OrderCache cache = cache(null);
+        PaymentOrder order = stored(PaymentStatus.AUTHORIZED);
+
+        cache.get(order.getId());
+        cache.get(order.getId());
+
+        verify(orderRepository, times(2)).findById(order.getId());
+    }
+}
@@ -0,0 +1,46 @@
+package com.talentica.payment.payment_service.domain.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void next_shouldProduceVersion7RfcVariantIds() {
+
+        UUID id = UuidV7Generator.next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    @Test
+    void next_shouldEmbedCurrentTimestamp() {
+
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+
+        long millis = id.getMostSignificantBits() >>> 16;
+
+        assertTrue(millis >= before && millis <= System.currentTimeMillis() + 1);
+    }
+
+    @Test
+    void next_shouldBeStrictlyIncreasing_withinTheSameMillisecond() {
+
+        UUID previous = UuidV7Generator.next();
+
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = UuidV7Generator.next();
+            // Unsigned comparison of the high bits matches BINARY(16) ordering
+            assertTrue(Long.compareUnsigned(
+                    next.getMostSignificantBits(),
+                    previous.getMostSignificantBits()) > 0);
+            previous = next;
+        }
+    }
+}
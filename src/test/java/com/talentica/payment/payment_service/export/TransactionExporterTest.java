@@ -0,0 +1,115 @@
+package com.talentica.payment.payment_service.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.domain.entity.PaymentTransaction;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import com.talentica.payment.payment_service.domain.enums.TransactionStatus;
+import com.talentica.payment.payment_service.domain.enums.TransactionType;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class TransactionExporterTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final List<PaymentTransaction> transactions = new ArrayList<>();
+
+    private TransactionExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        // A fetch size below the row count makes the cursor go back for more
+        exporter = new TransactionExporter(dataSource, 2);
+
+        PaymentOrder order = PaymentOrder.builder()
+                .amount(new BigDecimal("25.50"))
+                .currency("USD")
+                .status(PaymentStatus.CAPTURED)
+                .build();
+        entityManager.persist(order);
+
+        for (int i = 0; i < 6; i++) {
+            PaymentTransaction transaction = PaymentTransaction.builder()
+                    .paymentOrder(order)
+                    .type(TransactionType.CAPTURE)
+                    .status(TransactionStatus.SUCCESS)
+                    .amount(new BigDecimal("25.50"))
+                    .gatewayTransactionId(i == 2 ? "80000,\"2\"" : "8000000000" + i)
+                    .rawResponse("{}")
+                    .build();
+            entityManager.persist(transaction);
+            transactions.add(transaction);
+        }
+        entityManager.flush();
+        for (int i = 0; i < transactions.size(); i++) {
+            entityManager.createQuery("update PaymentTransaction t set t.createdAt = :createdAt where t.id = :id")
+                    .setParameter("createdAt", T0.plusSeconds(i))
+                    .setParameter("id", transactions.get(i).getId())
+                    .executeUpdate();
+        }
+        entityManager.clear();
+    }
+
+    @Test
+    void export_shouldStreamTheRangeAsNdjson() throws Exception {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exporter.export(T0.plusSeconds(1), T0.plusSeconds(5), ExportFormat.NDJSON, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(4, count);
+        assertEquals(4, lines.size());
+
+        ObjectMapper mapper = new ObjectMapper();
+        for (int i = 0; i < lines.size(); i++) {
+            JsonNode row = mapper.readTree(lines.get(i));
+            PaymentTransaction expected = transactions.get(i + 1);
+            assertEquals(expected.getId().toString(), row.get("id").asText());
+            assertEquals(expected.getPaymentOrder().getId().toString(), row.get("orderId").asText());
+            assertEquals("CAPTURE", row.get("type").asText());
+            assertTrue(lines.get(i).contains("\"amount\":25.50"));
+            assertEquals("USD", row.get("currency").asText());
+            assertEquals(expected.getGatewayTransactionId(), row.get("gatewayTransactionId").asText());
+            assertEquals(T0.plusSeconds(i + 1).toString(), row.get("createdAt").asText());
+            assertNull(row.get("rawResponse"));
+        }
+    }
+
+    @Test
+    void export_shouldWriteCsvWithHeaderAndQuoting() throws Exception {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.export(T0, T0.plusSeconds(3), ExportFormat.CSV, out);
+
+        List<String> lines = List.of(out.toString(StandardCharsets.UTF_8).split("\r\n"));
+        assertEquals("id,orderId,type,status,amount,currency,gatewayTransactionId,createdAt", lines.get(0));
+        assertEquals(4, lines.size());
+        assertEquals(transactions.get(2).getId() + "," + transactions.get(2).getPaymentOrder().getId()
+                        + ",CAPTURE,SUCCESS,25.50,USD,\"80000,\"\"2\"\"\"," + T0.plusSeconds(2),
+                lines.get(3));
+    }
+}
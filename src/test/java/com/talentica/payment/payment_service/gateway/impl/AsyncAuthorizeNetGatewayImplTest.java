@@ -0,0 +1,246 @@
+package com.talentica.payment.payment_service.gateway.impl;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.talentica.payment.payment_service.config.AuthorizeNetProperties;
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.exception.GatewayUnavailableException;
+import com.talentica.payment.payment_service.gateway.dto.GatewayResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+class AsyncAuthorizeNetGatewayImplTest {
+
+    private static final String NAMESPACE = "AnetApi/xml/v1/schema/AnetApiSchema.xsd";
+
+    private static final String APPROVED = """
+            <?xml version="1.0" encoding="utf-8"?>
+            <createTransactionResponse xmlns="AnetApi/xml/v1/schema/AnetApiSchema.xsd">
+              <messages><resultCode>Ok</resultCode>
+                <message><code>I00001</code><text>Successful.</text></message></messages>
+              <transactionResponse><responseCode>1</responseCode><transId>60001</transId>
+                <messages><message><code>1</code><description>This transaction has been approved.</description></message></messages>
+              </transactionResponse>
+            </createTransactionResponse>
+            """;
+
+    private final PaymentOrder order = PaymentOrder.builder()
+            .amount(new BigDecimal("25.00"))
+            .currency("USD")
+            .build();
+
+    private final CountDownLatch hang = new CountDownLatch(1);
+    private final ExecutorService serverThreads = Executors.newVirtualThreadPerTaskExecutor();
+
+    private HttpServer server;
+    private volatile int status;
+    private volatile String responseBody;
+    private volatile boolean stall;
+    private volatile byte[] requestBody;
+    private volatile String contentType;
+
+    private AuthorizeNetProperties properties;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(serverThreads);
+        server.createContext("/xml/v1/request.api", this::handle);
+        server.start();
+
+        properties = new AuthorizeNetProperties();
+        properties.setApiLoginId("login");
+        properties.setTransactionKey("key");
+        properties.setEndpoint("http://localhost:" + server.getAddress().getPort());
+        properties.setReadTimeout(Duration.ofSeconds(5));
+
+        status = 200;
+        responseBody = APPROVED;
+    }
+
+    @AfterEach
+    void tearDown() {
+        hang.countDown();
+        server.stop(0);
+        serverThreads.close();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requestBody = exchange.getRequestBody().readAllBytes();
+            contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+
+            if (stall) {
+                hang.await();
+            }
+
+            byte[] body = responseBody.strip().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private AsyncAuthorizeNetGatewayImpl gateway() {
+        return new AsyncAuthorizeNetGatewayImpl(new AuthorizeNetMerchants(properties), properties,
+                new StaticListableBeanFactory().getBeanProvider(ExecutorService.class));
+    }
+
+    private static String text(Element root, String tag) {
+        return root.getElementsByTagNameNS(NAMESPACE, tag).item(0).getTextContent();
+    }
+
+    @Test
+    void purchase_shouldPostRequestWithMerchantAuthentication_andReturnTransactionId() throws Exception {
+
+        GatewayResponse response = gateway().purchase(order).get(10, TimeUnit.SECONDS);
+
+        assertTrue(response.success());
+        assertEquals("60001", response.transactionId());
+
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        Document request = factory.newDocumentBuilder().parse(new ByteArrayInputStream(requestBody));
+        Element root = request.getDocumentElement();
+
+        assertEquals("createTransactionRequest", root.getLocalName());
+        assertEquals(NAMESPACE, root.getNamespaceURI());
+        assertEquals("login", text(root, "name"));
+        assertEquals("key", text(root, "transactionKey"));
+        assertEquals("authCaptureTransaction", text(root, "transactionType"));
+        assertEquals("25.00", text(root, "amount"));
+        assertTrue(contentType.startsWith("text/xml"));
+    }
+
+    @Test
+    void response_shouldBeParsed_afterByteOrderMark() throws Exception {
+
+        responseBody = "\uFEFF" + APPROVED.strip();
+
+        GatewayResponse response = gateway().capture(order, "59999").get(10, TimeUnit.SECONDS);
+
+        assertTrue(response.success());
+        assertEquals("60001", response.transactionId());
+    }
+
+    @Test
+    void gatewayError_shouldReturnFailureWithCode() throws Exception {
+
+        responseBody = """
+                <?xml version="1.0" encoding="utf-8"?>
+                <createTransactionResponse xmlns="AnetApi/xml/v1/schema/AnetApiSchema.xsd">
+                  <messages><resultCode>Error</resultCode>
+                    <message><code>E00007</code><text>User authentication failed due to invalid authentication values.</text></message></messages>
+                </createTransactionResponse>
+                """;
+
+        GatewayResponse response = gateway().purchase(order).get(10, TimeUnit.SECONDS);
+
+        assertFalse(response.success());
+        assertFalse(response.declined());
+        assertEquals("E00007", response.errorCode());
+        assertEquals("User authentication failed due to invalid authentication values.", response.errorMessage());
+    }
+
+    @Test
+    void errorResponse_shouldReturnFailureWithCode() throws Exception {
+
+        responseBody = """
+                <?xml version="1.0" encoding="utf-8"?>
+                <ErrorResponse xmlns="AnetApi/xml/v1/schema/AnetApiSchema.xsd">
+                  <messages><resultCode>Error</resultCode>
+                    <message><code>E00003</code><text>An error occurred while parsing the XML request.</text></message></messages>
+                </ErrorResponse>
+                """;
+
+        GatewayResponse response = gateway().refund(order, "59999", BigDecimal.ONE).get(10, TimeUnit.SECONDS);
+
+        assertFalse(response.success());
+        assertEquals("E00003", response.errorCode());
+    }
+
+    @Test
+    void non200Status_shouldReturnFailureWithHttpCode() throws Exception {
+
+        status = 503;
+        responseBody = "Service Unavailable";
+
+        GatewayResponse response = gateway().cancel(order, "59999").get(10, TimeUnit.SECONDS);
+
+        assertFalse(response.success());
+        assertFalse(response.declined());
+        assertEquals("HTTP_503", response.errorCode());
+    }
+
+    @Test
+    void noAnswerWithinReadTimeout_shouldFailAsUnavailable() {
+
+        properties.setReadTimeout(Duration.ofMillis(200));
+        stall = true;
+
+        CompletableFuture<GatewayResponse> response = gateway().authorize(order);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> response.get(10, TimeUnit.SECONDS));
+        GatewayUnavailableException cause = assertInstanceOf(GatewayUnavailableException.class, e.getCause());
+        assertEquals("TIMEOUT", cause.getReason());
+    }
+
+    @Test
+    void cancelledExchange_shouldFailAsUnavailable() {
+
+        HttpClient httpClient = mock(HttpClient.class);
+        CompletableFuture<HttpResponse<String>> exchange = new CompletableFuture<>();
+        doReturn(exchange).when(httpClient).sendAsync(any(), any());
+
+        CompletableFuture<GatewayResponse> response = new AsyncAuthorizeNetGatewayImpl(
+                new AuthorizeNetMerchants(properties), Duration.ofSeconds(5), httpClient).purchase(order);
+        exchange.cancel(true);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> response.get(10, TimeUnit.SECONDS));
+        GatewayUnavailableException cause = assertInstanceOf(GatewayUnavailableException.class, e.getCause());
+        assertEquals("CANCELLED", cause.getReason());
+    }
+
+    @Test
+    void cancellingResponse_shouldAbortExchange() {
+
+        HttpClient httpClient = mock(HttpClient.class);
+        CompletableFuture<HttpResponse<String>> exchange = new CompletableFuture<>();
+        doReturn(exchange).when(httpClient).sendAsync(any(), any());
+
+        CompletableFuture<GatewayResponse> response = new AsyncAuthorizeNetGatewayImpl(
+                new AuthorizeNetMerchants(properties), Duration.ofSeconds(5), httpClient).purchase(order);
+        response.cancel(true);
+
+        assertTrue(exchange.isCancelled());
+    }
+}
@@ -0,0 +1,98 @@
+package com.talentica.payment.payment_service.gateway.impl;
+
+import com.talentica.payment.payment_service.config.AuthorizeNetProperties;
+import net.authorize.Environment;
+import net.authorize.api.contract.v1.CreateTransactionRequest;
+import net.authorize.api.controller.CreateTransactionController;
+import net.authorize.api.controller.base.ApiOperationBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthorizeNetMerchantsTest {
+
+    private AuthorizeNetProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AuthorizeNetProperties();
+        properties.setApiLoginId("default-login");
+        properties.setTransactionKey("default-key");
+        properties.setSandbox(true);
+    }
+
+    private void addMerchant(String merchantId, Boolean sandbox) {
+        AuthorizeNetProperties.Merchant merchant = new AuthorizeNetProperties.Merchant();
+        merchant.setApiLoginId(merchantId + "-login");
+        merchant.setTransactionKey(merchantId + "-key");
+        merchant.setSandbox(sandbox);
+        properties.getMerchants().put(merchantId, merchant);
+    }
+
+    @Test
+    void defaultMerchant_shouldUseTopLevelCredentials() {
+
+        MerchantCredentials merchant = new AuthorizeNetMerchants(properties).defaultMerchant();
+
+        assertEquals("default-login", merchant.authentication().getName());
+        assertEquals("default-key", merchant.authentication().getTransactionKey());
+        assertSame(Environment.SANDBOX, merchant.environment());
+    }
+
+    @Test
+    void forMerchant_shouldUseOwnEnvironment_orFallBackToTopLevel() {
+
+        addMerchant("eu", false);
+        addMerchant("us", null);
+
+        AuthorizeNetMerchants merchants = new AuthorizeNetMerchants(properties);
+
+        assertEquals("eu-login", merchants.forMerchant("eu").authentication().getName());
+        assertSame(Environment.PRODUCTION, merchants.forMerchant("eu").environment());
+        assertEquals("us-key", merchants.forMerchant("us").authentication().getTransactionKey());
+        assertSame(Environment.SANDBOX, merchants.forMerchant("us").environment());
+        assertSame(merchants.defaultMerchant(), merchants.forMerchant(AuthorizeNetMerchants.DEFAULT_MERCHANT));
+    }
+
+    @Test
+    void forMerchant_shouldRejectUnknownMerchant() {
+
+        AuthorizeNetMerchants merchants = new AuthorizeNetMerchants(properties);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> merchants.forMerchant("missing"));
+        assertEquals("Unknown merchant: missing", e.getMessage());
+    }
+
+    @Test
+    void endpoint_shouldOverrideSandboxAndProduction() {
+
+        properties.setEndpoint("http://localhost:8099");
+        addMerchant("eu", false);
+
+        AuthorizeNetMerchants merchants = new AuthorizeNetMerchants(properties);
+
+        assertEquals("http://localhost:8099", merchants.defaultMerchant().environment().getXmlBaseUrl());
+        assertEquals("http://localhost:8099", merchants.forMerchant("eu").environment().getXmlBaseUrl());
+    }
+
+    @Test
+    void requests_shouldCarryTheirMerchantsAuthentication_withoutStaticState() {
+
+        addMerchant("eu", false);
+        AuthorizeNetMerchants merchants = new AuthorizeNetMerchants(properties);
+
+        CreateTransactionRequest defaultRequest = AuthorizeNetRequests.createTransactionRequest(
+                merchants.defaultMerchant(), AuthorizeNetRequests.capture("1"));
+        CreateTransactionRequest euRequest = AuthorizeNetRequests.createTransactionRequest(
+                merchants.forMerchant("eu"), AuthorizeNetRequests.capture("2"));
+        new CreateTransactionController(defaultRequest);
+        new CreateTransactionController(euRequest);
+
+        assertEquals("default-login", defaultRequest.getMerchantAuthentication().getName());
+        assertEquals("eu-login", euRequest.getMerchantAuthentication().getName());
+        assertNull(ApiOperationBase.getMerchantAuthentication());
+        assertNull(ApiOperationBase.getEnvironment());
+    }
+}
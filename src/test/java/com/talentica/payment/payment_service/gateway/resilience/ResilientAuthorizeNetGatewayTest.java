@@ -0,0 +1,222 @@
+package com.talentica.payment.payment_service.gateway.resilience;
+
+import com.talentica.payment.payment_service.config.AuthorizeNetProperties;
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.domain.enums.PaymentAction;
+import com.talentica.payment.payment_service.exception.GatewayUnavailableException;
+import com.talentica.payment.payment_service.gateway.AuthorizeNetGateway;
+import com.talentica.payment.payment_service.gateway.dto.GatewayResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilientAuthorizeNetGatewayTest {
+
+    private final PaymentOrder order = PaymentOrder.builder()
+            .amount(BigDecimal.TEN)
+            .currency("USD")
+            .build();
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private AuthorizeNetProperties.Resilience settings;
+    private FakeGateway transport;
+    private ResilientAuthorizeNetGateway gateway;
+
+    @BeforeEach
+    void setUp() {
+        settings = new AuthorizeNetProperties.Resilience();
+        settings.setMaxConcurrentCalls(1);
+        settings.setSlidingWindowSize(10);
+        settings.setMinimumCalls(4);
+        settings.setFailureRateThreshold(50);
+        settings.setSlowCallDuration(Duration.ofMillis(20));
+        settings.setSlowCallRateThreshold(50);
+        settings.setOpenDuration(Duration.ofSeconds(30));
+        settings.setHalfOpenCalls(2);
+
+        transport = new FakeGateway();
+        gateway = new ResilientAuthorizeNetGateway(transport, settings,
+                new CircuitBreaker(settings, clock::get));
+    }
+
+    private static GatewayResponse ok() {
+        return new GatewayResponse(true, "txn", null);
+    }
+
+    private static GatewayResponse error() {
+        return new GatewayResponse(false, null, "connection reset");
+    }
+
+    private static GatewayResponse declined() {
+        return new GatewayResponse(false, null, "This transaction has been declined.", true);
+    }
+
+    @Test
+    void call_shouldFailFastWithoutCallingTransport_onceErrorRateTripsCircuit() {
+
+        transport.respondWith(ResilientAuthorizeNetGatewayTest::error);
+        for (int i = 0; i < 4; i++) {
+            gateway.purchase(order);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, gateway.circuitState());
+        assertThrows(GatewayUnavailableException.class, () -> gateway.purchase(order));
+        assertEquals(4, transport.calls.get());
+    }
+
+    @Test
+    void call_shouldKeepCircuitClosed_whenGatewayDeclines() {
+
+        transport.respondWith(ResilientAuthorizeNetGatewayTest::declined);
+        for (int i = 0; i < 10; i++) {
+            gateway.purchase(order);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, gateway.circuitState());
+    }
+
+    @Test
+    void call_shouldTripCircuit_whenCallsAreSlow() {
+
+        transport.respondWith(() -> {
+            sleep(30);
+            return ok();
+        });
+        for (int i = 0; i < 4; i++) {
+            gateway.capture(order, "ref");
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, gateway.circuitState());
+    }
+
+    @Test
+    void call_shouldCloseCircuit_whenTrialCallsSucceedAfterOpenDuration() {
+
+        transport.respondWith(ResilientAuthorizeNetGatewayTest::error);
+        for (int i = 0; i < 4; i++) {
+            gateway.purchase(order);
+        }
+
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+        transport.respondWith(ResilientAuthorizeNetGatewayTest::ok);
+
+        gateway.purchase(order);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, gateway.circuitState());
+        gateway.purchase(order);
+
+        assertEquals(CircuitBreaker.State.CLOSED, gateway.circuitState());
+    }
+
+    @Test
+    void call_shouldRejectWhenOperationBulkheadIsFull_withoutBlockingOtherOperations()
+            throws Exception {
+
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        transport.respondWith(() -> {
+            inFlight.countDown();
+            await(release);
+            return ok();
+        });
+
+        CompletableFuture<GatewayResponse> first =
+                CompletableFuture.supplyAsync(() -> gateway.refund(order, "ref", BigDecimal.ONE));
+        inFlight.await();
+
+        transport.respondWith(ResilientAuthorizeNetGatewayTest::ok);
+        assertThrows(GatewayUnavailableException.class,
+                () -> gateway.refund(order, "ref", BigDecimal.ONE));
+        assertTrue(gateway.capture(order, "ref").success());
+
+        release.countDown();
+        assertTrue(first.get().success());
+    }
+
+    @Test
+    void callAsync_shouldHoldBulkheadUntilResponseArrives() {
+
+        CompletableFuture<GatewayResponse> pending = new CompletableFuture<>();
+        CompletableFuture<GatewayResponse> first =
+                gateway.callAsync(PaymentAction.CAPTURE, () -> pending);
+
+        CompletableFuture<GatewayResponse> rejected =
+                gateway.callAsync(PaymentAction.CAPTURE, () -> CompletableFuture.completedFuture(ok()));
+        CompletionException e = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(GatewayUnavailableException.class, e.getCause());
+        assertThrows(GatewayUnavailableException.class, () -> gateway.capture(order, "ref"));
+
+        pending.complete(ok());
+        assertTrue(first.join().success());
+        assertTrue(gateway.capture(order, "ref").success());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class FakeGateway implements AuthorizeNetGateway {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile Supplier<GatewayResponse> behavior =
+                ResilientAuthorizeNetGatewayTest::ok;
+
+        void respondWith(Supplier<GatewayResponse> behavior) {
+            this.behavior = behavior;
+        }
+
+        private GatewayResponse respond() {
+            calls.incrementAndGet();
+            return behavior.get();
+        }
+
+        @Override
+        public GatewayResponse purchase(PaymentOrder order) {
+            return respond();
+        }
+
+        @Override
+        public GatewayResponse authorize(PaymentOrder order) {
+            return respond();
+        }
+
+        @Override
+        public GatewayResponse capture(PaymentOrder order, String refTransactionId) {
+            return respond();
+        }
+
+        @Override
+        public GatewayResponse cancel(PaymentOrder order, String refTransactionId) {
+            return respond();
+        }
+
+        @Override
+        public GatewayResponse refund(PaymentOrder order,
+                                      String refTransactionId,
+                                      BigDecimal refundAmount) {
+            return respond();
+        }
+    }
+}
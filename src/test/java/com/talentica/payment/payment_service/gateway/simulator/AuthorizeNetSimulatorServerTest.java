@@ -0,0 +1,102 @@
+package com.talentica.payment.payment_service.gateway.simulator;
+
+import com.talentica.payment.payment_service.config.AuthorizeNetProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthorizeNetSimulatorServerTest {
+
+    private static final Pattern TRANS_ID = Pattern.compile("<transId>(\\d+)</transId>");
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private AuthorizeNetSimulatorServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AuthorizeNetProperties.Simulator settings = new AuthorizeNetProperties.Simulator();
+        settings.getLatency().setDistribution(LatencyDistribution.FIXED);
+        settings.getLatency().setMin(Duration.ZERO);
+        settings.getLatency().setMedian(Duration.ZERO);
+
+        server = new AuthorizeNetSimulatorServer(new GatewaySimulator(settings), 0);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    private String post(String transactionRequest) throws Exception {
+        String body = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <createTransactionRequest xmlns="AnetApi/xml/v1/schema/AnetApiSchema.xsd">
+                  <merchantAuthentication>
+                    <name>login</name>
+                    <transactionKey>key</transactionKey>
+                  </merchantAuthentication>
+                  <transactionRequest>%s</transactionRequest>
+                </createTransactionRequest>
+                """.formatted(transactionRequest).strip();
+
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder()
+                        .uri(URI.create("http://localhost:" + server.port()
+                                + AuthorizeNetSimulatorServer.API_PATH))
+                        .header("Content-Type", "text/xml; charset=utf-8")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().startsWith("\uFEFF<?xml"));
+        return response.body();
+    }
+
+    @Test
+    void post_shouldAuthorizeThenCapture_overXml() throws Exception {
+
+        String auth = post("""
+                <transactionType>authOnlyTransaction</transactionType>
+                <amount>25.00</amount>
+                """);
+        assertTrue(auth.contains("<resultCode>Ok</resultCode>"));
+        assertTrue(auth.contains("<responseCode>1</responseCode>"));
+
+        Matcher id = TRANS_ID.matcher(auth);
+        assertTrue(id.find());
+
+        String capture = post("""
+                <transactionType>priorAuthCaptureTransaction</transactionType>
+                <refTransId>%s</refTransId>
+                """.formatted(id.group(1)));
+        assertTrue(capture.contains("<resultCode>Ok</resultCode>"));
+
+        String second = post("""
+                <transactionType>priorAuthCaptureTransaction</transactionType>
+                <refTransId>%s</refTransId>
+                """.formatted(id.group(1)));
+        assertTrue(second.contains("<resultCode>Error</resultCode>"));
+        assertTrue(second.contains("<errorCode>311</errorCode>"));
+    }
+
+    @Test
+    void post_shouldReturnApiError_forUnknownTransactionType() throws Exception {
+
+        String response = post("<transactionType>bogus</transactionType>");
+
+        assertTrue(response.contains("<code>E00003</code>"));
+        assertFalse(response.contains("<transactionResponse>"));
+    }
+}
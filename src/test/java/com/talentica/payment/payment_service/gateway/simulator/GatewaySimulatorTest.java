@@ -0,0 +1,138 @@
+package com.talentica.payment.payment_service.gateway.simulator;
+
+import com.talentica.payment.payment_service.config.AuthorizeNetProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatewaySimulatorTest {
+
+    private AuthorizeNetProperties.Simulator settings;
+    private GatewaySimulator simulator;
+
+    @BeforeEach
+    void setUp() {
+        settings = new AuthorizeNetProperties.Simulator();
+        settings.setSeed(42L);
+        settings.getLatency().setDistribution(LatencyDistribution.FIXED);
+        settings.getLatency().setMin(Duration.ZERO);
+        settings.getLatency().setMedian(Duration.ZERO);
+        simulator = new GatewaySimulator(settings);
+    }
+
+    @Test
+    void capture_shouldSucceedOnce_forAnAuthorization() {
+
+        String authId = simulator.authorize(BigDecimal.TEN).transactionId();
+
+        assertEquals(GatewaySimulator.Outcome.APPROVED, simulator.capture(authId).outcome());
+
+        GatewaySimulator.Result again = simulator.capture(authId);
+        assertEquals(GatewaySimulator.Outcome.DECLINED, again.outcome());
+        assertEquals("311", again.code());
+    }
+
+    @Test
+    void capture_shouldAllowOnlyOneWinner_whenRacing() {
+
+        String authId = simulator.authorize(BigDecimal.TEN).transactionId();
+
+        List<CompletableFuture<GatewaySimulator.Result>> captures = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> simulator.capture(authId)))
+                .toList();
+
+        long approved = captures.stream()
+                .map(CompletableFuture::join)
+                .filter(r -> r.outcome() == GatewaySimulator.Outcome.APPROVED)
+                .count();
+        assertEquals(1, approved);
+    }
+
+    @Test
+    void refund_shouldRejectCreditsBeyondCapturedAmount() {
+
+        String captureId = simulator.purchase(BigDecimal.TEN).transactionId();
+
+        assertEquals(GatewaySimulator.Outcome.APPROVED,
+                simulator.refund(captureId, BigDecimal.valueOf(6)).outcome());
+
+        GatewaySimulator.Result excess = simulator.refund(captureId, BigDecimal.valueOf(5));
+        assertEquals(GatewaySimulator.Outcome.DECLINED, excess.outcome());
+        assertEquals("55", excess.code());
+    }
+
+    @Test
+    void refund_shouldBeRefused_forUncapturedAuthorization() {
+
+        String authId = simulator.authorize(BigDecimal.TEN).transactionId();
+
+        assertEquals("54", simulator.refund(authId, BigDecimal.ONE).code());
+    }
+
+    @Test
+    void voidTransaction_shouldBlockLaterCapture() {
+
+        String authId = simulator.authorize(BigDecimal.TEN).transactionId();
+        simulator.voidTransaction(authId);
+
+        assertEquals("16", simulator.capture(authId).code());
+        assertEquals("310", simulator.voidTransaction(authId).code());
+    }
+
+    @Test
+    void voidTransaction_shouldBeRefused_afterCapture() {
+
+        String captureId = simulator.purchase(BigDecimal.TEN).transactionId();
+
+        GatewaySimulator.Result voided = simulator.voidTransaction(captureId);
+        assertEquals(GatewaySimulator.Outcome.DECLINED, voided.outcome());
+        assertEquals("16", voided.code());
+        assertEquals(GatewaySimulator.Outcome.APPROVED,
+                simulator.refund(captureId, BigDecimal.TEN).outcome());
+    }
+
+    @Test
+    void calls_shouldFailAtConfiguredRates() {
+
+        settings.setDeclineRate(1.0);
+        assertEquals(GatewaySimulator.Outcome.DECLINED,
+                simulator.purchase(BigDecimal.TEN).outcome());
+
+        settings.setErrorRate(1.0);
+        assertEquals(GatewaySimulator.Outcome.ERROR,
+                simulator.purchase(BigDecimal.TEN).outcome());
+
+        settings.setTimeoutRate(1.0);
+        settings.setTimeout(Duration.ZERO);
+        assertEquals(GatewaySimulator.Outcome.TIMEOUT,
+                simulator.capture("missing").outcome());
+    }
+
+    @Test
+    void sampleLatency_shouldFitLogNormalMedianWithinBounds() {
+
+        AuthorizeNetProperties.Simulator.Latency latency = settings.getLatency();
+        latency.setDistribution(LatencyDistribution.LOG_NORMAL);
+        latency.setMin(Duration.ofMillis(10));
+        latency.setMedian(Duration.ofMillis(100));
+        latency.setP99(Duration.ofMillis(400));
+        latency.setMax(Duration.ofMillis(500));
+
+        long[] samples = IntStream.range(0, 10_001)
+                .mapToLong(i -> simulator.sampleLatency().toMillis())
+                .sorted()
+                .toArray();
+
+        long median = samples[samples.length / 2];
+        assertTrue(median >= 90 && median <= 110, "median was " + median);
+        assertTrue(samples[0] >= 10);
+        assertTrue(samples[samples.length - 1] <= 500);
+    }
+}
@@ -0,0 +1,164 @@
+package com.talentica.payment.payment_service.outbox;
+
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import com.talentica.payment.payment_service.domain.entity.OutboxDeadLetter;
+import com.talentica.payment.payment_service.domain.entity.OutboxEvent;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import com.talentica.payment.payment_service.repository.OutboxDeadLetterRepository;
+import com.talentica.payment.payment_service.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository repository;
+
+    @Mock
+    private OutboxDeadLetterRepository deadLetterRepository;
+
+    private final InMemoryOutboxSink sink = new InMemoryOutboxSink();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PaymentProperties properties = new PaymentProperties();
+
+    @BeforeEach
+    void setUp() {
+        PaymentProperties.Outbox settings = properties.getOutbox();
+        settings.setBatchSize(2);
+        settings.setLinger(Duration.ofSeconds(10));
+        settings.setPollInterval(Duration.ofSeconds(1));
+        settings.setBackoff(Duration.ofSeconds(1));
+        settings.setMaxBackoff(Duration.ofSeconds(3));
+    }
+
+    private OutboxRelay relay(OutboxSink sink) {
+        return new OutboxRelay(repository, deadLetterRepository, TransactionOperations.withoutTransaction(),
+                sink, properties, meterRegistry);
+    }
+
+    private static OutboxEvent event(long id, Instant occurredAt) {
+        return OutboxEvent.builder()
+                .id(id)
+                .orderId(UUID.randomUUID())
+                .previousStatus(PaymentStatus.AUTHORIZED)
+                .status(PaymentStatus.CAPTURED)
+                .amount(BigDecimal.TEN)
+                .currency("USD")
+                .occurredAt(occurredAt)
+                .build();
+    }
+
+    @Test
+    void relayOnce_shouldDeliverOldestEventsInOrder_andRemoveThem() {
+
+        Instant now = Instant.now();
+        when(repository.findAllByOrderByIdAsc(any()))
+                .thenReturn(List.of(event(1, now), event(2, now)));
+
+        long wait = relay(sink).relayOnce();
+
+        assertEquals(List.of(1L, 2L), sink.events().stream().map(PaymentEvent::eventId).toList());
+        verify(repository).deleteAllByIdInBatch(List.of(1L, 2L));
+        assertEquals(0, wait, "a full batch is followed straight away by the next");
+        assertEquals(2, meterRegistry.counter("payment.outbox.published").count());
+    }
+
+    @Test
+    void relayOnce_shouldHoldPartialBatch_untilItsOldestEventHasLingered() {
+
+        when(repository.findAllByOrderByIdAsc(any()))
+                .thenReturn(List.of(event(1, Instant.now())))
+                .thenReturn(List.of(event(1, Instant.now().minusSeconds(11))));
+        OutboxRelay relay = relay(sink);
+
+        long wait = relay.relayOnce();
+
+        assertTrue(wait > Duration.ofSeconds(9).toNanos());
+        assertTrue(sink.events().isEmpty());
+
+        relay.relayOnce();
+
+        assertEquals(1, sink.events().size());
+    }
+
+    @Test
+    void relayOnce_shouldKeepEventsAndBackOff_whenSinkFails() {
+
+        when(repository.findAllByOrderByIdAsc(any()))
+                .thenReturn(List.of(event(1, Instant.now().minusSeconds(60))));
+        OutboxRelay relay = relay(events -> {
+            throw new IOException("webhook down");
+        });
+
+        List<Long> waits = List.of(relay.relayOnce(), relay.relayOnce(), relay.relayOnce());
+
+        assertEquals(List.of(Duration.ofSeconds(1).toNanos(), Duration.ofSeconds(2).toNanos(),
+                Duration.ofSeconds(3).toNanos()), waits);
+        verify(repository, never()).deleteAllByIdInBatch(any());
+        assertEquals(3, meterRegistry.counter("payment.outbox.failures").count());
+    }
+
+    @Test
+    void relayOnce_shouldDeadLetterOnlyTheRejectedEvent_andDeliverTheRest() {
+
+        Instant old = Instant.now().minusSeconds(60);
+        when(repository.findAllByOrderByIdAsc(any()))
+                .thenReturn(List.of(event(1, old), event(2, old)));
+        OutboxRelay relay = relay(events -> {
+            if (events.stream().anyMatch(e -> e.eventId() == 1)) {
+                throw new EventsRejectedException("Webhook rejected the events with 400");
+            }
+            sink.publish(events);
+        });
+
+        long wait = relay.relayOnce();
+
+        assertEquals(0, wait);
+        assertEquals(List.of(2L), sink.events().stream().map(PaymentEvent::eventId).toList());
+        verify(deadLetterRepository).save(argThat((OutboxDeadLetter d) ->
+                d.getId() == 1 && d.getReason().endsWith("400")));
+        verify(repository).deleteAllByIdInBatch(List.of(1L));
+        verify(repository).deleteAllByIdInBatch(List.of(2L));
+        assertEquals(1, meterRegistry.counter("payment.outbox.dead.lettered").count());
+        assertEquals(1, meterRegistry.counter("payment.outbox.published").count());
+        assertEquals(0, meterRegistry.counter("payment.outbox.failures").count());
+    }
+
+    @Test
+    void relayOnce_shouldStopAndBackOff_whenDeliveringOneByOneFailsTransiently() {
+
+        Instant old = Instant.now().minusSeconds(60);
+        when(repository.findAllByOrderByIdAsc(any()))
+                .thenReturn(List.of(event(1, old), event(2, old)));
+        OutboxRelay relay = relay(events -> {
+            if (events.size() > 1) {
+                throw new EventsRejectedException("Webhook rejected the events with 422");
+            }
+            throw new IOException("webhook down");
+        });
+
+        long wait = relay.relayOnce();
+
+        assertEquals(Duration.ofSeconds(1).toNanos(), wait);
+        verifyNoInteractions(deadLetterRepository);
+        verify(repository, never()).deleteAllByIdInBatch(any());
+    }
+}
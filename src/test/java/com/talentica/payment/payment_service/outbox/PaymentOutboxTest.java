@@ -0,0 +1,87 @@
+package com.talentica.payment.payment_service.outbox;
+
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import com.talentica.payment.payment_service.domain.entity.OutboxEvent;
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import com.talentica.payment.payment_service.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentOutboxTest {
+
+    @Mock
+    private OutboxEventRepository repository;
+
+    @Mock
+    private OutboxRelay relay;
+
+    private PaymentOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        PaymentProperties properties = new PaymentProperties();
+        properties.getOutbox().setEnabled(true);
+        outbox = new PaymentOutbox(repository, relay, properties);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static PaymentOrder order(PaymentStatus status) {
+        return PaymentOrder.builder()
+                .id(UUID.randomUUID())
+                .amount(BigDecimal.TEN)
+                .currency("USD")
+                .status(status)
+                .capturedAmount(BigDecimal.TEN)
+                .build();
+    }
+
+    @Test
+    void recordStatusChange_shouldWriteEvent_andWakeRelayOnCommit() {
+
+        PaymentOrder order = order(PaymentStatus.CAPTURED);
+
+        outbox.recordStatusChange(order, PaymentStatus.AUTHORIZED);
+
+        ArgumentCaptor<OutboxEvent> saved = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(repository).save(saved.capture());
+        assertEquals(order.getId(), saved.getValue().getOrderId());
+        assertEquals(PaymentStatus.AUTHORIZED, saved.getValue().getPreviousStatus());
+        assertEquals(PaymentStatus.CAPTURED, saved.getValue().getStatus());
+        assertEquals(BigDecimal.TEN, saved.getValue().getCapturedAmount());
+        verify(relay, never()).wake();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(relay).wake();
+    }
+
+    @Test
+    void recordStatusChange_shouldSkipUnchangedStatus() {
+
+        outbox.recordStatusChange(order(PaymentStatus.CAPTURED), PaymentStatus.CAPTURED);
+
+        verify(repository, never()).save(any());
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+    }
+}
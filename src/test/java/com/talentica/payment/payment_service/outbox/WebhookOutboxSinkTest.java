@@ -0,0 +1,98 @@
+package com.talentica.payment.payment_service.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.sun.net.httpserver.HttpServer;
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebhookOutboxSinkTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final AtomicReference<byte[]> received = new AtomicReference<>();
+    private final AtomicInteger status = new AtomicInteger(204);
+
+    private HttpServer server;
+    private WebhookOutboxSink sink;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/events", exchange -> {
+            try (exchange) {
+                received.set(exchange.getRequestBody().readAllBytes());
+                exchange.sendResponseHeaders(status.get(), -1);
+            }
+        });
+        server.start();
+
+        PaymentProperties properties = new PaymentProperties();
+        properties.getOutbox().getWebhook().setUrl(
+                "http://localhost:" + server.getAddress().getPort() + "/events");
+        sink = new WebhookOutboxSink(properties, objectMapper);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private static PaymentEvent event(long id) {
+        return new PaymentEvent(id, UUID.randomUUID(), PaymentStatus.CREATED, PaymentStatus.AUTHORIZED,
+                BigDecimal.TEN, "USD", null, null, Instant.parse("2026-01-01T00:00:00Z"));
+    }
+
+    @Test
+    void publish_shouldPostBatchAsJsonArray() throws Exception {
+
+        sink.publish(List.of(event(1), event(2)));
+
+        JsonNode body = objectMapper.readTree(received.get());
+        assertEquals(2, body.size());
+        assertEquals(1, body.get(0).get("eventId").asLong());
+        assertEquals("AUTHORIZED", body.get(0).get("status").asText());
+        assertEquals(2, body.get(1).get("eventId").asLong());
+    }
+
+    @Test
+    void publish_shouldFail_whenWebhookDoesNotAcknowledge() {
+
+        status.set(503);
+
+        assertThrows(IOException.class, () -> sink.publish(List.of(event(1))));
+    }
+
+    @Test
+    void publish_shouldRejectForGood_onClientError() {
+
+        status.set(400);
+
+        assertThrows(EventsRejectedException.class, () -> sink.publish(List.of(event(1))));
+    }
+
+    @Test
+    void publish_shouldFailForRetry_onTimeoutOrThrottling() {
+
+        for (int code : List.of(408, 429)) {
+            status.set(code);
+
+            IOException e = assertThrows(IOException.class, () -> sink.publish(List.of(event(1))));
+            assertFalse(e instanceof EventsRejectedException, "status " + code);
+        }
+    }
+}
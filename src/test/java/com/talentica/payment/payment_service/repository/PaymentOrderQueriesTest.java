@@ -0,0 +1,179 @@
+package com.talentica.payment.payment_service.repository;
+
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.domain.entity.PaymentTransaction;
+import com.talentica.payment.payment_service.domain.enums.PaymentAction;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import com.talentica.payment.payment_service.domain.enums.TransactionStatus;
+import com.talentica.payment.payment_service.domain.enums.TransactionType;
+import com.talentica.payment.payment_service.dto.response.PaymentSummary;
+import com.talentica.payment.payment_service.dto.response.TransactionSummary;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class PaymentOrderQueriesTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Autowired
+    private PaymentOrderRepository orderRepository;
+
+    @Autowired
+    private PaymentTransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<PaymentOrder> orders = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Pairs of orders share a creation time, so pages must break ties on id
+        for (int i = 0; i < 10; i++) {
+            PaymentOrder order = orderRepository.save(PaymentOrder.builder()
+                    .amount(BigDecimal.valueOf(10 + i))
+                    .currency(i % 3 == 0 ? "EUR" : "USD")
+                    .status(i % 2 == 0 ? PaymentStatus.CAPTURED : PaymentStatus.AUTHORIZED)
+                    .build());
+            orders.add(order);
+        }
+        orderRepository.flush();
+        for (int i = 0; i < orders.size(); i++) {
+            entityManager.createQuery("update PaymentOrder o set o.createdAt = :createdAt where o.id = :id")
+                    .setParameter("createdAt", T0.plusSeconds(i / 2))
+                    .setParameter("id", orders.get(i).getId())
+                    .executeUpdate();
+        }
+        entityManager.clear();
+    }
+
+    private List<PaymentSummary> readAll(OrderFilter filter, int pageSize) {
+        List<PaymentSummary> all = new ArrayList<>();
+        OrderKey after = null;
+        while (true) {
+            List<PaymentSummary> page = orderRepository.findSummaries(filter, after, pageSize);
+            all.addAll(page);
+            if (page.size() < pageSize) {
+                return all;
+            }
+            PaymentSummary last = page.getLast();
+            after = new OrderKey(last.orderId(), last.createdAt());
+        }
+    }
+
+    @Test
+    void findSummaries_shouldPageNewestFirst_withoutGapsOrRepeats() {
+
+        List<PaymentSummary> all = readAll(new OrderFilter(null, null, null, null), 3);
+
+        assertEquals(10, all.size());
+        assertEquals(10, all.stream().map(PaymentSummary::orderId).distinct().count());
+        assertEquals(all.stream()
+                        .sorted(Comparator.comparing(PaymentSummary::createdAt).reversed())
+                        .map(PaymentSummary::createdAt)
+                        .toList(),
+                all.stream().map(PaymentSummary::createdAt).toList());
+    }
+
+    @Test
+    void findSummaries_shouldApplyEveryFilter() {
+
+        List<PaymentSummary> all = readAll(new OrderFilter(
+                PaymentStatus.AUTHORIZED, "USD", T0.plusSeconds(1), T0.plusSeconds(4)), 2);
+
+        // Orders 3, 5 and 7 are AUTHORIZED and created in [T0+1s, T0+4s); 3 is in EUR
+        assertEquals(List.of(orders.get(7).getId(), orders.get(5).getId()),
+                all.stream().map(PaymentSummary::orderId).toList());
+        assertTrue(all.stream().allMatch(s -> s.status() == PaymentStatus.AUTHORIZED));
+    }
+
+    @Test
+    void findByPaymentOrderId_shouldProjectTransactionsInOrder() {
+
+        PaymentOrder order = orderRepository.findById(orders.get(0).getId()).orElseThrow();
+        for (TransactionType type : List.of(TransactionType.AUTHORIZE, TransactionType.CAPTURE)) {
+            transactionRepository.save(PaymentTransaction.builder()
+                    .paymentOrder(order)
+                    .type(type)
+                    .amount(order.getAmount())
+                    .status(TransactionStatus.SUCCESS)
+                    .build());
+        }
+        transactionRepository.flush();
+
+        List<TransactionSummary> transactions =
+                transactionRepository.findByPaymentOrderIdOrderByCreatedAtAscIdAsc(order.getId());
+
+        assertEquals(List.of(TransactionType.AUTHORIZE, TransactionType.CAPTURE),
+                transactions.stream().map(TransactionSummary::type).toList());
+        assertTrue(transactionRepository.findByPaymentOrderIdOrderByCreatedAtAscIdAsc(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void findIdleByIdSkipLocked_shouldLoadOnlyOrdersWithNoOperationInFlight() {
+
+        PaymentOrder claimed = orderRepository.findById(orders.get(1).getId()).orElseThrow();
+        claimed.setPendingAction(PaymentAction.CANCEL);
+        orderRepository.saveAndFlush(claimed);
+
+        List<PaymentOrder> idle = orderRepository.findIdleByIdSkipLocked(
+                List.of(orders.get(1).getId(), orders.get(3).getId(), UUID.randomUUID()));
+
+        assertEquals(List.of(orders.get(3).getId()), idle.stream().map(PaymentOrder::getId).toList());
+    }
+
+    @Test
+    void findClaimedWithoutAttempt_shouldFindStaleClaimsWithNoPendingRow() {
+
+        for (int i : new int[]{1, 3, 5, 7}) {
+            PaymentOrder claimed = orderRepository.findById(orders.get(i).getId()).orElseThrow();
+            claimed.setPendingAction(PaymentAction.CAPTURE);
+            orderRepository.saveAndFlush(claimed);
+        }
+        // Order 3's attempt is still PENDING; order 7's earlier attempt has completed
+        addTransaction(orders.get(3), TransactionStatus.PENDING);
+        addTransaction(orders.get(7), TransactionStatus.FAILED);
+
+        Instant now = Instant.now();
+        setUpdatedAt(orders.get(1), T0.plusSeconds(1));
+        setUpdatedAt(orders.get(3), T0);
+        setUpdatedAt(orders.get(5), now.plusSeconds(3600));
+        setUpdatedAt(orders.get(7), T0);
+
+        List<PaymentOrder> orphaned = orderRepository.findClaimedWithoutAttempt(
+                TransactionStatus.PENDING, now, PageRequest.of(0, 10));
+
+        assertEquals(List.of(orders.get(7).getId(), orders.get(1).getId()),
+                orphaned.stream().map(PaymentOrder::getId).toList());
+    }
+
+    private void addTransaction(PaymentOrder order, TransactionStatus status) {
+        transactionRepository.saveAndFlush(PaymentTransaction.builder()
+                .paymentOrder(entityManager.getReference(PaymentOrder.class, order.getId()))
+                .type(TransactionType.CAPTURE)
+                .status(status)
+                .amount(order.getAmount())
+                .build());
+    }
+
+    private void setUpdatedAt(PaymentOrder order, Instant updatedAt) {
+        entityManager.createQuery("update PaymentOrder o set o.updatedAt = :updatedAt where o.id = :id")
+                .setParameter("updatedAt", updatedAt)
+                .setParameter("id", order.getId())
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,75 @@
+package com.talentica.payment.payment_service.repository;
+
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.domain.entity.PaymentTransaction;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import com.talentica.payment.payment_service.domain.enums.TransactionStatus;
+import com.talentica.payment.payment_service.domain.enums.TransactionType;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the JDBC batching settings in application.yaml: inserts of
+ * {@link PaymentTransaction} must be grouped into batches, which only works
+ * while the entity's id is assigned by the application rather than by an
+ * identity column.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class PaymentTransactionBatchingTest {
+
+    private static final int ROWS = 100;
+
+    @Autowired
+    private PaymentOrderRepository orderRepository;
+
+    @Autowired
+    private PaymentTransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void saveAll_shouldGroupInsertsIntoJdbcBatches() {
+
+        PaymentOrder order = orderRepository.saveAndFlush(
+                PaymentOrder.builder()
+                        .amount(BigDecimal.TEN)
+                        .currency("USD")
+                        .status(PaymentStatus.CREATED)
+                        .build());
+
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class);
+        int batchSize = sessionFactory.getSessionFactoryOptions().getJdbcBatchSize();
+        assertTrue(batchSize > 1, "hibernate.jdbc.batch_size is not configured");
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        List<PaymentTransaction> transactions = IntStream.range(0, ROWS)
+                .mapToObj(i -> PaymentTransaction.builder()
+                        .paymentOrder(order)
+                        .type(TransactionType.PURCHASE)
+                        .amount(BigDecimal.TEN)
+                        .status(TransactionStatus.PENDING)
+                        .build())
+                .toList();
+
+        transactionRepository.saveAll(transactions);
+        entityManager.flush();
+
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        // At most one prepared statement per batch instead of one per row
+        assertTrue(statistics.getPrepareStatementCount() <= ROWS / batchSize);
+    }
+}
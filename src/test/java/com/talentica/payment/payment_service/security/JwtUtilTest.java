@@ -0,0 +1,56 @@
+package com.talentica.payment.payment_service.security;
+
+import com.talentica.payment.payment_service.config.JwtProperties;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET =
+            "VGhpcy1pcy1hLXZlcnktbG9uZy1qd3Qtc2VjcmV0LWtleS0xMjM0NTY=";
+
+    private static JwtUtil jwtUtil(long expirationMs) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        properties.setExpirationMs(expirationMs);
+        return new JwtUtil(properties);
+    }
+
+    @Test
+    void validateAndGetUsername_shouldReturnSubject_onRepeatedValidation() {
+
+        JwtUtil jwtUtil = jwtUtil(60_000);
+        String token = jwtUtil.generateToken("alice");
+
+        assertEquals("alice", jwtUtil.validateAndGetUsername(token));
+        assertEquals("alice", jwtUtil.validateAndGetUsername(token));
+    }
+
+    @Test
+    void validateAndGetUsername_shouldRejectTamperedToken_afterOriginalWasCached() {
+
+        JwtUtil jwtUtil = jwtUtil(60_000);
+        String token = jwtUtil.generateToken("alice");
+        jwtUtil.validateAndGetUsername(token);
+
+        int last = token.length() - 1;
+        String tampered = token.substring(0, last)
+                + (token.charAt(last) == 'A' ? 'B' : 'A');
+
+        assertThrows(SignatureException.class,
+                () -> jwtUtil.validateAndGetUsername(tampered));
+    }
+
+    @Test
+    void validateAndGetUsername_shouldRejectExpiredToken() {
+
+        JwtUtil jwtUtil = jwtUtil(-1_000);
+        String token = jwtUtil.generateToken("alice");
+
+        assertThrows(ExpiredJwtException.class,
+                () -> jwtUtil.validateAndGetUsername(token));
+    }
+}
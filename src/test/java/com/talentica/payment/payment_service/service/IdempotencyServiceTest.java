@@ -0,0 +1,235 @@
+package com.talentica.payment.payment_service.service;
+
+import com.talentica.payment.payment_service.cache.OrderCache;
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import com.talentica.payment.payment_service.domain.entity.IdempotencyRecord;
+import com.talentica.payment.payment_service.domain.enums.IdempotencyStatus;
+import com.talentica.payment.payment_service.domain.enums.PaymentAction;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import com.talentica.payment.payment_service.dto.response.PaymentResponse;
+import com.talentica.payment.payment_service.exception.GatewayUnavailableException;
+import com.talentica.payment.payment_service.exception.IdempotencyConflictException;
+import com.talentica.payment.payment_service.exception.InvalidPaymentStateException;
+import com.talentica.payment.payment_service.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    @Mock
+    private OrderCache orderCache;
+
+    private IdempotencyService idempotencyService;
+
+    private final String fingerprint =
+            IdempotencyService.fingerprint(PaymentAction.PURCHASE, BigDecimal.TEN, "USD");
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(repository, orderCache, new PaymentProperties());
+    }
+
+    private PaymentResponse response() {
+        return new PaymentResponse(UUID.randomUUID(), PaymentStatus.CAPTURED,
+                BigDecimal.TEN, "USD");
+    }
+
+    private void stubEmptyStore() {
+        when(repository.findById("key-1")).thenReturn(Optional.empty());
+        when(repository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void execute_shouldReplayStoredResponse_withoutRunningOperationAgain() {
+
+        stubEmptyStore();
+        AtomicInteger calls = new AtomicInteger();
+        PaymentResponse first = response();
+
+        PaymentResponse r1 = idempotencyService.execute("key-1", fingerprint, () -> {
+            calls.incrementAndGet();
+            return first;
+        });
+        PaymentResponse r2 = idempotencyService.execute("key-1", fingerprint, () -> {
+            calls.incrementAndGet();
+            return response();
+        });
+
+        assertEquals(first, r1);
+        assertEquals(first, r2);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_shouldRejectKeyReuse_withDifferentRequest() {
+
+        stubEmptyStore();
+        idempotencyService.execute("key-1", fingerprint, this::response);
+
+        String other = IdempotencyService.fingerprint(PaymentAction.PURCHASE, BigDecimal.ONE, "USD");
+
+        assertThrows(IdempotencyConflictException.class,
+                () -> idempotencyService.execute("key-1", other, this::response));
+    }
+
+    @Test
+    void execute_shouldCollapseConcurrentDuplicates() throws Exception {
+
+        stubEmptyStore();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PaymentResponse expected = response();
+
+        CompletableFuture<PaymentResponse> first = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute("key-1", fingerprint, () -> {
+                    calls.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return expected;
+                }));
+
+        started.await();
+        CompletableFuture<PaymentResponse> duplicate = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute("key-1", fingerprint, () -> {
+                    calls.incrementAndGet();
+                    return response();
+                }));
+
+        release.countDown();
+
+        assertEquals(expected, first.get());
+        assertEquals(expected, duplicate.get());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_shouldReleaseKey_whenOperationIsRejected() {
+
+        stubEmptyStore();
+
+        assertThrows(InvalidPaymentStateException.class, () ->
+                idempotencyService.execute("key-1", fingerprint, () -> {
+                    throw new InvalidPaymentStateException("rejected");
+                }));
+
+        verify(repository).delete(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void execute_shouldReleaseKey_whenGatewayRefusedCall() {
+
+        stubEmptyStore();
+
+        assertThrows(GatewayUnavailableException.class, () ->
+                idempotencyService.execute("key-1", fingerprint, () -> {
+                    throw new GatewayUnavailableException("CIRCUIT_OPEN", "open");
+                }));
+
+        verify(repository).delete(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void execute_shouldNotCallGatewayAgain_whenFailingAfterGatewayCall() {
+
+        // The store as the repository would hold it across requests
+        IdempotencyRecord[] stored = new IdempotencyRecord[1];
+        when(repository.findById("key-1")).thenAnswer(inv -> Optional.ofNullable(stored[0]));
+        when(repository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(inv -> stored[0] = inv.getArgument(0));
+        when(repository.save(any(IdempotencyRecord.class))).thenAnswer(inv -> stored[0] = inv.getArgument(0));
+
+        AtomicInteger gatewayCalls = new AtomicInteger();
+        Supplier<PaymentResponse> purchase = () -> {
+            gatewayCalls.incrementAndGet();
+            // Phase 3 losing a race after the card was charged
+            throw new OptimisticLockingFailureException("order was updated concurrently");
+        };
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> idempotencyService.execute("key-1", fingerprint, purchase));
+        assertThrows(IdempotencyConflictException.class,
+                () -> idempotencyService.execute("key-1", fingerprint, purchase));
+
+        assertEquals(1, gatewayCalls.get());
+        assertEquals(IdempotencyStatus.UNKNOWN, stored[0].getStatus());
+        verify(repository, never()).delete(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void execute_shouldNotRunAgain_whenKeyWasLeftInProgress() {
+
+        // Claimed by a node that stopped after the gateway call, before saving the outcome
+        IdempotencyRecord abandoned = IdempotencyRecord.builder()
+                .idempotencyKey("key-1")
+                .requestFingerprint(fingerprint)
+                .status(IdempotencyStatus.IN_PROGRESS)
+                .createdAt(Instant.now().minus(Duration.ofHours(1)))
+                .build();
+        when(repository.findById("key-1")).thenReturn(Optional.of(abandoned));
+        AtomicInteger gatewayCalls = new AtomicInteger();
+
+        IdempotencyConflictException e = assertThrows(IdempotencyConflictException.class,
+                () -> idempotencyService.execute("key-1", fingerprint, () -> {
+                    gatewayCalls.incrementAndGet();
+                    return response();
+                }));
+
+        assertTrue(e.getMessage().contains("check the order's status"));
+        assertEquals(0, gatewayCalls.get());
+        verify(repository, never()).delete(any(IdempotencyRecord.class));
+        verify(repository, never()).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void executeAccepted_shouldReplayCurrentOrderState() {
+
+        stubEmptyStore();
+        PaymentResponse accepted = new PaymentResponse(UUID.randomUUID(), PaymentStatus.CREATED,
+                BigDecimal.TEN, "USD");
+        PaymentResponse settled = new PaymentResponse(accepted.orderId(), PaymentStatus.CAPTURED,
+                BigDecimal.TEN, "USD");
+        when(orderCache.get(accepted.orderId())).thenReturn(settled);
+
+        assertEquals(accepted, idempotencyService.executeAccepted("key-1", fingerprint, () -> accepted));
+        assertEquals(settled, idempotencyService.executeAccepted("key-1", fingerprint, () -> accepted));
+    }
+
+    @Test
+    void execute_shouldBypassStore_whenNoKeyGiven() {
+
+        idempotencyService.execute(null, fingerprint, this::response);
+
+        verifyNoInteractions(repository);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
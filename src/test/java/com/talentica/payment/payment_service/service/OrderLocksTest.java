@@ -0,0 +1,52 @@
+package com.talentica.payment.payment_service.service;
+
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import com.talentica.payment.payment_service.exception.ConcurrentPaymentException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderLocksTest {
+
+    private OrderLocks orderLocks;
+
+    @BeforeEach
+    void setUp() {
+        PaymentProperties properties = new PaymentProperties();
+        properties.getOrderLock().setWaitTimeout(Duration.ofMillis(20));
+        orderLocks = new OrderLocks(properties);
+    }
+
+    @Test
+    void acquire_shouldRejectSecondRequestForSameOrder_whileFirstHoldsIt() {
+
+        UUID orderId = UUID.randomUUID();
+
+        try (OrderLocks.Lease ignored = orderLocks.acquire(orderId)) {
+
+            CompletableFuture<OrderLocks.Lease> racing =
+                    CompletableFuture.supplyAsync(() -> orderLocks.acquire(orderId));
+
+            CompletionException e = assertThrows(CompletionException.class, racing::join);
+            assertInstanceOf(ConcurrentPaymentException.class, e.getCause());
+        }
+    }
+
+    @Test
+    void acquire_shouldSucceed_onceLeaseIsClosed() {
+
+        UUID orderId = UUID.randomUUID();
+        orderLocks.acquire(orderId).close();
+
+        CompletableFuture<Void> next = CompletableFuture.runAsync(() ->
+                orderLocks.acquire(orderId).close());
+
+        assertDoesNotThrow(next::join);
+    }
+}
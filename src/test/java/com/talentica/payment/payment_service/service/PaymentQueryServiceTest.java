@@ -0,0 +1,100 @@
+package com.talentica.payment.payment_service.service;
+
+import com.talentica.payment.payment_service.cache.OrderCache;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import com.talentica.payment.payment_service.dto.response.PaymentPage;
+import com.talentica.payment.payment_service.dto.response.PaymentSummary;
+import com.talentica.payment.payment_service.exception.InvalidCursorException;
+import com.talentica.payment.payment_service.exception.ResourceNotFoundException;
+import com.talentica.payment.payment_service.repository.OrderFilter;
+import com.talentica.payment.payment_service.repository.OrderKey;
+import com.talentica.payment.payment_service.repository.PaymentOrderRepository;
+import com.talentica.payment.payment_service.repository.PaymentTransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentQueryServiceTest {
+
+    @Mock
+    private PaymentOrderRepository orderRepository;
+
+    @Mock
+    private PaymentTransactionRepository transactionRepository;
+
+    @Mock
+    private OrderCache orderCache;
+
+    @InjectMocks
+    private PaymentQueryService queryService;
+
+    private final OrderFilter noFilter = new OrderFilter(null, null, null, null);
+
+    private static List<PaymentSummary> summaries(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new PaymentSummary(UUID.randomUUID(), PaymentStatus.CAPTURED,
+                        BigDecimal.TEN, "USD", BigDecimal.TEN, BigDecimal.ZERO,
+                        Instant.parse("2026-01-01T00:00:00Z").minusSeconds(i), Instant.now()))
+                .toList();
+    }
+
+    @Test
+    void listPayments_shouldReturnCursorOfLastItem_whenMoreRowsExist() {
+
+        List<PaymentSummary> rows = summaries(3);
+        when(orderRepository.findSummaries(eq(noFilter), isNull(), eq(3))).thenReturn(rows);
+
+        PaymentPage page = queryService.listPayments(noFilter, null, 2);
+
+        assertEquals(rows.subList(0, 2), page.items());
+        PaymentSummary last = rows.get(1);
+        assertEquals(new OrderKey(last.orderId(), last.createdAt()),
+                PaymentQueryService.decode(page.nextCursor()));
+    }
+
+    @Test
+    void listPayments_shouldOmitCursor_onLastPage() {
+
+        when(orderRepository.findSummaries(any(), any(), eq(3))).thenReturn(summaries(2));
+
+        PaymentPage page = queryService.listPayments(noFilter,
+                PaymentQueryService.encode(new OrderKey(UUID.randomUUID(), Instant.now())), 2);
+
+        assertEquals(2, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void listPayments_shouldRejectMalformedCursor() {
+
+        assertThrows(InvalidCursorException.class,
+                () -> queryService.listPayments(noFilter, "not-a-cursor", 10));
+
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void listTransactions_shouldThrow_whenOrderNotFound() {
+
+        UUID orderId = UUID.randomUUID();
+        when(orderRepository.existsById(orderId)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> queryService.listTransactions(orderId));
+        verifyNoInteractions(transactionRepository);
+    }
+}
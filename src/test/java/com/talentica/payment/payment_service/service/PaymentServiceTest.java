@@ -2,25 +2,49 @@ package com.talentica.payment.payment_service.service;
 
 import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
 import com.talentica.payment.payment_service.domain.entity.PaymentTransaction;
+import com.talentica.payment.payment_service.domain.enums.PaymentAction;
 import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
 import com.talentica.payment.payment_service.domain.enums.TransactionStatus;
+import com.talentica.payment.payment_service.domain.enums.TransactionType;
+import com.talentica.payment.payment_service.domain.event.PaymentStatusChanged;
+import com.talentica.payment.payment_service.dto.response.BatchResult;
+import com.talentica.payment.payment_service.exception.ConcurrentPaymentException;
+import com.talentica.payment.payment_service.exception.GatewayUnavailableException;
+import com.talentica.payment.payment_service.exception.InvalidPaymentStateException;
 import com.talentica.payment.payment_service.exception.ResourceNotFoundException;
+import com.talentica.payment.payment_service.gateway.AsyncAuthorizeNetGateway;
 import com.talentica.payment.payment_service.gateway.AuthorizeNetGateway;
 import com.talentica.payment.payment_service.gateway.dto.GatewayResponse;
+import com.talentica.payment.payment_service.outbox.PaymentOutbox;
 import com.talentica.payment.payment_service.repository.PaymentOrderRepository;
 import com.talentica.payment.payment_service.repository.PaymentTransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,9 +59,39 @@ class PaymentServiceTest {
     @Mock
     private AuthorizeNetGateway gateway;
 
+    @Mock
+    private AsyncAuthorizeNetGateway asyncGateway;
+
     @Mock
     private PaymentStateValidator stateValidator;
 
+    @Mock
+    private PaymentTransactionWriter transactionWriter;
+
+    @Mock
+    private OrderLocks orderLocks;
+
+    @Mock
+    private PaymentWorkers paymentWorkers;
+
+    @Mock
+    private BatchWorkers batchWorkers;
+
+    @Mock
+    private PaymentOutbox outbox;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private TransactionOperations transactionOperations =
+            TransactionOperations.withoutTransaction();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private PaymentMetrics metrics = new PaymentMetrics(meterRegistry);
+
     @InjectMocks
     private PaymentService paymentService;
 
@@ -67,6 +121,23 @@ class PaymentServiceTest {
         return new GatewayResponse(false, null, "gateway error");
     }
 
+    /** Holds submitted work so a test can decide when, and how, it runs. */
+    private static class QueuedReservation implements PaymentWorkers.Reservation {
+
+        Runnable task;
+        Runnable expired;
+
+        @Override
+        public void submit(Runnable task, Runnable expired) {
+            this.task = task;
+            this.expired = expired;
+        }
+
+        @Override
+        public void cancel() {
+        }
+    }
+
     /* ===================== PURCHASE ===================== */
 
     @Test
@@ -102,6 +173,143 @@ class PaymentServiceTest {
         assertEquals(PaymentStatus.FAILED, result.getStatus());
     }
 
+    @Test
+    void purchase_shouldRecordDeclineByGatewayCode() {
+
+        when(orderRepository.save(any(PaymentOrder.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        when(gateway.purchase(any()))
+                .thenReturn(new GatewayResponse(false, null,
+                        "This transaction has been declined.", true, "2"));
+
+        paymentService.purchase(BigDecimal.valueOf(200), "USD");
+
+        assertEquals(1.0, meterRegistry.get("payment.gateway.declines")
+                .tags("action", "PURCHASE", "code", "2").counter().count());
+        assertEquals(1, meterRegistry.get("payment.operation")
+                .tags("action", "PURCHASE", "outcome", "declined").timer().count());
+        assertEquals(1, meterRegistry.get("payment.db")
+                .tags("action", "PURCHASE", "phase", "finish").timer().count());
+    }
+
+    @Test
+    void purchase_shouldRecordPendingAttemptAndFinalizeIt() {
+
+        when(orderRepository.save(any(PaymentOrder.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        when(gateway.purchase(any()))
+                .thenReturn(successResponse("txn123"));
+
+        paymentService.purchase(BigDecimal.valueOf(200), "USD");
+
+        verify(transactionRepository).save(argThat(txn ->
+                txn.getStatus() == TransactionStatus.PENDING));
+        verify(transactionRepository)
+                .completeAttempt(any(), eq(TransactionStatus.SUCCESS), eq("txn123"));
+    }
+
+    @Test
+    void purchase_shouldQueuePendingAttempt_whenWriteBehindEnabled() {
+
+        when(transactionWriter.isEnabled()).thenReturn(true);
+        when(transactionWriter.write(any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        when(orderRepository.save(any(PaymentOrder.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        when(gateway.purchase(any()))
+                .thenReturn(successResponse("txn123"));
+
+        paymentService.purchase(BigDecimal.valueOf(200), "USD");
+
+        verify(transactionWriter).write(argThat(txn ->
+                txn.getStatus() == TransactionStatus.PENDING));
+        verify(transactionRepository, never()).save(any());
+        verify(transactionRepository)
+                .completeAttempt(any(), eq(TransactionStatus.SUCCESS), eq("txn123"));
+    }
+
+    @Test
+    void purchase_shouldRecordAttemptDirectly_whenWriteBehindInsertFails() {
+
+        when(transactionWriter.isEnabled()).thenReturn(true);
+        when(transactionWriter.write(any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("down")));
+
+        when(orderRepository.save(any(PaymentOrder.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        when(gateway.purchase(any()))
+                .thenReturn(successResponse("txn123"));
+
+        PaymentOrder result =
+                paymentService.purchase(BigDecimal.valueOf(200), "USD");
+
+        assertEquals(PaymentStatus.CAPTURED, result.getStatus());
+        verify(transactionRepository).save(argThat(txn ->
+                txn.getStatus() == TransactionStatus.SUCCESS
+                        && "txn123".equals(txn.getGatewayTransactionId())));
+        verify(transactionRepository, never()).completeAttempt(any(), any(), any());
+    }
+
+    @Test
+    void submitPurchase_shouldReturnCreatedOrder_andCompleteItOnWorker() {
+
+        when(orderRepository.save(any(PaymentOrder.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        when(gateway.purchase(any()))
+                .thenReturn(successResponse("txn123"));
+
+        QueuedReservation reservation = new QueuedReservation();
+        when(paymentWorkers.reserve()).thenReturn(reservation);
+
+        PaymentOrder accepted =
+                paymentService.submitPurchase(BigDecimal.valueOf(200), "USD");
+
+        assertEquals(PaymentStatus.CREATED, accepted.getStatus());
+        verifyNoInteractions(gateway);
+
+        reservation.task.run();
+
+        verify(gateway).purchase(any());
+        verify(transactionRepository)
+                .completeAttempt(any(), eq(TransactionStatus.SUCCESS), eq("txn123"));
+        assertEquals(PaymentStatus.CREATED, accepted.getStatus());
+    }
+
+    @Test
+    void submitPurchase_shouldFailOrderWithoutCallingGateway_whenQueuedTooLong() {
+
+        when(orderRepository.save(any(PaymentOrder.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        QueuedReservation reservation = new QueuedReservation();
+        when(paymentWorkers.reserve()).thenReturn(reservation);
+
+        paymentService.submitPurchase(BigDecimal.valueOf(200), "USD");
+        reservation.expired.run();
+
+        verifyNoInteractions(gateway);
+        verify(orderRepository, atLeastOnce()).save(argThat(o ->
+                o.getStatus() == PaymentStatus.FAILED && o.getPendingAction() == null));
+    }
+
+    @Test
+    void submitPurchase_shouldRejectWithoutCreatingOrder_whenWorkersBusy() {
+
+        when(paymentWorkers.reserve())
+                .thenThrow(new GatewayUnavailableException("WORKERS_BUSY", "busy"));
+
+        assertThrows(GatewayUnavailableException.class,
+                () -> paymentService.submitPurchase(BigDecimal.valueOf(200), "USD"));
+
+        verifyNoInteractions(orderRepository, gateway);
+    }
+
     /* ===================== AUTHORIZE ===================== */
 
     @Test
@@ -143,6 +351,72 @@ class PaymentServiceTest {
         PaymentOrder result = paymentService.capture(order.getId());
 
         assertEquals(PaymentStatus.CAPTURED, result.getStatus());
+        verify(outbox).recordStatusChange(result, PaymentStatus.AUTHORIZED);
+        verify(eventPublisher).publishEvent(new PaymentStatusChanged(
+                order.getId(), PaymentStatus.AUTHORIZED, PaymentStatus.CAPTURED,
+                order.getAmount(), order.getCurrency()));
+    }
+
+    @Test
+    void capture_shouldReleaseClaim_whenAttemptCompletes() {
+
+        PaymentOrder order = createOrder(PaymentStatus.AUTHORIZED);
+        order.setLastSuccessfulGatewayTxnId("authTxn");
+
+        when(orderRepository.findById(order.getId()))
+                .thenReturn(Optional.of(order));
+
+        when(gateway.capture(argThat(o -> o.getPendingAction() == PaymentAction.CAPTURE),
+                eq("authTxn")))
+                .thenReturn(successResponse("capTxn"));
+
+        when(orderRepository.save(any(PaymentOrder.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        PaymentOrder result = paymentService.capture(order.getId());
+
+        assertNull(result.getPendingAction());
+        verify(orderLocks).acquire(order.getId());
+    }
+
+    @Test
+    void capture_shouldRejectWithoutCallingGateway_whenOperationInFlight() {
+
+        PaymentOrder order = createOrder(PaymentStatus.AUTHORIZED);
+        order.setPendingAction(PaymentAction.CANCEL);
+
+        when(orderRepository.findById(order.getId()))
+                .thenReturn(Optional.of(order));
+
+        assertThrows(ConcurrentPaymentException.class,
+                () -> paymentService.capture(order.getId()));
+
+        verifyNoInteractions(gateway);
+        verify(transactionRepository, never()).save(any());
+        assertEquals(1, meterRegistry.get("payment.operation")
+                .tags("action", "CAPTURE", "outcome", "rejected").timer().count());
+    }
+
+    @Test
+    void capture_shouldUseDenormalizedGatewayTxnId_withoutQueryingTransactions() {
+
+        PaymentOrder order = createOrder(PaymentStatus.AUTHORIZED);
+        order.setLastSuccessfulGatewayTxnId("authTxn");
+
+        when(orderRepository.findById(order.getId()))
+                .thenReturn(Optional.of(order));
+
+        when(gateway.capture(order, "authTxn"))
+                .thenReturn(successResponse("capTxn"));
+
+        when(orderRepository.save(any(PaymentOrder.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        PaymentOrder result = paymentService.capture(order.getId());
+
+        assertEquals("capTxn", result.getLastSuccessfulGatewayTxnId());
+        verify(transactionRepository, never())
+                .findTopByPaymentOrderAndStatusOrderByCreatedAtDesc(any(), any());
     }
 
     @Test
@@ -157,6 +431,247 @@ class PaymentServiceTest {
                 () -> paymentService.capture(orderId));
     }
 
+    /* ===================== BATCH CAPTURE ===================== */
+
+    private void runBatchesInline() {
+        when(batchWorkers.submit(any())).thenAnswer(inv ->
+                CompletableFuture.completedFuture(inv.<Supplier<?>>getArgument(0).get()));
+    }
+
+    private Map<UUID, BatchResult> captureBatch(UUID... orderIds) {
+        Map<UUID, BatchResult> results = new ConcurrentHashMap<>();
+        paymentService.captureBatch(List.of(orderIds), r -> results.put(r.orderId(), r)).join();
+        return results;
+    }
+
+    @Test
+    void captureBatch_shouldLoadOrdersInOneQuery_andReportEachOne() {
+
+        PaymentOrder authorized = createOrder(PaymentStatus.AUTHORIZED);
+        authorized.setLastSuccessfulGatewayTxnId("authTxn");
+        PaymentOrder captured = createOrder(PaymentStatus.CAPTURED);
+        UUID missing = UUID.randomUUID();
+
+        when(orderRepository.findAllById(List.of(authorized.getId(), captured.getId(), missing)))
+                .thenReturn(List.of(authorized, captured));
+        lenient().doThrow(new InvalidPaymentStateException("Cannot CAPTURE when payment is CAPTURED"))
+                .when(stateValidator).validate(PaymentStatus.CAPTURED, PaymentAction.CAPTURE);
+        when(gateway.capture(authorized, "authTxn"))
+                .thenReturn(successResponse("capTxn"));
+        when(orderRepository.save(any(PaymentOrder.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+        runBatchesInline();
+
+        Map<UUID, BatchResult> results =
+                captureBatch(authorized.getId(), captured.getId(), missing, authorized.getId());
+
+        assertEquals(3, results.size());
+        assertEquals(new BatchResult(authorized.getId(), PaymentStatus.CAPTURED, null, null),
+                results.get(authorized.getId()));
+        assertEquals("INVALID_PAYMENT_STATE", results.get(captured.getId()).error());
+        assertEquals(PaymentStatus.CAPTURED, results.get(captured.getId()).status());
+        assertEquals("RESOURCE_NOT_FOUND", results.get(missing).error());
+
+        verify(gateway, times(1)).capture(any(), any());
+        verify(orderRepository, never()).findById(any());
+        assertNull(captured.getPendingAction());
+    }
+
+    @Test
+    void captureBatch_shouldReportGatewayDecline_andFailOrder() {
+
+        PaymentOrder order = createOrder(PaymentStatus.AUTHORIZED);
+        order.setLastSuccessfulGatewayTxnId("authTxn");
+
+        when(orderRepository.findAllById(List.of(order.getId())))
+                .thenReturn(List.of(order));
+        when(gateway.capture(order, "authTxn"))
+                .thenReturn(new GatewayResponse(false, null, "declined", true));
+        when(orderRepository.save(any(PaymentOrder.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+        runBatchesInline();
+
+        BatchResult result = captureBatch(order.getId()).get(order.getId());
+
+        assertEquals(PaymentStatus.FAILED, result.status());
+        assertEquals("PAYMENT_DECLINED", result.error());
+        assertEquals(1, meterRegistry.get("payment.operation")
+                .tags("action", "CAPTURE", "outcome", "declined").timer().count());
+    }
+
+    @Test
+    void captureBatch_shouldClaimOrdersOneByOne_whenChunkCommitConflicts() {
+
+        List<PaymentOrder> orders = List.of(
+                createOrder(PaymentStatus.AUTHORIZED), createOrder(PaymentStatus.AUTHORIZED));
+        orders.forEach(o -> o.setLastSuccessfulGatewayTxnId("authTxn"));
+        List<UUID> orderIds = orders.stream().map(PaymentOrder::getId).toList();
+        Map<UUID, PaymentOrder> byId = orders.stream()
+                .collect(Collectors.toMap(PaymentOrder::getId, o -> o));
+
+        when(orderRepository.findAllById(orderIds))
+                .thenThrow(new ObjectOptimisticLockingFailureException(PaymentOrder.class, orderIds.get(0)));
+        when(orderRepository.findById(any()))
+                .thenAnswer(inv -> Optional.of(byId.get(inv.<UUID>getArgument(0))));
+        when(gateway.capture(any(), eq("authTxn")))
+                .thenReturn(successResponse("capTxn"));
+        when(orderRepository.save(any(PaymentOrder.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+        runBatchesInline();
+
+        Map<UUID, BatchResult> results = captureBatch(orderIds.toArray(UUID[]::new));
+
+        assertTrue(results.values().stream().allMatch(r -> r.status() == PaymentStatus.CAPTURED));
+        verify(orderLocks).acquire(orderIds.get(0));
+        verify(orderLocks).acquire(orderIds.get(1));
+    }
+
+    private void runAsyncBatchesInline() {
+        when(batchWorkers.isAsyncGateway()).thenReturn(true);
+        when(batchWorkers.submitAsync(any())).thenAnswer(inv ->
+                inv.<Supplier<CompletableFuture<?>>>getArgument(0).get());
+    }
+
+    @Test
+    void captureBatch_shouldUseAsyncGateway_whenEnabled() {
+
+        PaymentOrder order = createOrder(PaymentStatus.AUTHORIZED);
+        order.setLastSuccessfulGatewayTxnId("authTxn");
+
+        when(orderRepository.findAllById(List.of(order.getId())))
+                .thenReturn(List.of(order));
+        when(asyncGateway.capture(order, "authTxn"))
+                .thenReturn(CompletableFuture.completedFuture(successResponse("capTxn")));
+        when(orderRepository.save(any(PaymentOrder.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+        runAsyncBatchesInline();
+
+        BatchResult result = captureBatch(order.getId()).get(order.getId());
+
+        assertEquals(PaymentStatus.CAPTURED, result.status());
+        assertEquals("capTxn", order.getLastSuccessfulGatewayTxnId());
+        verifyNoInteractions(gateway);
+        assertEquals(1, meterRegistry.get("payment.operation")
+                .tags("action", "CAPTURE", "outcome", "approved").timer().count());
+    }
+
+    @Test
+    void captureBatch_shouldKeepOrderAuthorized_whenAsyncGatewayRejectsCall() {
+
+        PaymentOrder order = createOrder(PaymentStatus.AUTHORIZED);
+        order.setLastSuccessfulGatewayTxnId("authTxn");
+
+        when(orderRepository.findAllById(List.of(order.getId())))
+                .thenReturn(List.of(order));
+        when(asyncGateway.capture(order, "authTxn"))
+                .thenReturn(CompletableFuture.failedFuture(
+                        new GatewayUnavailableException("BULKHEAD_FULL", "busy")));
+        when(orderRepository.save(any(PaymentOrder.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+        runAsyncBatchesInline();
+
+        BatchResult result = captureBatch(order.getId()).get(order.getId());
+
+        assertEquals(PaymentStatus.AUTHORIZED, result.status());
+        assertEquals(PaymentStatus.AUTHORIZED, order.getStatus());
+        assertNull(order.getPendingAction());
+    }
+
+    @Test
+    void cancelBatch_shouldVoidEachOrder() {
+
+        PaymentOrder order = createOrder(PaymentStatus.AUTHORIZED);
+        order.setLastSuccessfulGatewayTxnId("authTxn");
+
+        when(orderRepository.findAllById(List.of(order.getId())))
+                .thenReturn(List.of(order));
+        when(gateway.cancel(order, "authTxn"))
+                .thenReturn(successResponse("authTxn"));
+        when(orderRepository.save(any(PaymentOrder.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+        runBatchesInline();
+
+        Map<UUID, BatchResult> results = new ConcurrentHashMap<>();
+        paymentService.cancelBatch(List.of(order.getId()), r -> results.put(r.orderId(), r)).join();
+
+        assertEquals(new BatchResult(order.getId(), PaymentStatus.CANCELLED, null, null),
+                results.get(order.getId()));
+        verify(stateValidator).validate(PaymentStatus.AUTHORIZED, PaymentAction.CANCEL);
+    }
+
+    private Map<UUID, BatchResult> voidStale(PaymentOrder... orders) {
+        Map<UUID, BatchResult> results = new ConcurrentHashMap<>();
+        paymentService.voidStale(Stream.of(orders).map(PaymentOrder::getId).toList(),
+                r -> results.put(r.orderId(), r)).join();
+        return results;
+    }
+
+    @Test
+    void voidStale_shouldSkipOrdersClaimedByAnotherNode() {
+
+        PaymentOrder order = createOrder(PaymentStatus.AUTHORIZED);
+        order.setLastSuccessfulGatewayTxnId("authTxn");
+        PaymentOrder claimedElsewhere = createOrder(PaymentStatus.AUTHORIZED);
+
+        when(orderRepository.findIdleByIdSkipLocked(List.of(order.getId(), claimedElsewhere.getId())))
+                .thenReturn(List.of(order));
+        when(gateway.cancel(order, "authTxn"))
+                .thenReturn(successResponse("voidTxn"));
+        when(orderRepository.save(any(PaymentOrder.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+        runBatchesInline();
+
+        Map<UUID, BatchResult> results = voidStale(order, claimedElsewhere);
+
+        assertEquals(Map.of(order.getId(), new BatchResult(order.getId(), PaymentStatus.CANCELLED, null, null)),
+                results);
+        verify(gateway, times(1)).cancel(any(), any());
+        verify(orderRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void voidStale_shouldKeepOrderAuthorized_whenGatewayFailsWithoutDecline() {
+
+        PaymentOrder order = createOrder(PaymentStatus.AUTHORIZED);
+        order.setLastSuccessfulGatewayTxnId("authTxn");
+
+        when(orderRepository.findIdleByIdSkipLocked(List.of(order.getId())))
+                .thenReturn(List.of(order));
+        when(gateway.cancel(order, "authTxn"))
+                .thenReturn(new GatewayResponse(false, null, "timed out", false, "HTTP_503"));
+        when(orderRepository.save(any(PaymentOrder.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+        runBatchesInline();
+
+        BatchResult result = voidStale(order).get(order.getId());
+
+        assertEquals(PaymentStatus.AUTHORIZED, result.status());
+        assertEquals(PaymentStatus.AUTHORIZED, order.getStatus());
+        assertNull(order.getPendingAction());
+        verify(transactionRepository)
+                .completeAttempt(any(), eq(TransactionStatus.FAILED), isNull());
+    }
+
+    @Test
+    void voidStale_shouldFailOrder_whenGatewayDeclines() {
+
+        PaymentOrder order = createOrder(PaymentStatus.AUTHORIZED);
+        order.setLastSuccessfulGatewayTxnId("authTxn");
+
+        when(orderRepository.findIdleByIdSkipLocked(List.of(order.getId())))
+                .thenReturn(List.of(order));
+        when(gateway.cancel(order, "authTxn"))
+                .thenReturn(new GatewayResponse(false, null, "authorization expired", true));
+        when(orderRepository.save(any(PaymentOrder.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+        runBatchesInline();
+
+        BatchResult result = voidStale(order).get(order.getId());
+
+        assertEquals(PaymentStatus.FAILED, result.status());
+        assertEquals("PAYMENT_DECLINED", result.error());
+    }
+
     /* ===================== CANCEL ===================== */
 
     @Test
@@ -183,6 +698,32 @@ class PaymentServiceTest {
         assertEquals(PaymentStatus.CANCELLED, result.getStatus());
     }
 
+    @Test
+    void capture_shouldRecordFailedAttemptAndKeepOrderAuthorized_whenGatewayUnavailable() {
+
+        PaymentOrder order = createOrder(PaymentStatus.AUTHORIZED);
+        order.setLastSuccessfulGatewayTxnId("authTxn");
+
+        when(orderRepository.findById(order.getId()))
+                .thenReturn(Optional.of(order));
+
+        when(gateway.capture(order, "authTxn"))
+                .thenThrow(new GatewayUnavailableException("circuit open"));
+
+        when(orderRepository.save(any(PaymentOrder.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        assertThrows(GatewayUnavailableException.class,
+                () -> paymentService.capture(order.getId()));
+
+        assertEquals(PaymentStatus.AUTHORIZED, order.getStatus());
+        assertNull(order.getPendingAction());
+        verify(transactionRepository)
+                .completeAttempt(any(), eq(TransactionStatus.FAILED), isNull());
+        assertEquals(1, meterRegistry.get("payment.operation")
+                .tags("action", "CAPTURE", "outcome", "unavailable").timer().count());
+    }
+
     /* ===================== REFUND ===================== */
 
     @Test
@@ -260,4 +801,62 @@ class PaymentServiceTest {
 
         assertEquals(PaymentStatus.CAPTURED, result.getStatus());
     }
+
+    @Test
+    void refund_shouldSetRefunded_whenPartialRefundsAddUpToCapturedAmount() {
+
+        PaymentOrder order = createOrder(PaymentStatus.PARTIALLY_REFUNDED);
+        order.setCapturedAmount(BigDecimal.valueOf(200));
+        order.setRefundedAmount(BigDecimal.valueOf(120));
+        order.setLastSuccessfulGatewayTxnId("capTxn");
+
+        when(orderRepository.findById(order.getId()))
+                .thenReturn(Optional.of(order));
+
+        when(gateway.refund(order, "capTxn", BigDecimal.valueOf(80)))
+                .thenReturn(successResponse("refundTxn"));
+
+        when(orderRepository.save(any(PaymentOrder.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        PaymentOrder result =
+                paymentService.refund(order.getId(), BigDecimal.valueOf(80));
+
+        assertEquals(PaymentStatus.REFUNDED, result.getStatus());
+        assertEquals(0, BigDecimal.valueOf(200).compareTo(result.getRefundedAmount()));
+    }
+
+    @Test
+    void refund_shouldRejectWithoutCallingGateway_whenExceedingRefundableBalance() {
+
+        PaymentOrder order = createOrder(PaymentStatus.PARTIALLY_REFUNDED);
+        order.setCapturedAmount(BigDecimal.valueOf(200));
+        order.setRefundedAmount(BigDecimal.valueOf(150));
+
+        when(orderRepository.findById(order.getId()))
+                .thenReturn(Optional.of(order));
+
+        assertThrows(InvalidPaymentStateException.class,
+                () -> paymentService.refund(order.getId(), BigDecimal.valueOf(100)));
+
+        verifyNoInteractions(gateway);
+    }
+
+    @Test
+    void refund_shouldBackfillRefundedTotal_forOrdersWithoutRunningTotals() {
+
+        PaymentOrder order = createOrder(PaymentStatus.PARTIALLY_REFUNDED);
+
+        when(orderRepository.findById(order.getId()))
+                .thenReturn(Optional.of(order));
+
+        when(transactionRepository.sumAmount(
+                order, TransactionType.REFUND, TransactionStatus.SUCCESS))
+                .thenReturn(BigDecimal.valueOf(150));
+
+        assertThrows(InvalidPaymentStateException.class,
+                () -> paymentService.refund(order.getId(), BigDecimal.valueOf(100)));
+
+        verifyNoInteractions(gateway);
+    }
 }
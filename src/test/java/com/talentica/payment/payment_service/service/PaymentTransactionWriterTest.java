@@ -0,0 +1,101 @@
+package com.talentica.payment.payment_service.service;
+
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import com.talentica.payment.payment_service.domain.entity.PaymentTransaction;
+import com.talentica.payment.payment_service.domain.enums.TransactionStatus;
+import com.talentica.payment.payment_service.domain.enums.TransactionType;
+import com.talentica.payment.payment_service.repository.PaymentTransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentTransactionWriterTest {
+
+    @Mock
+    private PaymentTransactionRepository transactionRepository;
+
+    private PaymentTransactionWriter writer;
+
+    private PaymentTransactionWriter writer(PaymentProperties.Durability durability,
+                                            Duration linger) {
+
+        PaymentProperties properties = new PaymentProperties();
+        properties.getAuditWriter().setEnabled(true);
+        properties.getAuditWriter().setDurability(durability);
+        properties.getAuditWriter().setBatchSize(3);
+        properties.getAuditWriter().setLinger(linger);
+
+        writer = new PaymentTransactionWriter(transactionRepository,
+                TransactionOperations.withoutTransaction(), properties);
+        return writer;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    private PaymentTransaction pending() {
+        return PaymentTransaction.builder()
+                .type(TransactionType.PURCHASE)
+                .amount(BigDecimal.TEN)
+                .status(TransactionStatus.PENDING)
+                .build();
+    }
+
+    @Test
+    void write_shouldCoalesceConcurrentInsertsIntoOneBatch() {
+
+        writer(PaymentProperties.Durability.ASYNC, Duration.ofSeconds(5)).start();
+
+        List<CompletableFuture<Void>> writes = IntStream.range(0, 3)
+                .mapToObj(i -> writer.write(pending()))
+                .toList();
+
+        CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).join();
+
+        verify(transactionRepository).saveAll(argThat(batch ->
+                ((List<?>) batch).size() == 3));
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    void write_shouldWaitForCommit_whenDurabilityIsSync() {
+
+        writer(PaymentProperties.Durability.SYNC, Duration.ZERO).start();
+
+        CompletableFuture<Void> write = writer.write(pending());
+
+        assertTrue(write.isDone());
+        verify(transactionRepository).saveAll(anyIterable());
+    }
+
+    @Test
+    void write_shouldSaveOnCallerThread_whenPipelineIsNotRunning() {
+
+        CompletableFuture<Void> write =
+                writer(PaymentProperties.Durability.ASYNC, Duration.ZERO).write(pending());
+
+        assertTrue(write.isDone());
+        verify(transactionRepository).save(any(PaymentTransaction.class));
+        verify(transactionRepository, never()).saveAll(anyIterable());
+    }
+}
@@ -0,0 +1,76 @@
+package com.talentica.payment.payment_service.service;
+
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import com.talentica.payment.payment_service.exception.GatewayUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentWorkersTest {
+
+    private PaymentWorkers workers;
+
+    private PaymentWorkers workers(int poolSize, int queueCapacity, Duration maxQueueTime) {
+        PaymentProperties properties = new PaymentProperties();
+        properties.getAsyncWorkers().setPoolSize(poolSize);
+        properties.getAsyncWorkers().setQueueCapacity(queueCapacity);
+        properties.getAsyncWorkers().setMaxQueueTime(maxQueueTime);
+        workers = new PaymentWorkers(properties, new SimpleMeterRegistry());
+        return workers;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        workers.shutdown();
+    }
+
+    @Test
+    void reserve_shouldReject_whenPoolAndQueueAreFull_untilWorkCompletes() throws Exception {
+
+        PaymentWorkers workers = workers(1, 1, Duration.ofMinutes(1));
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> done = new CompletableFuture<>();
+
+        workers.reserve().submit(() -> await(release), () -> fail("expired"));
+        workers.reserve().submit(() -> done.complete(null), () -> fail("expired"));
+
+        assertThrows(GatewayUnavailableException.class, workers::reserve);
+
+        release.countDown();
+        done.get(5, TimeUnit.SECONDS);
+
+        assertDoesNotThrow(() -> workers.reserve().cancel());
+    }
+
+    @Test
+    void submit_shouldRunExpiredAction_whenTaskWaitedBeyondMaxQueueTime() throws Exception {
+
+        PaymentWorkers workers = workers(1, 1, Duration.ofMillis(10));
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> outcome = new CompletableFuture<>();
+
+        // Holds the only thread either way, even if it is slow enough to start that this one expires too
+        workers.reserve().submit(() -> await(release), () -> await(release));
+        workers.reserve().submit(() -> outcome.complete("ran"), () -> outcome.complete("expired"));
+
+        Thread.sleep(50);
+        release.countDown();
+
+        assertEquals("expired", outcome.get(5, TimeUnit.SECONDS));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
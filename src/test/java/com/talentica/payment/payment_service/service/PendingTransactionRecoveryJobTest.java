@@ -0,0 +1,125 @@
+package com.talentica.payment.payment_service.service;
+
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.domain.entity.PaymentTransaction;
+import com.talentica.payment.payment_service.domain.enums.PaymentAction;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import com.talentica.payment.payment_service.domain.enums.TransactionStatus;
+import com.talentica.payment.payment_service.domain.enums.TransactionType;
+import com.talentica.payment.payment_service.domain.event.PaymentStatusChanged;
+import com.talentica.payment.payment_service.outbox.PaymentOutbox;
+import com.talentica.payment.payment_service.repository.PaymentOrderRepository;
+import com.talentica.payment.payment_service.repository.PaymentTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PendingTransactionRecoveryJobTest {
+
+    @Mock
+    private PaymentTransactionRepository transactionRepository;
+
+    @Mock
+    private PaymentOrderRepository orderRepository;
+
+    @Mock
+    private PaymentOutbox outbox;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private PendingTransactionRecoveryJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new PendingTransactionRecoveryJob(transactionRepository, orderRepository,
+                new PaymentProperties(), outbox, eventPublisher);
+    }
+
+    private static PaymentOrder claimed(PaymentStatus status, PaymentAction action) {
+        return PaymentOrder.builder()
+                .id(UUID.randomUUID())
+                .amount(new BigDecimal("25.00"))
+                .currency("USD")
+                .status(status)
+                .pendingAction(action)
+                .build();
+    }
+
+    private PaymentTransaction pending(PaymentStatus orderStatus, PaymentAction action, TransactionType type) {
+
+        PaymentOrder order = claimed(orderStatus, action);
+
+        PaymentTransaction txn = PaymentTransaction.builder()
+                .paymentOrder(order)
+                .type(type)
+                .amount(order.getAmount())
+                .status(TransactionStatus.PENDING)
+                .build();
+
+        when(transactionRepository.findByStatusAndCreatedAtBefore(eq(TransactionStatus.PENDING), any(), any()))
+                .thenReturn(List.of(txn));
+        return txn;
+    }
+
+    @Test
+    void recoverStaleAttempts_shouldParkNewOrder_insteadOfFailingIt() {
+
+        PaymentTransaction txn = pending(PaymentStatus.CREATED, PaymentAction.PURCHASE, TransactionType.PURCHASE);
+        PaymentOrder order = txn.getPaymentOrder();
+
+        job.recoverStaleAttempts();
+
+        assertEquals(TransactionStatus.FAILED, txn.getStatus());
+        assertEquals(PaymentStatus.NEEDS_RECONCILIATION, order.getStatus());
+        assertNull(order.getPendingAction());
+        verify(outbox).recordStatusChange(order, PaymentStatus.CREATED);
+        verify(eventPublisher).publishEvent(PaymentStatusChanged.of(order, PaymentStatus.CREATED));
+    }
+
+    @Test
+    void recoverStaleAttempts_shouldReleaseFollowUpClaim_andKeepOrderState() {
+
+        PaymentTransaction txn = pending(PaymentStatus.AUTHORIZED, PaymentAction.CAPTURE, TransactionType.CAPTURE);
+        PaymentOrder order = txn.getPaymentOrder();
+
+        job.recoverStaleAttempts();
+
+        assertEquals(TransactionStatus.FAILED, txn.getStatus());
+        assertEquals(PaymentStatus.AUTHORIZED, order.getStatus());
+        assertNull(order.getPendingAction());
+        verifyNoInteractions(outbox, eventPublisher);
+    }
+
+    @Test
+    void recoverStaleAttempts_shouldReleaseClaimsWhosePendingRowWasLost() {
+
+        PaymentOrder created = claimed(PaymentStatus.CREATED, PaymentAction.AUTHORIZE);
+        PaymentOrder authorized = claimed(PaymentStatus.AUTHORIZED, PaymentAction.CANCEL);
+        when(orderRepository.findClaimedWithoutAttempt(eq(TransactionStatus.PENDING), any(), any()))
+                .thenReturn(List.of(created, authorized));
+
+        job.recoverStaleAttempts();
+
+        assertEquals(PaymentStatus.NEEDS_RECONCILIATION, created.getStatus());
+        assertEquals(PaymentStatus.AUTHORIZED, authorized.getStatus());
+        assertNull(created.getPendingAction());
+        assertNull(authorized.getPendingAction());
+        verify(outbox).recordStatusChange(created, PaymentStatus.CREATED);
+        verifyNoMoreInteractions(outbox);
+    }
+}
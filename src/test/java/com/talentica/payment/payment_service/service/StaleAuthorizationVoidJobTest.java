@@ -0,0 +1,102 @@
+package com.talentica.payment.payment_service.service;
+
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import com.talentica.payment.payment_service.dto.response.BatchResult;
+import com.talentica.payment.payment_service.repository.OrderKey;
+import com.talentica.payment.payment_service.repository.PaymentOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StaleAuthorizationVoidJobTest {
+
+    @Mock
+    private PaymentOrderRepository orderRepository;
+
+    @Mock
+    private PaymentService paymentService;
+
+    private final PaymentProperties properties = new PaymentProperties();
+
+    private StaleAuthorizationVoidJob job;
+
+    @BeforeEach
+    void setUp() {
+        properties.getAutoVoid().setEnabled(true);
+        properties.getAutoVoid().setPageSize(2);
+        job = new StaleAuthorizationVoidJob(orderRepository, paymentService, properties);
+    }
+
+    private static OrderKey key(int secondsAgo) {
+        return new OrderKey(UUID.randomUUID(), Instant.now().minusSeconds(secondsAgo));
+    }
+
+    private void answerEachOrderWith(String error) {
+        when(paymentService.voidStale(any(), any())).thenAnswer(inv -> {
+            List<UUID> orderIds = inv.getArgument(0);
+            Consumer<BatchResult> results = inv.getArgument(1);
+            orderIds.forEach(id -> results.accept(new BatchResult(id, PaymentStatus.CANCELLED, error, null)));
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    @Test
+    void voidStaleAuthorizations_shouldPageByKey_untilNoneLeft() {
+
+        OrderKey first = key(30);
+        OrderKey second = key(20);
+        OrderKey third = key(10);
+
+        when(orderRepository.findIdleCreatedBefore(eq(PaymentStatus.AUTHORIZED), any(),
+                eq(OrderKey.START.createdAt()), eq(OrderKey.START.id()), any()))
+                .thenReturn(List.of(first, second));
+        when(orderRepository.findIdleCreatedBefore(eq(PaymentStatus.AUTHORIZED), any(),
+                eq(second.createdAt()), eq(second.id()), any()))
+                .thenReturn(List.of(third));
+        when(orderRepository.findIdleCreatedBefore(eq(PaymentStatus.AUTHORIZED), any(),
+                eq(third.createdAt()), eq(third.id()), any()))
+                .thenReturn(List.of());
+        answerEachOrderWith(null);
+
+        job.voidStaleAuthorizations();
+
+        verify(paymentService).voidStale(eq(List.of(first.id(), second.id())), any());
+        verify(paymentService).voidStale(eq(List.of(third.id())), any());
+    }
+
+    @Test
+    void voidStaleAuthorizations_shouldStopRun_whenGatewayUnavailable() {
+
+        when(orderRepository.findIdleCreatedBefore(any(), any(), any(), any(), any()))
+                .thenReturn(List.of(key(30), key(20)));
+        answerEachOrderWith("GATEWAY_UNAVAILABLE");
+
+        job.voidStaleAuthorizations();
+
+        verify(orderRepository, times(1)).findIdleCreatedBefore(any(), any(), any(), any(), any());
+        verify(paymentService, times(1)).voidStale(any(), any());
+    }
+
+    @Test
+    void voidStaleAuthorizations_shouldDoNothing_unlessEnabled() {
+
+        new StaleAuthorizationVoidJob(orderRepository, paymentService, new PaymentProperties())
+                .voidStaleAuthorizations();
+
+        verifyNoInteractions(orderRepository, paymentService);
+    }
+}
@@ -0,0 +1,152 @@
+package com.talentica.payment.payment_service.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.talentica.payment.payment_service.config.PaymentProperties;
+import com.talentica.payment.payment_service.controller.PaymentController;
+import com.talentica.payment.payment_service.domain.entity.PaymentOrder;
+import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
+import com.talentica.payment.payment_service.domain.event.PaymentStatusChanged;
+import com.talentica.payment.payment_service.exception.GlobalExceptionHandler;
+import com.talentica.payment.payment_service.repository.PaymentOrderRepository;
+import com.talentica.payment.payment_service.service.IdempotencyService;
+import com.talentica.payment.payment_service.service.PaymentQueryService;
+import com.talentica.payment.payment_service.service.PaymentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentSubscriptionsTest {
+
+    @Mock
+    private PaymentOrderRepository orderRepository;
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private PaymentQueryService paymentQueryService;
+
+    // Sends run only when the test drains them, standing in for a slow client
+    private final Queue<Runnable> sends = new ArrayDeque<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PaymentProperties properties = new PaymentProperties();
+
+    private PaymentSubscriptions subscriptions;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        properties.getStream().setQueueCapacity(2);
+        properties.getStream().setMaxSubscribers(2);
+        ObjectMapper objectMapper = new ObjectMapper();
+        subscriptions = new PaymentSubscriptions(
+                orderRepository, objectMapper, properties, meterRegistry, sends::add);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new PaymentController(paymentService, idempotencyService,
+                        paymentQueryService, subscriptions, properties, objectMapper))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    private MockHttpServletResponse subscribe(String param, String value) throws Exception {
+        return mockMvc.perform(get("/api/payments/stream").param(param, value))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    private void runSends() {
+        Runnable send;
+        while ((send = sends.poll()) != null) {
+            send.run();
+        }
+    }
+
+    private static PaymentStatusChanged changed(UUID orderId, PaymentStatus from, PaymentStatus to) {
+        return new PaymentStatusChanged(orderId, from, to, new BigDecimal("10.00"), "USD");
+    }
+
+    @Test
+    void orderSubscriber_shouldGetCurrentStateThenUpdates_forItsOrderOnly() throws Exception {
+
+        UUID orderId = UUID.randomUUID();
+        when(orderRepository.findAllById(any())).thenReturn(List.of(PaymentOrder.builder()
+                .id(orderId)
+                .amount(new BigDecimal("10.00"))
+                .currency("USD")
+                .status(PaymentStatus.AUTHORIZED)
+                .build()));
+
+        MockHttpServletResponse response = subscribe("orderId", orderId.toString());
+        subscriptions.onStatusChanged(changed(UUID.randomUUID(), PaymentStatus.CREATED, PaymentStatus.CAPTURED));
+        subscriptions.onStatusChanged(changed(orderId, PaymentStatus.AUTHORIZED, PaymentStatus.CAPTURED));
+        runSends();
+
+        String body = response.getContentAsString();
+        assertEquals(2, body.split("event:payment").length - 1, body);
+        assertTrue(body.indexOf("\"status\":\"AUTHORIZED\"") < body.indexOf("\"status\":\"CAPTURED\""), body);
+        assertTrue(body.contains(orderId.toString()));
+    }
+
+    @Test
+    void statusFilter_shouldSkipOtherStatuses() throws Exception {
+
+        MockHttpServletResponse response = subscribe("status", "CAPTURED");
+        UUID orderId = UUID.randomUUID();
+        subscriptions.onStatusChanged(changed(orderId, PaymentStatus.CREATED, PaymentStatus.AUTHORIZED));
+        subscriptions.onStatusChanged(changed(orderId, PaymentStatus.AUTHORIZED, PaymentStatus.CAPTURED));
+        runSends();
+
+        String body = response.getContentAsString();
+        assertFalse(body.contains("AUTHORIZED"), body);
+        assertTrue(body.contains("\"status\":\"CAPTURED\""), body);
+    }
+
+    @Test
+    void subscriberFallingBehind_shouldBeDisconnected() throws Exception {
+
+        subscribe("status", "CAPTURED");
+        assertEquals(1, subscriptions.subscriberCount());
+
+        for (int i = 0; i < 3; i++) {
+            subscriptions.onStatusChanged(changed(UUID.randomUUID(), PaymentStatus.AUTHORIZED, PaymentStatus.CAPTURED));
+        }
+
+        assertEquals(0, subscriptions.subscriberCount());
+        assertEquals(1.0, meterRegistry.counter("payment.stream.evictions").count());
+    }
+
+    @Test
+    void subscribe_beyondLimit_shouldReturn503() throws Exception {
+
+        subscribe("status", "CAPTURED");
+        subscribe("status", "REFUNDED");
+
+        mockMvc.perform(get("/api/payments/stream"))
+                .andExpect(status().isServiceUnavailable());
+        assertEquals(2, subscriptions.subscriberCount());
+    }
+}
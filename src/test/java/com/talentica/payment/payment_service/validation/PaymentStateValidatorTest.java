@@ -1,13 +1,20 @@
 package com.talentica.payment.payment_service.validation;
 
+import com.talentica.payment.payment_service.config.PaymentProperties;
 import com.talentica.payment.payment_service.domain.enums.PaymentStatus;
 import com.talentica.payment.payment_service.domain.enums.PaymentAction;
 import com.talentica.payment.payment_service.exception.InvalidPaymentStateException;
 import com.talentica.payment.payment_service.service.PaymentStateValidator;
 import org.junit.jupiter.api.Test;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class PaymentStateValidatorTest {
 
@@ -71,5 +78,60 @@ class PaymentStateValidatorTest {
                 validator.validate(PaymentStatus.CAPTURED, PaymentAction.PURCHASE)
         );
     }
+
+    @Test
+    void rejection_shouldKeepDefaultMessages_withoutStackTrace() {
+        InvalidPaymentStateException e = assertThrows(InvalidPaymentStateException.class, () ->
+                validator.validate(PaymentStatus.REFUNDED, PaymentAction.REFUND)
+        );
+
+        assertEquals("Refund allowed only after CAPTURE", e.getMessage());
+        assertEquals(0, e.getStackTrace().length);
+        assertEquals("Capture allowed only in AUTHORIZED state", assertThrows(InvalidPaymentStateException.class,
+                () -> validator.validate(PaymentStatus.CREATED, PaymentAction.CAPTURE)).getMessage());
+    }
+
+    /* ===================== CHECK ===================== */
+
+    @Test
+    void isAllowed_shouldMatchValidate_forEveryStatusAndAction() {
+        for (PaymentAction action : PaymentAction.values()) {
+            for (PaymentStatus status : PaymentStatus.values()) {
+                boolean allowed = validator.isAllowed(status, action);
+                try {
+                    validator.validate(status, action);
+                    assertTrue(allowed, action + " from " + status);
+                } catch (InvalidPaymentStateException e) {
+                    assertFalse(allowed, action + " from " + status);
+                }
+            }
+        }
+    }
+
+    /* ===================== CONFIGURED ===================== */
+
+    @Test
+    void configuredTransitions_shouldReplaceDefaults_forTheirAction() {
+        PaymentProperties properties = new PaymentProperties();
+        properties.getStateMachine().getAllowedFrom()
+                .put(PaymentAction.CANCEL, EnumSet.of(PaymentStatus.CREATED, PaymentStatus.AUTHORIZED));
+
+        PaymentStateValidator configured = new PaymentStateValidator(properties);
+
+        assertTrue(configured.isAllowed(PaymentStatus.CREATED, PaymentAction.CANCEL));
+        assertTrue(configured.isAllowed(PaymentStatus.AUTHORIZED, PaymentAction.CANCEL));
+        assertFalse(configured.isAllowed(PaymentStatus.CREATED, PaymentAction.CAPTURE));
+        assertEquals("Cancel allowed only in CREATED or AUTHORIZED state", assertThrows(
+                InvalidPaymentStateException.class,
+                () -> configured.validate(PaymentStatus.CAPTURED, PaymentAction.CANCEL)).getMessage());
+    }
+
+    @Test
+    void actionWithoutAllowedStates_shouldFailAtStartup() {
+        PaymentProperties properties = new PaymentProperties();
+        properties.getStateMachine().getAllowedFrom().put(PaymentAction.REFUND, Set.of());
+
+        assertThrows(IllegalStateException.class, () -> new PaymentStateValidator(properties));
+    }
 }
 